@@ -0,0 +1,114 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes graphs in the compact binary format described in BufferGraph.
+ *
+ * Writing streams the sections through a small buffer. Loading memory-maps the file, so it
+ * takes roughly constant time regardless of graph size, pages are only read from disk when a
+ * traversal touches them, and several processes mapping the same file share one copy of it in
+ * the operating system's page cache.
+ *
+ * Example:
+ *   BinaryGraphFile.write(graph, path);
+ *   CompactGraph mapped = BinaryGraphFile.map(path);
+ *   CompactGraphs.sortedReachable(mapped, 1);
+ */
+public final class BinaryGraphFile {
+  private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+  private BinaryGraphFile() {
+  }
+
+  /**
+   * Writes a Map-based graph. A neighbor that is not itself a key of the map is dropped,
+   * since Practice never reaches it.
+   *
+   * @param graph a map representing the graph
+   * @param path the file to create or replace
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(Map<Integer, Set<Integer>> graph, Path path) throws IOException {
+    write(CsrGraph.fromMap(graph), path);
+  }
+
+  /**
+   * Writes a compact graph.
+   *
+   * @param graph the graph
+   * @param path the file to create or replace
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(CompactGraph graph, Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      Writer out = new Writer(channel);
+      BufferGraph.writeImage(graph, out);
+      out.flush();
+    }
+  }
+
+  /**
+   * Memory-maps a graph file written by write. The returned graph reads straight from the
+   * mapping; nothing is copied onto the heap.
+   *
+   * @param path the file to map
+   * @return the mapped graph
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a valid graph file
+   */
+  public static BufferGraph map(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return new BufferGraph(SegmentedBuffer.map(channel, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Buffered little-endian writer that tracks its position in the file.
+   */
+  private static class Writer implements BufferGraph.ImageSink {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private long position;
+
+    Writer(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public void putInt(int value) throws IOException {
+      if (buffer.remaining() < 4) flush();
+      buffer.putInt(value);
+      position += 4;
+    }
+
+    @Override
+    public void putLong(long value) throws IOException {
+      if (buffer.remaining() < 8) flush();
+      buffer.putLong(value);
+      position += 8;
+    }
+
+    @Override
+    public void padTo(long offset) throws IOException {
+      while (position < offset) {
+        if (!buffer.hasRemaining()) flush();
+        buffer.put((byte) 0);
+        position++;
+      }
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
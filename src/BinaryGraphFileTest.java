@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class BinaryGraphFileTest {
+
+  @TempDir
+  Path tempDir;
+
+  // Builds a random map graph over ids -20..39, including negative ids and dangling neighbors.
+  private static Map<Integer, Set<Integer>> randomGraph(long seed) {
+    Random random = new Random(seed);
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    for (int id = -20; id < 40; id++) {
+      if (random.nextInt(10) == 0) continue;
+      Set<Integer> neighbors = new HashSet<>();
+      int degree = random.nextInt(4);
+      for (int i = 0; i < degree; i++) neighbors.add(random.nextInt(70) - 25);
+      graph.put(id, neighbors);
+    }
+    return graph;
+  }
+
+  @Test
+  public void testMappedGraphMatchesPractice() throws IOException {
+    for (long seed = 0; seed < 20; seed++) {
+      Map<Integer, Set<Integer>> graph = randomGraph(seed);
+      Path file = tempDir.resolve("graph" + seed + ".bin");
+      BinaryGraphFile.write(graph, file);
+      CompactGraph mapped = BinaryGraphFile.map(file);
+
+      for (int start = -25; start < 45; start++) {
+        assertEquals(Practice.sortedReachable(graph, start), CompactGraphs.sortedReachable(mapped, start));
+        for (int end = -25; end < 45; end += 7) {
+          assertEquals(Practice.positivePathExists(graph, start, end), CompactGraphs.positivePathExists(mapped, start, end),
+              "seed " + seed + " path " + start + " -> " + end);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTripPreservesStructure() throws IOException {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    graph.put(5, new HashSet<>(Arrays.asList(4, 8)));
+    graph.put(4, new HashSet<>(Arrays.asList(7)));
+    graph.put(8, new HashSet<>(Arrays.asList(7, 9)));
+    graph.put(7, new HashSet<>());
+    graph.put(9, new HashSet<>());
+    Path file = tempDir.resolve("small.bin");
+    BinaryGraphFile.write(graph, file);
+
+    BufferGraph mapped = BinaryGraphFile.map(file);
+    assertEquals(5, mapped.vertexCount());
+    assertEquals(5, mapped.edgeCount());
+    assertEquals(graph, CsrGraph.copyOf(mapped).toMap());
+    assertEquals(3, CompactGraphs.oddVertices(mapped, 5));
+    assertEquals(-1, mapped.indexOf(6));
+  }
+
+  @Test
+  public void testEmptyGraph() throws IOException {
+    Path file = tempDir.resolve("empty.bin");
+    BinaryGraphFile.write(new HashMap<>(), file);
+    CompactGraph mapped = BinaryGraphFile.map(file);
+    assertEquals(0, mapped.vertexCount());
+    assertTrue(CompactGraphs.sortedReachable(mapped, 1).isEmpty());
+  }
+
+  @Test
+  public void testRejectsForeignFile() throws IOException {
+    Path file = tempDir.resolve("text.bin");
+    Files.writeString(file, "1 2\n2 3\n this is not a graph image");
+    assertThrows(IllegalArgumentException.class, () -> BinaryGraphFile.map(file));
+  }
+}
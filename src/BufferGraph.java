@@ -0,0 +1,224 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A CompactGraph read directly out of a binary graph image, without copying it onto the heap.
+ *
+ * The image is the layout written by BinaryGraphFile, all values little-endian and every section
+ * starting on an 8 byte boundary:
+ *
+ *   header       magic, format version, vertex count n, flags (4 ints), edge count m (long), reserved (long)
+ *   ids          n ints, the id of every vertex
+ *   sortedIds    n ints, the ids in ascending order
+ *   sortedIndex  n ints, the vertex index of each entry of sortedIds
+ *   offsets      n + 1 longs, the first edge of every vertex followed by m
+ *   targets      m ints, the target vertex index of every edge
+ *
+ * The image can be a memory-mapped file (BinaryGraphFile.map) or a block of off-heap memory
+ * (offHeapCopyOf); either way the graph lives outside the garbage-collected heap, so it adds
+ * nothing to what the collector has to trace and pause times do not grow with the graph.
+ */
+public class BufferGraph implements CompactGraph {
+  static final int MAGIC = 0x48505247;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 32;
+
+  static final int IDS = 0;
+  static final int SORTED_IDS = 1;
+  static final int SORTED_INDEX = 2;
+  static final int OFFSETS = 3;
+  static final int TARGETS = 4;
+  static final int END = 5;
+
+  private final SegmentedBuffer buffer;
+  private final int vertexCount;
+  private final long edgeCount;
+  private final long idsAt;
+  private final long sortedIdsAt;
+  private final long sortedIndexAt;
+  private final long offsetsAt;
+  private final long targetsAt;
+
+  /**
+   * Wraps an image, validating its header.
+   *
+   * @throws IllegalArgumentException if the header is not a supported graph header
+   */
+  BufferGraph(SegmentedBuffer buffer) {
+    if (buffer.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a binary graph image");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IllegalArgumentException("Unsupported binary graph version " + buffer.getInt(4));
+    }
+    this.buffer = buffer;
+    this.vertexCount = buffer.getInt(8);
+    this.edgeCount = buffer.getLong(16);
+
+    long[] sections = sections(vertexCount, edgeCount);
+    if (buffer.size() < sections[END]) {
+      throw new IllegalArgumentException("Binary graph image is truncated");
+    }
+    this.idsAt = sections[IDS];
+    this.sortedIdsAt = sections[SORTED_IDS];
+    this.sortedIndexAt = sections[SORTED_INDEX];
+    this.offsetsAt = sections[OFFSETS];
+    this.targetsAt = sections[TARGETS];
+  }
+
+  /**
+   * Receives an image, value by value, in file order.
+   */
+  interface ImageSink {
+    void putInt(int value) throws IOException;
+
+    void putLong(long value) throws IOException;
+
+    /**
+     * Writes zero bytes up to the given offset from the start of the image.
+     */
+    void padTo(long offset) throws IOException;
+  }
+
+  /**
+   * Copies a graph into freshly allocated off-heap memory. Only the id lookup is built on the
+   * heap while copying; the result holds no heap arrays.
+   *
+   * @param graph the graph to copy
+   * @return an off-heap copy
+   */
+  public static BufferGraph offHeapCopyOf(CompactGraph graph) {
+    long[] sections = sections(graph.vertexCount(), graph.edgeCount());
+    SegmentedBuffer buffer = SegmentedBuffer.allocateDirect(sections[END]);
+    ImageSink sink = new ImageSink() {
+      private long position;
+
+      @Override
+      public void putInt(int value) {
+        buffer.putInt(position, value);
+        position += 4;
+      }
+
+      @Override
+      public void putLong(long value) {
+        buffer.putLong(position, value);
+        position += 8;
+      }
+
+      @Override
+      public void padTo(long offset) {
+        // Direct buffers start zeroed.
+        position = offset;
+      }
+    };
+
+    try {
+      writeImage(graph, sink);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new BufferGraph(buffer);
+  }
+
+  /**
+   * Writes the image of a graph to the sink.
+   */
+  static void writeImage(CompactGraph graph, ImageSink out) throws IOException {
+    int n = graph.vertexCount();
+    long m = graph.edgeCount();
+    long[] sections = sections(n, m);
+
+    int[] ids = new int[n];
+    for (int v = 0; v < n; v++) {
+      ids[v] = graph.id(v);
+    }
+    int[][] lookup = CsrGraph.lookupTables(ids);
+
+    out.putInt(MAGIC);
+    out.putInt(VERSION);
+    out.putInt(n);
+    out.putInt(0);
+    out.putLong(m);
+    out.putLong(0);
+
+    out.padTo(sections[IDS]);
+    for (int id : ids) out.putInt(id);
+    out.padTo(sections[SORTED_IDS]);
+    for (int id : lookup[0]) out.putInt(id);
+    out.padTo(sections[SORTED_INDEX]);
+    for (int index : lookup[1]) out.putInt(index);
+    out.padTo(sections[OFFSETS]);
+    for (int v = 0; v < n; v++) out.putLong(graph.edgeStart(v));
+    out.putLong(m);
+    out.padTo(sections[TARGETS]);
+    for (int v = 0; v < n; v++) {
+      for (long e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+        out.putInt(graph.target(e));
+      }
+    }
+    out.padTo(sections[END]);
+  }
+
+  /**
+   * Returns the byte offset of every section of an image with the given size,
+   * followed by the total image size.
+   */
+  static long[] sections(int vertexCount, long edgeCount) {
+    long[] sections = new long[END + 1];
+    sections[IDS] = HEADER_BYTES;
+    sections[SORTED_IDS] = align(sections[IDS] + 4L * vertexCount);
+    sections[SORTED_INDEX] = align(sections[SORTED_IDS] + 4L * vertexCount);
+    sections[OFFSETS] = align(sections[SORTED_INDEX] + 4L * vertexCount);
+    sections[TARGETS] = sections[OFFSETS] + 8L * (vertexCount + 1);
+    sections[END] = align(sections[TARGETS] + 4L * edgeCount);
+    return sections;
+  }
+
+  private static long align(long offset) {
+    return (offset + 7) & ~7L;
+  }
+
+  @Override
+  public int vertexCount() {
+    return vertexCount;
+  }
+
+  @Override
+  public long edgeCount() {
+    return edgeCount;
+  }
+
+  @Override
+  public int id(int index) {
+    return buffer.getInt(idsAt + 4L * index);
+  }
+
+  @Override
+  public int indexOf(int id) {
+    int low = 0;
+    int high = vertexCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int value = buffer.getInt(sortedIdsAt + 4L * mid);
+      if (value < id) low = mid + 1;
+      else if (value > id) high = mid - 1;
+      else return buffer.getInt(sortedIndexAt + 4L * mid);
+    }
+    return -1;
+  }
+
+  @Override
+  public long edgeStart(int index) {
+    return buffer.getLong(offsetsAt + 8L * index);
+  }
+
+  @Override
+  public long edgeEnd(int index) {
+    return buffer.getLong(offsetsAt + 8L * (index + 1));
+  }
+
+  @Override
+  public int target(long edge) {
+    return buffer.getInt(targetsAt + 4L * edge);
+  }
+}
@@ -0,0 +1,37 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class BufferGraphTest {
+
+  @Test
+  public void testOffHeapCopyMatchesPractice() {
+    Random random = new Random(32);
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    for (int id = -10; id < 60; id++) {
+      Set<Integer> neighbors = new HashSet<>();
+      for (int i = random.nextInt(4); i > 0; i--) neighbors.add(random.nextInt(70) - 10);
+      graph.put(id, neighbors);
+    }
+    BufferGraph offHeap = BufferGraph.offHeapCopyOf(CsrGraph.fromMap(graph));
+
+    for (int start = -10; start < 60; start++) {
+      List<Integer> expected = Practice.sortedReachable(graph, start);
+      assertEquals(expected, CompactGraphs.sortedReachable(offHeap, start));
+      int odd = 0;
+      for (int value : expected) if (value % 2 != 0) odd++;
+      assertEquals(odd, CompactGraphs.oddVertices(offHeap, start));
+      for (int end = -10; end < 60; end += 9) {
+        assertEquals(Practice.positivePathExists(graph, start, end), CompactGraphs.positivePathExists(offHeap, start, end));
+      }
+    }
+  }
+
+  @Test
+  public void testOffHeapCopyOfEmptyGraph() {
+    BufferGraph offHeap = BufferGraph.offHeapCopyOf(CsrGraph.fromMap(new HashMap<>()));
+    assertEquals(0, offHeap.vertexCount());
+    assertEquals(0, offHeap.edgeCount());
+    assertEquals(-1, offHeap.indexOf(0));
+  }
+}
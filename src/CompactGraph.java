@@ -0,0 +1,67 @@
+/**
+ * A read-only graph of integer-valued vertices stored in compressed sparse row form.
+ *
+ * Vertices are addressed by a dense index from 0 to vertexCount() - 1, and each vertex carries
+ * the integer value (its id) it had in the original Map-based graph. The outgoing edges of the
+ * vertex at index v are the edges from edgeStart(v) inclusive to edgeEnd(v) exclusive, and
+ * target(e) is the index of the vertex edge e points to.
+ *
+ * Ids are unique, matching the Map-based graphs accepted by Practice. Algorithms over this
+ * interface live in CompactGraphs.
+ */
+public interface CompactGraph {
+
+  /**
+   * Returns the number of vertices.
+   *
+   * @return the number of vertices
+   */
+  int vertexCount();
+
+  /**
+   * Returns the number of edges.
+   *
+   * @return the number of edges
+   */
+  long edgeCount();
+
+  /**
+   * Returns the id of the vertex at the given index.
+   *
+   * @param index a vertex index
+   * @return the vertex id
+   */
+  int id(int index);
+
+  /**
+   * Returns the index of the vertex with the given id, or -1 if there is none.
+   *
+   * @param id a vertex id
+   * @return the vertex index, or -1
+   */
+  int indexOf(int id);
+
+  /**
+   * Returns the first edge of the vertex at the given index.
+   *
+   * @param index a vertex index
+   * @return the first edge position
+   */
+  long edgeStart(int index);
+
+  /**
+   * Returns the position just past the last edge of the vertex at the given index.
+   *
+   * @param index a vertex index
+   * @return the end edge position, exclusive
+   */
+  long edgeEnd(int index);
+
+  /**
+   * Returns the index of the vertex the given edge points to.
+   *
+   * @param edge an edge position
+   * @return the target vertex index
+   */
+  int target(long edge);
+}
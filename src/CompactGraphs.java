@@ -0,0 +1,344 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Practice's map-based traversals, reimplemented over CompactGraph.
+ *
+ * Every method gives the same answer as its Practice counterpart on the Map the compact graph
+ * was built from, but traverses iteratively with primitive stacks and bitmaps, so it neither
+ * boxes nor recurses and works the same whether the graph lives on the heap, off the heap, or
+ * in a memory-mapped file.
+ */
+public final class CompactGraphs {
+
+  private CompactGraphs() {
+  }
+
+  /**
+   * Returns a sorted list of all ids reachable from the vertex with the given id,
+   * matching Practice.sortedReachable(Map, int).
+   *
+   * @param graph the graph
+   * @param starting the starting vertex id
+   * @return a sorted list of all reachable vertex ids, empty if starting is not a vertex
+   */
+  public static List<Integer> sortedReachable(CompactGraph graph, int starting) {
+    int start = graph.indexOf(starting);
+    if (start < 0) return new ArrayList<>();
+
+    return sortedIds(reachable(graph, start), graph::id);
+  }
+
+  /**
+   * Returns the number of odd ids reachable from the vertex with the given id,
+   * including the starting vertex itself.
+   *
+   * @param graph the graph
+   * @param starting the starting vertex id
+   * @return the number of odd reachable ids, 0 if starting is not a vertex
+   */
+  public static int oddVertices(CompactGraph graph, int starting) {
+    int start = graph.indexOf(starting);
+    if (start < 0) return 0;
+
+    return oddIds(reachable(graph, start), graph::id);
+  }
+
+  /**
+   * Returns whether there is a path from starting to ending that only passes through vertices
+   * with non-negative ids, matching Practice.positivePathExists(Map, int, int).
+   *
+   * @param graph the graph
+   * @param starting the starting vertex id
+   * @param ending the ending vertex id
+   * @return whether a valid positive path exists
+   */
+  public static boolean positivePathExists(CompactGraph graph, int starting, int ending) {
+    int start = graph.indexOf(starting);
+    if (start < 0 || starting < 0 || ending < 0) return false;
+    if (starting == ending) return true;
+    int end = graph.indexOf(ending);
+    if (end < 0) return false;
+
+    long[] visited = new long[words(graph.vertexCount())];
+    int[] stack = new int[16];
+    int size = 0;
+    stack[size++] = start;
+    set(visited, start);
+
+    while (size > 0) {
+      int current = stack[--size];
+      for (long e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+        int next = graph.target(e);
+        if (next == end) return true;
+        if (get(visited, next) || graph.id(next) < 0) continue;
+        set(visited, next);
+        if (size == stack.length) stack = Arrays.copyOf(stack, size * 2);
+        stack[size++] = next;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns a shortest path from starting to ending through vertices with non-negative ids,
+   * matching Practice.positivePath(Map, int, int). The search is a breadth-first search with
+   * a primitive parent array that stops as soon as ending is discovered.
+   *
+   * @param graph the graph
+   * @param starting the starting vertex id
+   * @param ending the ending vertex id
+   * @return the path's vertex ids from starting to ending, or an empty list if there is none
+   */
+  public static List<Integer> positivePath(CompactGraph graph, int starting, int ending) {
+    int start = graph.indexOf(starting);
+    int end = graph.indexOf(ending);
+    if (start < 0 || end < 0 || starting < 0 || ending < 0) return new ArrayList<>();
+
+    int[] parent = new int[graph.vertexCount()];
+    Arrays.fill(parent, -1);
+    int[] queue = new int[graph.vertexCount()];
+    int head = 0;
+    int tail = 0;
+    parent[start] = start;
+    queue[tail++] = start;
+
+    while (head < tail && parent[end] == -1) {
+      int current = queue[head++];
+      for (long e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+        int next = graph.target(e);
+        if (parent[next] != -1 || graph.id(next) < 0) continue;
+        parent[next] = current;
+        if (next == end) break;
+        queue[tail++] = next;
+      }
+    }
+
+    return parent[end] == -1 ? new ArrayList<>() : pathIds(graph, parent, start, end, null, -1);
+  }
+
+  /**
+   * Same as positivePath(CompactGraph, int, int), but searches from both ends at once, always
+   * growing the smaller frontier by one full level. On graphs where both searches meet halfway
+   * this explores far fewer vertices than a one-sided search.
+   *
+   * @param graph the graph
+   * @param reverse the same graph with every edge reversed and the same vertex indices,
+   *                for example CsrGraph.transpose()
+   * @param starting the starting vertex id
+   * @param ending the ending vertex id
+   * @return the path's vertex ids from starting to ending, or an empty list if there is none
+   */
+  public static List<Integer> positivePathBidirectional(CompactGraph graph, CompactGraph reverse, int starting, int ending) {
+    int start = graph.indexOf(starting);
+    int end = graph.indexOf(ending);
+    if (start < 0 || end < 0 || starting < 0 || ending < 0) return new ArrayList<>();
+    if (start == end) return new ArrayList<>(List.of(starting));
+
+    int n = graph.vertexCount();
+    int[] forwardParent = new int[n];
+    int[] backwardParent = new int[n];
+    Arrays.fill(forwardParent, -1);
+    Arrays.fill(backwardParent, -1);
+    int[] forwardDistance = new int[n];
+    int[] backwardDistance = new int[n];
+    int[] forwardFrontier = {start};
+    int[] backwardFrontier = {end};
+    int forwardSize = 1;
+    int backwardSize = 1;
+    forwardParent[start] = start;
+    backwardParent[end] = end;
+
+    while (forwardSize > 0 && backwardSize > 0) {
+      boolean forward = forwardSize <= backwardSize;
+      CompactGraph side = forward ? graph : reverse;
+      int[] frontier = forward ? forwardFrontier : backwardFrontier;
+      int size = forward ? forwardSize : backwardSize;
+      int[] parent = forward ? forwardParent : backwardParent;
+      int[] distance = forward ? forwardDistance : backwardDistance;
+      int[] otherParent = forward ? backwardParent : forwardParent;
+      int[] otherDistance = forward ? backwardDistance : forwardDistance;
+
+      int[] nextFrontier = new int[16];
+      int nextSize = 0;
+      int meet = -1;
+      int best = Integer.MAX_VALUE;
+      for (int i = 0; i < size; i++) {
+        int current = frontier[i];
+        for (long e = side.edgeStart(current); e < side.edgeEnd(current); e++) {
+          int next = side.target(e);
+          if (parent[next] != -1 || graph.id(next) < 0) continue;
+          parent[next] = current;
+          distance[next] = distance[current] + 1;
+          if (otherParent[next] != -1 && distance[next] + otherDistance[next] < best) {
+            best = distance[next] + otherDistance[next];
+            meet = next;
+          }
+          if (nextSize == nextFrontier.length) nextFrontier = Arrays.copyOf(nextFrontier, nextSize * 2);
+          nextFrontier[nextSize++] = next;
+        }
+      }
+      if (meet != -1) return pathIds(graph, forwardParent, start, meet, backwardParent, end);
+
+      if (forward) {
+        forwardFrontier = nextFrontier;
+        forwardSize = nextSize;
+      } else {
+        backwardFrontier = nextFrontier;
+        backwardSize = nextSize;
+      }
+    }
+    return new ArrayList<>();
+  }
+
+  /**
+   * Follows parent from meet back to start and, if backwardParent is given, from meet on to end.
+   */
+  private static List<Integer> pathIds(CompactGraph graph, int[] parent, int start, int meet, int[] backwardParent, int end) {
+    List<Integer> path = new ArrayList<>();
+    for (int v = meet; v != start; v = parent[v]) {
+      path.add(graph.id(v));
+    }
+    path.add(graph.id(start));
+    Collections.reverse(path);
+    if (backwardParent != null) {
+      for (int v = meet; v != end; ) {
+        v = backwardParent[v];
+        path.add(graph.id(v));
+      }
+    }
+    return path;
+  }
+
+  /**
+   * Returns a bitmap over vertex indices with a bit set for every vertex reachable from start,
+   * including start itself.
+   *
+   * @param graph the graph
+   * @param start the starting vertex index
+   * @return the reachable set as a bitmap
+   */
+  public static long[] reachable(CompactGraph graph, int start) {
+    long[] visited = new long[words(graph.vertexCount())];
+    int[] stack = new int[16];
+    int size = 0;
+    stack[size++] = start;
+    set(visited, start);
+
+    while (size > 0) {
+      int current = stack[--size];
+      for (long e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+        int next = graph.target(e);
+        if (get(visited, next)) continue;
+        set(visited, next);
+        if (size == stack.length) stack = Arrays.copyOf(stack, size * 2);
+        stack[size++] = next;
+      }
+    }
+    return visited;
+  }
+
+  /**
+   * Returns the ids of the vertices set in reached, sorted ascending. Shared by every graph
+   * class that traverses into a bitmap, whatever its id storage.
+   *
+   * @param reached a bitmap over vertex indices
+   * @param id maps a vertex index to its id
+   * @return the sorted ids
+   */
+  static int[] sortedIdArray(long[] reached, IntUnaryOperator id) {
+    int[] values = new int[cardinality(reached)];
+    int count = 0;
+    for (int v = nextSetBit(reached, 0); v >= 0; v = nextSetBit(reached, v + 1)) {
+      values[count++] = id.applyAsInt(v);
+    }
+    Arrays.sort(values);
+    return values;
+  }
+
+  /**
+   * Same as sortedIdArray, boxed into the list Practice.sortedReachable returns.
+   */
+  static List<Integer> sortedIds(long[] reached, IntUnaryOperator id) {
+    int[] values = sortedIdArray(reached, id);
+    List<Integer> sortedList = new ArrayList<>(values.length);
+    for (int value : values) {
+      sortedList.add(value);
+    }
+    return sortedList;
+  }
+
+  /**
+   * Returns how many of the vertices set in reached have an odd id.
+   */
+  static int oddIds(long[] reached, IntUnaryOperator id) {
+    int oddCount = 0;
+    for (int v = nextSetBit(reached, 0); v >= 0; v = nextSetBit(reached, v + 1)) {
+      if (id.applyAsInt(v) % 2 != 0) oddCount++;
+    }
+    return oddCount;
+  }
+
+  /**
+   * Returns the number of longs needed for a bitmap over the given number of bits.
+   */
+  static int words(int bits) {
+    return (bits + 63) >>> 6;
+  }
+
+  static boolean get(long[] bitmap, int bit) {
+    return (bitmap[bit >>> 6] & (1L << bit)) != 0;
+  }
+
+  static void set(long[] bitmap, int bit) {
+    bitmap[bit >>> 6] |= 1L << bit;
+  }
+
+  /**
+   * Returns the number of bits set in both bitmaps. The loop is unrolled four words at a time,
+   * and Long.bitCount compiles to a single popcount instruction on current hardware.
+   */
+  static int andCardinality(long[] a, long[] b) {
+    int words = Math.min(a.length, b.length);
+    int c0 = 0;
+    int c1 = 0;
+    int c2 = 0;
+    int c3 = 0;
+    int i = 0;
+    for (; i + 3 < words; i += 4) {
+      c0 += Long.bitCount(a[i] & b[i]);
+      c1 += Long.bitCount(a[i + 1] & b[i + 1]);
+      c2 += Long.bitCount(a[i + 2] & b[i + 2]);
+      c3 += Long.bitCount(a[i + 3] & b[i + 3]);
+    }
+    for (; i < words; i++) {
+      c0 += Long.bitCount(a[i] & b[i]);
+    }
+    return c0 + c1 + c2 + c3;
+  }
+
+  static int cardinality(long[] bitmap) {
+    int count = 0;
+    for (long word : bitmap) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the first set bit at or after from, or -1 if there is none.
+   */
+  static int nextSetBit(long[] bitmap, int from) {
+    int word = from >>> 6;
+    if (word >= bitmap.length) return -1;
+    long bits = bitmap[word] & (-1L << from);
+    while (true) {
+      if (bits != 0) return (word << 6) + Long.numberOfTrailingZeros(bits);
+      if (++word == bitmap.length) return -1;
+      bits = bitmap[word];
+    }
+  }
+}
@@ -0,0 +1,332 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read-only graph whose adjacency lists are delta-encoded varints.
+ *
+ * Every neighbor list is sorted by vertex index and stored in one shared byte array as its
+ * length, the first neighbor relative to the vertex itself (zigzag-encoded, since it may be
+ * smaller), and then the gaps between consecutive neighbors minus one. Each number is a
+ * little-endian base-128 varint, so small gaps take a single byte instead of the four a CSR
+ * target takes. Neighbors that sit at nearby indices, for instance after GraphReordering, give
+ * small gaps; on such graphs the adjacency shrinks several times over CSR and many times over
+ * a Map of boxed sets, and traversals read correspondingly less memory.
+ *
+ * Lists can only be decoded front to back, so this class does not implement CompactGraph,
+ * whose target(edge) needs random access. Traversals use a NeighborIterator instead; the ones
+ * Practice offers are provided here. Duplicate edges are stored once.
+ */
+public class CompressedGraph {
+  private final int[] ids;
+  private final int[] offsets;
+  private final byte[] data;
+  private final long edgeCount;
+  private final int[] sortedIds;
+  private final int[] sortedIndex;
+
+  private CompressedGraph(int[] ids, int[] offsets, byte[] data, long edgeCount) {
+    this.ids = ids;
+    this.offsets = offsets;
+    this.data = data;
+    this.edgeCount = edgeCount;
+    int[][] lookup = CsrGraph.lookupTables(ids);
+    this.sortedIds = lookup[0];
+    this.sortedIndex = lookup[1];
+  }
+
+  /**
+   * Compresses a Map-based graph, numbering vertices as CsrGraph.fromMap does.
+   *
+   * @param graph a map representing the graph
+   * @return the compressed graph
+   */
+  public static CompressedGraph fromMap(Map<Integer, Set<Integer>> graph) {
+    return copyOf(CsrGraph.fromMap(graph));
+  }
+
+  /**
+   * Compresses a CompactGraph, keeping its vertex indices.
+   *
+   * @param graph the graph
+   * @return the compressed graph
+   * @throws IllegalArgumentException if the encoded adjacency exceeds 2 GiB
+   */
+  public static CompressedGraph copyOf(CompactGraph graph) {
+    int n = graph.vertexCount();
+    int[] ids = new int[n];
+    int[] offsets = new int[n + 1];
+    byte[] data = new byte[Math.max(16, n + (int) Math.min(Integer.MAX_VALUE - 8, graph.edgeCount()))];
+    int position = 0;
+    long edges = 0;
+    int[] neighbors = new int[16];
+    for (int v = 0; v < n; v++) {
+      ids[v] = graph.id(v);
+      int degree = (int) (graph.edgeEnd(v) - graph.edgeStart(v));
+      if (degree > neighbors.length) neighbors = new int[Math.max(degree, neighbors.length * 2)];
+      for (int i = 0; i < degree; i++) {
+        neighbors[i] = graph.target(graph.edgeStart(v) + i);
+      }
+      Arrays.sort(neighbors, 0, degree);
+      int unique = 0;
+      for (int i = 0; i < degree; i++) {
+        if (unique == 0 || neighbors[i] != neighbors[unique - 1]) neighbors[unique++] = neighbors[i];
+      }
+      edges += unique;
+
+      // At most five bytes per number: the length and one per neighbor.
+      long needed = (long) position + 5L * (unique + 1);
+      if (needed > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Adjacency too large to compress into one array");
+      if (needed > data.length) data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, 2L * data.length)));
+      position = writeVarint(data, position, unique);
+      for (int i = 0; i < unique; i++) {
+        int value = i == 0 ? zigzag(neighbors[0] - v) : neighbors[i] - neighbors[i - 1] - 1;
+        position = writeVarint(data, position, value);
+      }
+      offsets[v + 1] = position;
+    }
+    return new CompressedGraph(ids, offsets, Arrays.copyOf(data, position), edges);
+  }
+
+  private static int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  private static int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static int writeVarint(byte[] data, int position, int value) {
+    while ((value & ~0x7F) != 0) {
+      data[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    data[position++] = (byte) value;
+    return position;
+  }
+
+  /**
+   * Decodes one neighbor list at a time. An iterator can be reset to another vertex with
+   * reset, so a traversal needs only one.
+   */
+  public final class NeighborIterator {
+    private int position;
+    private int remaining;
+    private int previous;
+    private boolean first;
+
+    private NeighborIterator() {
+    }
+
+    /**
+     * Starts iterating the neighbors of the given vertex.
+     *
+     * @param vertex a vertex index
+     * @return this iterator
+     */
+    public NeighborIterator reset(int vertex) {
+      position = offsets[vertex];
+      remaining = readVarint();
+      previous = vertex;
+      first = true;
+      return this;
+    }
+
+    /**
+     * Returns whether another neighbor remains.
+     *
+     * @return whether nextInt may be called
+     */
+    public boolean hasNext() {
+      return remaining > 0;
+    }
+
+    /**
+     * Returns the next neighbor's index. Neighbors come in increasing index order.
+     *
+     * @return a vertex index
+     */
+    public int nextInt() {
+      remaining--;
+      int value = readVarint();
+      previous = first ? previous + unzigzag(value) : previous + value + 1;
+      first = false;
+      return previous;
+    }
+
+    private int readVarint() {
+      int value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = data[position++];
+        value |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      return value;
+    }
+  }
+
+  /**
+   * Returns an iterator over the neighbors of the given vertex.
+   *
+   * @param vertex a vertex index
+   * @return the neighbor iterator
+   */
+  public NeighborIterator neighbors(int vertex) {
+    return new NeighborIterator().reset(vertex);
+  }
+
+  /**
+   * Returns the number of vertices.
+   *
+   * @return the number of vertices
+   */
+  public int vertexCount() {
+    return ids.length;
+  }
+
+  /**
+   * Returns the number of distinct edges.
+   *
+   * @return the number of edges
+   */
+  public long edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Returns the id of the vertex at the given index.
+   *
+   * @param index a vertex index
+   * @return the vertex id
+   */
+  public int id(int index) {
+    return ids[index];
+  }
+
+  /**
+   * Returns the index of the vertex with the given id, or -1 if there is none.
+   *
+   * @param id a vertex id
+   * @return the vertex index, or -1
+   */
+  public int indexOf(int id) {
+    int i = Arrays.binarySearch(sortedIds, id);
+    return i < 0 ? -1 : sortedIndex[i];
+  }
+
+  /**
+   * Returns the number of bytes holding the adjacency: the encoded lists and their offsets.
+   * The matching figure for a CsrGraph is 4 * (vertexCount + 1 + edgeCount).
+   *
+   * @return the adjacency size in bytes
+   */
+  public long adjacencyBytes() {
+    return data.length + 4L * offsets.length;
+  }
+
+  /**
+   * Decodes the graph back into CSR form.
+   *
+   * @return an equivalent CsrGraph
+   */
+  public CsrGraph toCsr() {
+    int n = ids.length;
+    int[] csrOffsets = new int[n + 1];
+    int[] targets = new int[(int) edgeCount];
+    int m = 0;
+    NeighborIterator it = new NeighborIterator();
+    for (int v = 0; v < n; v++) {
+      for (it.reset(v); it.hasNext(); ) {
+        targets[m++] = it.nextInt();
+      }
+      csrOffsets[v + 1] = m;
+    }
+    return new CsrGraph(ids.clone(), csrOffsets, targets);
+  }
+
+  /**
+   * Returns a bitmap over vertex indices with a bit set for every vertex reachable from start,
+   * including start itself.
+   *
+   * @param start the starting vertex index
+   * @return the reachable set as a bitmap
+   */
+  public long[] reachable(int start) {
+    long[] visited = new long[CompactGraphs.words(ids.length)];
+    search(start, -1, false, visited);
+    return visited;
+  }
+
+  /**
+   * Returns a sorted list of all ids reachable from the vertex with the given id,
+   * matching Practice.sortedReachable(Map, int).
+   *
+   * @param starting the starting vertex id
+   * @return a sorted list of all reachable vertex ids, empty if starting is not a vertex
+   */
+  public List<Integer> sortedReachable(int starting) {
+    int start = indexOf(starting);
+    if (start < 0) return new ArrayList<>();
+    return CompactGraphs.sortedIds(reachable(start), v -> ids[v]);
+  }
+
+  /**
+   * Returns the number of odd ids reachable from the vertex with the given id,
+   * including the starting vertex itself.
+   *
+   * @param starting the starting vertex id
+   * @return the number of odd reachable ids, 0 if starting is not a vertex
+   */
+  public int oddVertices(int starting) {
+    int start = indexOf(starting);
+    if (start < 0) return 0;
+    return CompactGraphs.oddIds(reachable(start), v -> ids[v]);
+  }
+
+  /**
+   * Returns whether there is a path from starting to ending that only passes through vertices
+   * with non-negative ids, matching Practice.positivePathExists(Map, int, int).
+   *
+   * @param starting the starting vertex id
+   * @param ending the ending vertex id
+   * @return whether a valid positive path exists
+   */
+  public boolean positivePathExists(int starting, int ending) {
+    int start = indexOf(starting);
+    if (start < 0 || starting < 0 || ending < 0) return false;
+    if (starting == ending) return true;
+    int end = indexOf(ending);
+    if (end < 0) return false;
+    return search(start, end, true, new long[CompactGraphs.words(ids.length)]);
+  }
+
+  /**
+   * Depth-first search from start that marks what it reaches in visited and stops once it
+   * discovers end, if end is not -1. With positiveOnly, vertices with negative ids are not
+   * expanded.
+   *
+   * @return whether end was discovered
+   */
+  private boolean search(int start, int end, boolean positiveOnly, long[] visited) {
+    int[] stack = new int[16];
+    int size = 0;
+    stack[size++] = start;
+    CompactGraphs.set(visited, start);
+    NeighborIterator it = new NeighborIterator();
+    while (size > 0) {
+      for (it.reset(stack[--size]); it.hasNext(); ) {
+        int next = it.nextInt();
+        if (next == end) return true;
+        if (CompactGraphs.get(visited, next) || positiveOnly && ids[next] < 0) continue;
+        CompactGraphs.set(visited, next);
+        if (size == stack.length) stack = Arrays.copyOf(stack, size * 2);
+        stack[size++] = next;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class CompressedGraphTest {
+
+  private static Map<Integer, Set<Integer>> randomGraph(Random random, int n, int edges) {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    List<Integer> keys = new ArrayList<>();
+    while (graph.size() < n) {
+      int id = random.nextInt() / 4;
+      if (graph.putIfAbsent(id, new HashSet<>()) == null) keys.add(id);
+    }
+    for (int i = 0; i < edges; i++) {
+      graph.get(keys.get(random.nextInt(n))).add(keys.get(random.nextInt(n)));
+    }
+    return graph;
+  }
+
+  @Test
+  public void testRoundTrip() {
+    CsrGraph graph = CsrGraph.fromMap(randomGraph(new Random(41), 5000, 40000));
+    CompressedGraph compressed = CompressedGraph.copyOf(graph);
+    assertEquals(graph.vertexCount(), compressed.vertexCount());
+    assertEquals(graph.edgeCount(), compressed.edgeCount());
+    CsrGraph decoded = compressed.toCsr();
+    for (int v = 0; v < graph.vertexCount(); v++) {
+      assertEquals(graph.id(v), compressed.id(v));
+      assertEquals(v, compressed.indexOf(graph.id(v)));
+      List<Integer> expected = new ArrayList<>(graph.neighborIds(graph.id(v)));
+      Collections.sort(expected, Comparator.comparingInt(graph::indexOf));
+      assertEquals(expected, decoded.neighborIds(graph.id(v)));
+    }
+    assertEquals(-1, compressed.indexOf(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testTraversalsMatchPractice() {
+    Random random = new Random(7);
+    Map<Integer, Set<Integer>> map = new HashMap<>();
+    for (int v = -30; v < 120; v++) map.put(v, new HashSet<>());
+    for (int i = 0; i < 250; i++) map.get(random.nextInt(150) - 30).add(random.nextInt(150) - 30);
+    CompressedGraph compressed = CompressedGraph.fromMap(map);
+    for (int a = -30; a < 120; a += 7) {
+      assertEquals(Practice.sortedReachable(map, a), compressed.sortedReachable(a));
+      assertEquals(CompactGraphs.oddVertices(CsrGraph.fromMap(map), a), compressed.oddVertices(a));
+      for (int b = -30; b < 120; b += 11) {
+        assertEquals(Practice.positivePathExists(map, a, b), compressed.positivePathExists(a, b));
+      }
+    }
+    assertEquals(List.of(), compressed.sortedReachable(500));
+  }
+
+  @Test
+  public void testDuplicateEdgesStoredOnce() {
+    CsrGraph graph = new CsrGraph(new int[] {10, 20, 30}, new int[] {0, 4, 4, 5}, new int[] {2, 1, 2, 0, 0});
+    CompressedGraph compressed = CompressedGraph.copyOf(graph);
+    assertEquals(4, compressed.edgeCount());
+    CompressedGraph.NeighborIterator it = compressed.neighbors(0);
+    List<Integer> neighbors = new ArrayList<>();
+    while (it.hasNext()) neighbors.add(it.nextInt());
+    assertEquals(List.of(0, 1, 2), neighbors);
+    assertFalse(compressed.neighbors(1).hasNext());
+  }
+
+  @Test
+  public void testLocalGraphCompressesWell() {
+    // Communities of 64 with about 16 links each, laid out by reverse Cuthill-McKee.
+    Random random = new Random(3);
+    Map<Integer, Set<Integer>> map = new HashMap<>();
+    for (int v = 0; v < 20_000; v++) map.put(v * 13 + 5, new HashSet<>());
+    for (int v = 0; v < 20_000; v++) {
+      for (int i = 0; i < 16; i++) map.get(v * 13 + 5).add(((v / 64) * 64 + random.nextInt(64)) * 13 + 5);
+    }
+    CsrGraph graph = GraphReordering.reverseCuthillMcKee(CsrGraph.fromMap(map)).graph();
+    CompressedGraph compressed = CompressedGraph.copyOf(graph);
+    long csrBytes = 4L * (graph.vertexCount() + 1 + graph.edgeCount());
+    assertTrue(compressed.adjacencyBytes() * 2.5 < csrBytes, compressed.adjacencyBytes() + " vs " + csrBytes);
+    assertEquals(CompactGraphs.sortedReachable(graph, 5), compressed.sortedReachable(5));
+  }
+}
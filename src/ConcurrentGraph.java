@@ -0,0 +1,277 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe, append-only graph of integer vertices where readers never lock.
+ *
+ * Every vertex keeps an append-only log of its outgoing edges, and every edge is stamped with
+ * the version at which it was added. Writers lock only the stripe owning the edge's tail, so
+ * writers touching different vertices proceed concurrently. Versions are published strictly in
+ * order, which means a snapshot taken at version V sees exactly the edges stamped at or below V.
+ *
+ * A snapshot is a read-only Map view in the same shape that Practice expects, so any of the
+ * map-based traversals can run against it while writers keep appending:
+ *
+ *   Practice.sortedReachable(graph.snapshot(), 1);
+ */
+public class ConcurrentGraph {
+  private static final int STRIPES = 64;
+
+  private final ConcurrentHashMap<Integer, EdgeLog> adjacency = new ConcurrentHashMap<>();
+  private final Object[] locks = new Object[STRIPES];
+  private final AtomicLong tickets = new AtomicLong();
+  private volatile long published;
+
+  /**
+   * Edge storage of a single vertex. The arrays are replaced, never resized in place, and the
+   * size is written after the arrays so a reader that reads size first sees big enough arrays.
+   */
+  private static class EdgeLog {
+    final AtomicLong addedAt;
+    volatile int[] targets = new int[4];
+    volatile long[] versions = new long[4];
+    volatile int size;
+    // Guarded by the stripe lock of the owning vertex.
+    final Set<Integer> members = new HashSet<>();
+
+    EdgeLog(long addedAt) {
+      this.addedAt = new AtomicLong(addedAt);
+    }
+
+    void append(int target, long version) {
+      int n = size;
+      int[] t = targets;
+      long[] v = versions;
+      if (n == t.length) {
+        int[] grownTargets = new int[n * 2];
+        long[] grownVersions = new long[n * 2];
+        System.arraycopy(t, 0, grownTargets, 0, n);
+        System.arraycopy(v, 0, grownVersions, 0, n);
+        t = grownTargets;
+        v = grownVersions;
+      }
+      t[n] = target;
+      v[n] = version;
+      targets = t;
+      versions = v;
+      size = n + 1;
+    }
+
+    /** Returns how many leading edges are visible at the given version. */
+    int visibleCount(long version) {
+      int n = size;
+      long[] v = versions;
+      int low = 0;
+      int high = n;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (v[mid] <= version) low = mid + 1;
+        else high = mid;
+      }
+      return low;
+    }
+  }
+
+  /**
+   * Constructs an empty graph.
+   */
+  public ConcurrentGraph() {
+    for (int i = 0; i < STRIPES; i++) {
+      locks[i] = new Object();
+    }
+  }
+
+  /**
+   * Adds a vertex with no outgoing edges if it is not already present.
+   *
+   * @param vertex the vertex value
+   */
+  public void addVertex(int vertex) {
+    EdgeLog existing = adjacency.get(vertex);
+    if (existing != null) {
+      // Another writer may have added it without publishing yet.
+      awaitPublished(existing.addedAt.get());
+      return;
+    }
+    long version = 0;
+    try {
+      synchronized (lockFor(vertex)) {
+        version = tickets.incrementAndGet();
+        ensureVertex(vertex, version);
+      }
+    } finally {
+      if (version != 0) publish(version);
+    }
+  }
+
+  /**
+   * Adds the edge from -> to. Both endpoints become vertices if they are not already.
+   * Readers holding an older snapshot do not see the new edge.
+   *
+   * @param from the tail of the edge
+   * @param to the head of the edge
+   * @return true if the edge was not already present
+   */
+  public boolean addEdge(int from, int to) {
+    long version = 0;
+    long existing = 0;
+    try {
+      synchronized (lockFor(from)) {
+        EdgeLog log = adjacency.get(from);
+        if (log != null && log.members.contains(to)) {
+          // The edge's version is at most the latest ticket, which may not be published yet.
+          existing = tickets.get();
+        } else {
+          version = tickets.incrementAndGet();
+          log = ensureVertex(from, version);
+          ensureVertex(to, version);
+          log.append(to, version);
+          log.members.add(to);
+        }
+      }
+    } finally {
+      if (version != 0) publish(version);
+    }
+    if (version != 0) return true;
+    awaitPublished(existing);
+    return false;
+  }
+
+  /**
+   * Returns the most recently published version.
+   *
+   * @return the current version
+   */
+  public long version() {
+    return published;
+  }
+
+  /**
+   * Returns a consistent, read-only view of the graph as of the current version.
+   * The view never changes, even while writers keep adding edges.
+   *
+   * @return an immutable adjacency map view
+   */
+  public Map<Integer, Set<Integer>> snapshot() {
+    return new Snapshot(published);
+  }
+
+  private Object lockFor(int vertex) {
+    return locks[(vertex * 0x9E3779B9 >>> 26) & (STRIPES - 1)];
+  }
+
+  private EdgeLog ensureVertex(int vertex, long version) {
+    EdgeLog log = adjacency.computeIfAbsent(vertex, k -> new EdgeLog(version));
+    log.addedAt.accumulateAndGet(version, Math::min);
+    return log;
+  }
+
+  /**
+   * Waits for every earlier ticket to be published, then publishes this one. Writers call this
+   * in a finally block once they hold a ticket, even if their write failed, since every later
+   * writer waits for it.
+   */
+  private void publish(long version) {
+    awaitPublished(version - 1);
+    published = version;
+  }
+
+  /**
+   * Waits until the given version is visible to new snapshots.
+   */
+  private void awaitPublished(long version) {
+    while (published < version) {
+      Thread.onSpinWait();
+    }
+  }
+
+  private class Snapshot extends AbstractMap<Integer, Set<Integer>> {
+    private final long version;
+
+    Snapshot(long version) {
+      this.version = version;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return logAt(key) != null;
+    }
+
+    @Override
+    public Set<Integer> get(Object key) {
+      EdgeLog log = logAt(key);
+      return log == null ? null : new Neighbors(log.targets, log.visibleCount(version));
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, Set<Integer>>> entrySet() {
+      Set<Map.Entry<Integer, Set<Integer>>> entries = new HashSet<>();
+      for (Map.Entry<Integer, EdgeLog> entry : adjacency.entrySet()) {
+        EdgeLog log = entry.getValue();
+        if (log.addedAt.get() <= version) {
+          entries.add(new SimpleImmutableEntry<>(entry.getKey(), new Neighbors(log.targets, log.visibleCount(version))));
+        }
+      }
+      return entries;
+    }
+
+    private EdgeLog logAt(Object key) {
+      if (!(key instanceof Integer)) return null;
+      EdgeLog log = adjacency.get(key);
+      return log != null && log.addedAt.get() <= version ? log : null;
+    }
+  }
+
+  /**
+   * Read-only view over the first count entries of a target array.
+   */
+  private static class Neighbors extends AbstractSet<Integer> {
+    private final int[] targets;
+    private final int count;
+
+    Neighbors(int[] targets, int count) {
+      this.targets = targets;
+      this.count = count;
+    }
+
+    @Override
+    public int size() {
+      return count;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Integer)) return false;
+      int value = (Integer) o;
+      for (int i = 0; i < count; i++) {
+        if (targets[i] == value) return true;
+      }
+      return false;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < count;
+        }
+
+        @Override
+        public Integer next() {
+          if (next >= count) throw new NoSuchElementException();
+          return targets[next++];
+        }
+      };
+    }
+  }
+}
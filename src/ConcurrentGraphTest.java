@@ -0,0 +1,117 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class ConcurrentGraphTest {
+
+  @Test
+  public void testSnapshotDoesNotSeeLaterEdges() {
+    ConcurrentGraph graph = new ConcurrentGraph();
+    graph.addEdge(1, 2);
+    Map<Integer, Set<Integer>> before = graph.snapshot();
+    graph.addEdge(2, 3);
+
+    assertEquals(List.of(1, 2), Practice.sortedReachable(before, 1));
+    assertFalse(before.containsKey(3));
+    assertEquals(List.of(1, 2, 3), Practice.sortedReachable(graph.snapshot(), 1));
+  }
+
+  @Test
+  public void testDuplicateEdgeIgnored() {
+    ConcurrentGraph graph = new ConcurrentGraph();
+    assertTrue(graph.addEdge(1, 2));
+    assertFalse(graph.addEdge(1, 2));
+    assertEquals(1, graph.snapshot().get(1).size());
+  }
+
+  @Test
+  public void testPositivePathOnSnapshot() {
+    ConcurrentGraph graph = new ConcurrentGraph();
+    graph.addEdge(3, -4);
+    graph.addEdge(-4, 5);
+    assertFalse(Practice.positivePathExists(graph.snapshot(), 3, 5));
+    graph.addEdge(3, 5);
+    assertTrue(Practice.positivePathExists(graph.snapshot(), 3, 5));
+  }
+
+  @Test
+  public void testReadersSeePrefixOfChainWhileWriting() throws Exception {
+    // A writer extends the chain 0 -> 1 -> 2 -> ... while readers traverse snapshots.
+    // Every snapshot must see a contiguous prefix of the chain.
+    ConcurrentGraph graph = new ConcurrentGraph();
+    graph.addVertex(0);
+    int length = 2000;
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      Future<?> writer = pool.submit(() -> {
+        for (int i = 0; i < length; i++) graph.addEdge(i, i + 1);
+      });
+      List<Future<?>> readers = new ArrayList<>();
+      for (int r = 0; r < 3; r++) {
+        readers.add(pool.submit(() -> {
+          while (!writer.isDone()) {
+            List<Integer> reached = Practice.sortedReachable(graph.snapshot(), 0);
+            for (int i = 0; i < reached.size(); i++) assertEquals(i, reached.get(i));
+          }
+          return null;
+        }));
+      }
+      writer.get(30, TimeUnit.SECONDS);
+      for (Future<?> reader : readers) reader.get(30, TimeUnit.SECONDS);
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(length + 1, graph.snapshot().size());
+  }
+
+  @Test
+  public void testConcurrentWritersAllEdgesVisible() throws Exception {
+    ConcurrentGraph graph = new ConcurrentGraph();
+    int writers = 4;
+    int perWriter = 500;
+    ExecutorService pool = Executors.newFixedThreadPool(writers);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < writers; w++) {
+        int base = w * perWriter;
+        futures.add(pool.submit(() -> {
+          for (int i = 0; i < perWriter; i++) graph.addEdge(-1, base + i);
+        }));
+      }
+      for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(writers * perWriter, graph.snapshot().get(-1).size());
+    assertEquals(writers * perWriter + 1, Practice.sortedReachable(graph.snapshot(), -1).size());
+  }
+
+  @Test
+  public void testWritesOfExistingDataAreVisibleOnReturn() throws Exception {
+    // Writers race to add the same vertices and edges; whoever loses must still return only
+    // once the winner's write is visible.
+    ConcurrentGraph graph = new ConcurrentGraph();
+    int writers = 4;
+    int count = 5000;
+    ExecutorService pool = Executors.newFixedThreadPool(writers);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < writers; w++) {
+        futures.add(pool.submit(() -> {
+          for (int i = 0; i < count; i++) {
+            graph.addVertex(i);
+            assertTrue(graph.snapshot().containsKey(i), "vertex " + i);
+            graph.addEdge(i, i + 1);
+            assertTrue(graph.snapshot().get(i).contains(i + 1), "edge " + i);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(count + 1, graph.snapshot().size());
+  }
+}
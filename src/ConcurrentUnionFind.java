@@ -0,0 +1,133 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free disjoint-set forest over the elements 0 to size - 1, after Anderson and Woll,
+ * "Wait-free Parallel Algorithms for the Union-Find Problem" (STOC 1991).
+ *
+ * Each element owns one long holding its parent in the low 32 bits and its rank in the high 32
+ * bits, so a root's parent and rank change together in a single compare-and-set. union links
+ * the root that is smaller in (rank, index) order under the other, and the link only succeeds
+ * while the linked element is still a root with the rank that was read. Ranks of roots only
+ * grow, so (rank, index) increases strictly along every parent chain and no concurrent
+ * interleaving can form a cycle. find halves paths as it walks them, again with
+ * compare-and-set, so lookups from many threads compress the forest cooperatively.
+ */
+public final class ConcurrentUnionFind {
+  private final AtomicLongArray nodes;
+
+  /**
+   * Creates size singleton sets.
+   *
+   * @param size the number of elements
+   */
+  public ConcurrentUnionFind(int size) {
+    nodes = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      nodes.set(i, pack(i, 0));
+    }
+  }
+
+  private static long pack(int parent, int rank) {
+    return ((long) rank << 32) | (parent & 0xFFFFFFFFL);
+  }
+
+  private static int parent(long node) {
+    return (int) node;
+  }
+
+  private static int rank(long node) {
+    return (int) (node >>> 32);
+  }
+
+  /**
+   * Returns the number of elements.
+   *
+   * @return the number of elements
+   */
+  public int size() {
+    return nodes.length();
+  }
+
+  /**
+   * Returns the current root of the set containing x. Under concurrent unions the root may
+   * change right after it is returned; use sameSet to compare two elements.
+   *
+   * @param x an element
+   * @return the root of its set
+   */
+  public int find(int x) {
+    while (true) {
+      long node = nodes.get(x);
+      int parent = parent(node);
+      if (parent == x) return x;
+      long parentNode = nodes.get(parent);
+      int grandparent = parent(parentNode);
+      if (grandparent != parent) {
+        // Path halving: point x at its grandparent, keeping x's frozen rank.
+        nodes.compareAndSet(x, node, pack(grandparent, rank(node)));
+      }
+      x = grandparent;
+    }
+  }
+
+  /**
+   * Returns whether two elements are in the same set. The answer is exact at some moment during
+   * the call.
+   *
+   * @param a an element
+   * @param b an element
+   * @return whether they are connected
+   */
+  public boolean sameSet(int a, int b) {
+    while (true) {
+      int ra = find(a);
+      int rb = find(b);
+      if (ra == rb) return true;
+      // If ra is still a root, rb was a different root after ra was found, so they were apart.
+      if (parent(nodes.get(ra)) == ra) return false;
+    }
+  }
+
+  /**
+   * Merges the sets of two elements.
+   *
+   * @param a an element
+   * @param b an element
+   * @return the root that was linked under the other, or -1 if they were already in one set
+   */
+  public int union(int a, int b) {
+    while (true) {
+      int ra = find(a);
+      int rb = find(b);
+      if (ra == rb) return -1;
+      long nodeA = nodes.get(ra);
+      long nodeB = nodes.get(rb);
+      if (parent(nodeA) != ra || parent(nodeB) != rb) continue;
+      int rankA = rank(nodeA);
+      int rankB = rank(nodeB);
+      if (rankA > rankB || (rankA == rankB && ra > rb)) {
+        int swap = ra;
+        ra = rb;
+        rb = swap;
+        long swapNode = nodeA;
+        nodeA = nodeB;
+        nodeB = swapNode;
+        rankA = rank(nodeA);
+        rankB = rank(nodeB);
+      }
+      if (!nodes.compareAndSet(ra, nodeA, pack(rb, rankA))) continue;
+      if (rankA == rankB) nodes.compareAndSet(rb, nodeB, pack(rb, rankB + 1));
+      return ra;
+    }
+  }
+
+  /**
+   * Returns whether x is currently a root.
+   *
+   * @param x an element
+   * @return whether x is the representative of its set
+   */
+  public boolean isRoot(int x) {
+    return parent(nodes.get(x)) == x;
+  }
+}
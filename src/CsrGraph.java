@@ -0,0 +1,221 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An on-heap CompactGraph backed by plain int arrays.
+ *
+ * The three arrays follow the usual compressed sparse row layout: ids[v] is the value of vertex
+ * v, and its neighbors are targets[offsets[v]] up to targets[offsets[v + 1] - 1]. Two further
+ * arrays, sorted by id, map ids back to indices by binary search.
+ */
+public class CsrGraph implements CompactGraph {
+  private final int[] ids;
+  private final int[] offsets;
+  private final int[] targets;
+  private final int[] sortedIds;
+  private final int[] sortedIndex;
+
+  /**
+   * Constructs a graph from its CSR arrays. The arrays are used as-is, not copied.
+   *
+   * @param ids the id of every vertex; ids must be unique
+   * @param offsets vertexCount + 1 ascending edge positions
+   * @param targets the target vertex index of every edge
+   * @throws IllegalArgumentException if the arrays are inconsistent or ids repeat
+   */
+  public CsrGraph(int[] ids, int[] offsets, int[] targets) {
+    if (offsets.length != ids.length + 1 || offsets[0] != 0 || offsets[ids.length] != targets.length) {
+      throw new IllegalArgumentException("offsets must have vertexCount + 1 entries spanning all targets");
+    }
+    this.ids = ids;
+    this.offsets = offsets;
+    this.targets = targets;
+    int[][] lookup = lookupTables(ids);
+    this.sortedIds = lookup[0];
+    this.sortedIndex = lookup[1];
+  }
+
+  /**
+   * Builds a compact copy of a Map-based graph. Vertices are numbered in ascending id order.
+   * A neighbor that is not itself a key of the map is dropped, since Practice never reaches it.
+   *
+   * @param graph a map representing the graph
+   * @return the compact graph
+   */
+  public static CsrGraph fromMap(Map<Integer, Set<Integer>> graph) {
+    int[] ids = new int[graph.size()];
+    int n = 0;
+    for (int key : graph.keySet()) {
+      ids[n++] = key;
+    }
+    Arrays.sort(ids);
+
+    Map<Integer, Integer> indexOf = new HashMap<>();
+    for (int i = 0; i < ids.length; i++) {
+      indexOf.put(ids[i], i);
+    }
+
+    int[] offsets = new int[ids.length + 1];
+    int[] targets = new int[16];
+    int m = 0;
+    for (int i = 0; i < ids.length; i++) {
+      for (int neighbor : graph.get(ids[i])) {
+        Integer target = indexOf.get(neighbor);
+        if (target == null) continue;
+        if (m == targets.length) targets = Arrays.copyOf(targets, m * 2);
+        targets[m++] = target;
+      }
+      offsets[i + 1] = m;
+    }
+    return new CsrGraph(ids, offsets, Arrays.copyOf(targets, m));
+  }
+
+  /**
+   * Copies any CompactGraph onto the heap.
+   *
+   * @param graph the graph to copy
+   * @return an on-heap copy
+   * @throws IllegalArgumentException if the graph has more edges than an array can hold
+   */
+  public static CsrGraph copyOf(CompactGraph graph) {
+    if (graph instanceof CsrGraph) return (CsrGraph) graph;
+    if (graph.edgeCount() > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many edges for an on-heap copy");
+
+    int n = graph.vertexCount();
+    int[] ids = new int[n];
+    int[] offsets = new int[n + 1];
+    int[] targets = new int[(int) graph.edgeCount()];
+    int m = 0;
+    for (int v = 0; v < n; v++) {
+      ids[v] = graph.id(v);
+      for (long e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+        targets[m++] = graph.target(e);
+      }
+      offsets[v + 1] = m;
+    }
+    return new CsrGraph(ids, offsets, targets);
+  }
+
+  /**
+   * Returns the graph as a Map in the shape Practice expects.
+   *
+   * @return a new adjacency map
+   */
+  public Map<Integer, Set<Integer>> toMap() {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    for (int v = 0; v < ids.length; v++) {
+      Set<Integer> neighbors = new HashSet<>();
+      for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+        neighbors.add(ids[targets[e]]);
+      }
+      graph.put(ids[v], neighbors);
+    }
+    return graph;
+  }
+
+  /**
+   * Returns the graph with every edge reversed, keeping vertex indices unchanged.
+   *
+   * @return the transposed graph
+   */
+  public CsrGraph transpose() {
+    int n = ids.length;
+    int[] reverseOffsets = new int[n + 1];
+    for (int target : targets) {
+      reverseOffsets[target + 1]++;
+    }
+    for (int v = 0; v < n; v++) {
+      reverseOffsets[v + 1] += reverseOffsets[v];
+    }
+    int[] next = Arrays.copyOf(reverseOffsets, n);
+    int[] reverseTargets = new int[targets.length];
+    for (int v = 0; v < n; v++) {
+      for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+        reverseTargets[next[targets[e]]++] = v;
+      }
+    }
+    return new CsrGraph(ids, reverseOffsets, reverseTargets);
+  }
+
+  /**
+   * Returns the ids of the neighbors of the vertex with the given id.
+   *
+   * @param id a vertex id
+   * @return the neighbor ids, or an empty list if the vertex does not exist
+   */
+  public List<Integer> neighborIds(int id) {
+    List<Integer> neighbors = new ArrayList<>();
+    int v = indexOf(id);
+    if (v < 0) return neighbors;
+    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+      neighbors.add(ids[targets[e]]);
+    }
+    return neighbors;
+  }
+
+  @Override
+  public int vertexCount() {
+    return ids.length;
+  }
+
+  @Override
+  public long edgeCount() {
+    return targets.length;
+  }
+
+  @Override
+  public int id(int index) {
+    return ids[index];
+  }
+
+  @Override
+  public int indexOf(int id) {
+    int found = Arrays.binarySearch(sortedIds, id);
+    return found < 0 ? -1 : sortedIndex[found];
+  }
+
+  @Override
+  public long edgeStart(int index) {
+    return offsets[index];
+  }
+
+  @Override
+  public long edgeEnd(int index) {
+    return offsets[index + 1];
+  }
+
+  @Override
+  public int target(long edge) {
+    return targets[(int) edge];
+  }
+
+  /**
+   * Returns the id lookup tables for the given ids: the ids in ascending order, and for each
+   * of them the index it came from.
+   *
+   * @throws IllegalArgumentException if an id repeats
+   */
+  static int[][] lookupTables(int[] ids) {
+    long[] packed = new long[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      packed[i] = ((long) ids[i] << 32) | i;
+    }
+    Arrays.sort(packed);
+
+    int[] sortedIds = new int[ids.length];
+    int[] sortedIndex = new int[ids.length];
+    for (int i = 0; i < packed.length; i++) {
+      sortedIds[i] = (int) (packed[i] >> 32);
+      sortedIndex[i] = (int) packed[i];
+      if (i > 0 && sortedIds[i] == sortedIds[i - 1]) {
+        throw new IllegalArgumentException("Duplicate vertex id " + sortedIds[i]);
+      }
+    }
+    return new int[][] {sortedIds, sortedIndex};
+  }
+}
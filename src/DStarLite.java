@@ -0,0 +1,229 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Incremental shortest paths on a DynamicBoard with D* Lite (Koenig and Likhachev, AAAI 2002).
+ *
+ * The planner keeps, for every cell it has looked at, the number of moves to the goal (g) and a
+ * one-step lookahead of it (rhs), and searches backwards from the goal towards the agent. When
+ * cells are blocked or cleared, only the cells whose distance the change can affect are put back
+ * on the queue, and the search settles just enough of them to prove the agent's path optimal
+ * again. Small changes far from the path cost a handful of expansions, and the agent may move
+ * between plans without the planner starting over, which is what re-running a breadth-first
+ * search every tick cannot offer.
+ *
+ * Moves follow possibleMoves: each of the directions is a legal move of cost 1 when it stays on
+ * the board and does not land on an 'X'. The heuristic is derived from the directions, so any
+ * set of moves works, not just the usual four or eight.
+ */
+public final class DStarLite {
+  private static final int INFINITE = Integer.MAX_VALUE;
+
+  private final DynamicBoard board;
+  private final int rows;
+  private final int cols;
+  private final int[][] directions;
+  private final int goal;
+  private final int maxRowStep;
+  private final int maxColStep;
+  private final int maxStep;
+  private final int[] g;
+  private final int[] rhs;
+  private IndexedPairMinHeap open;
+  private int start;
+  private int lastStart;
+  private long keyModifier;
+  private long seenVersion;
+  private int expanded;
+
+  /**
+   * Constructs a planner; nothing is searched until the first call to plan.
+   *
+   * @param board the board, which may change between plans
+   * @param start the [row, column] position of the agent
+   * @param goal the [row, column] goal position
+   * @param directions an array of [row, column] possible directions
+   */
+  public DStarLite(DynamicBoard board, int[] start, int[] goal, int[][] directions) {
+    this.board = board;
+    this.rows = board.rows();
+    this.cols = board.cols();
+    this.directions = directions;
+    this.goal = goal[0] * cols + goal[1];
+    this.start = start[0] * cols + start[1];
+    this.lastStart = this.start;
+    int maxRow = 0;
+    int maxCol = 0;
+    int max = 0;
+    for (int[] direction : directions) {
+      maxRow = Math.max(maxRow, Math.abs(direction[0]));
+      maxCol = Math.max(maxCol, Math.abs(direction[1]));
+      max = Math.max(max, Math.abs(direction[0]) + Math.abs(direction[1]));
+    }
+    this.maxRowStep = maxRow;
+    this.maxColStep = maxCol;
+    this.maxStep = max;
+    this.g = new int[rows * cols];
+    this.rhs = new int[rows * cols];
+    reset();
+  }
+
+  private void reset() {
+    Arrays.fill(g, INFINITE);
+    Arrays.fill(rhs, INFINITE);
+    open = new IndexedPairMinHeap(rows * cols);
+    keyModifier = 0;
+    lastStart = start;
+    seenVersion = board.version();
+    rhs[goal] = 0;
+    open.insertOrUpdate(goal, key1(goal), key2(goal));
+  }
+
+  /**
+   * Tells the planner the agent has moved.
+   *
+   * @param cell the agent's new [row, column] position
+   */
+  public void moveTo(int[] cell) {
+    start = cell[0] * cols + cell[1];
+  }
+
+  /**
+   * Brings the planner up to date with the board's changes and the agent's position and returns
+   * a shortest path from the agent to the goal. expanded() of the result counts only the work
+   * done by this call.
+   *
+   * @return the path, with cost() its number of moves
+   */
+  public GridPath plan() {
+    expanded = 0;
+    int[] changes = board.changesSince(seenVersion);
+    if (changes == null) {
+      reset();
+    } else if (changes.length > 0) {
+      keyModifier += heuristic(lastStart, start);
+      lastStart = start;
+      seenVersion = board.version();
+      for (int cell : changes) {
+        // Only the moves into a changed cell change cost.
+        int r = cell / cols;
+        int c = cell % cols;
+        for (int[] direction : directions) {
+          int pr = r - direction[0];
+          int pc = c - direction[1];
+          if (pr >= 0 && pr < rows && pc >= 0 && pc < cols) updateVertex(pr * cols + pc);
+        }
+      }
+    } else if (lastStart != start) {
+      keyModifier += heuristic(lastStart, start);
+      lastStart = start;
+    }
+    computeShortestPath();
+
+    if (start == goal) return new GridPath(new ArrayList<>(List.of(cellOf(start))), 0, expanded);
+    if (g[start] == INFINITE) return GridPath.notFound(expanded);
+    List<int[]> path = new ArrayList<>();
+    path.add(cellOf(start));
+    for (int cell = start; cell != goal; ) {
+      int next = bestSuccessor(cell);
+      if (next < 0 || path.size() > rows * cols) throw new IllegalStateException("Inconsistent distances");
+      path.add(cellOf(next));
+      cell = next;
+    }
+    return new GridPath(path, g[start], expanded);
+  }
+
+  private void computeShortestPath() {
+    while (!open.isEmpty()
+        && (IndexedPairMinHeap.less(open.peekPrimary(), open.peekSecondary(), key1(start), key2(start)) || rhs[start] != g[start])) {
+      long oldKey1 = open.peekPrimary();
+      long oldKey2 = open.peekSecondary();
+      int u = open.poll();
+      expanded++;
+      long newKey1 = key1(u);
+      long newKey2 = key2(u);
+      if (IndexedPairMinHeap.less(oldKey1, oldKey2, newKey1, newKey2)) {
+        open.insertOrUpdate(u, newKey1, newKey2);
+      } else if (g[u] > rhs[u]) {
+        g[u] = rhs[u];
+        updatePredecessors(u);
+      } else {
+        g[u] = INFINITE;
+        updateVertex(u);
+        updatePredecessors(u);
+      }
+    }
+  }
+
+  private void updatePredecessors(int u) {
+    int r = u / cols;
+    int c = u % cols;
+    for (int[] direction : directions) {
+      int pr = r - direction[0];
+      int pc = c - direction[1];
+      if (pr >= 0 && pr < rows && pc >= 0 && pc < cols) updateVertex(pr * cols + pc);
+    }
+  }
+
+  private void updateVertex(int u) {
+    if (u != goal) {
+      int best = bestSuccessor(u);
+      rhs[u] = best < 0 ? INFINITE : g[best] + 1;
+    }
+    if (g[u] != rhs[u]) {
+      open.insertOrUpdate(u, key1(u), key2(u));
+    } else {
+      open.remove(u);
+    }
+  }
+
+  /**
+   * Returns the legal move from u with the smallest g, or -1 if every move leads to a cell with
+   * no known path.
+   */
+  private int bestSuccessor(int u) {
+    int r = u / cols;
+    int c = u % cols;
+    int best = -1;
+    char[][] cells = board.cells();
+    for (int[] direction : directions) {
+      int nr = r + direction[0];
+      int nc = c + direction[1];
+      if (nr < 0 || nr >= rows || nc < 0 || nc >= cols || cells[nr][nc] == 'X') continue;
+      int next = nr * cols + nc;
+      if (g[next] != INFINITE && (best < 0 || g[next] < g[best])) best = next;
+    }
+    return best;
+  }
+
+  /**
+   * Keys compare (key1, key2) lexicographically, as two longs, so they stay exact however far
+   * keyModifier grows.
+   */
+  private long key1(int u) {
+    return keyModifier + Math.min(g[u], rhs[u]) + heuristic(start, u);
+  }
+
+  private long key2(int u) {
+    return Math.min(g[u], rhs[u]);
+  }
+
+  /**
+   * A lower bound on the number of moves between two cells: each move changes the row by at
+   * most maxRowStep, the column by at most maxColStep and their sum by at most maxStep.
+   */
+  private int heuristic(int a, int b) {
+    int dr = Math.abs(a / cols - b / cols);
+    int dc = Math.abs(a % cols - b % cols);
+    int h = 0;
+    if (maxRowStep > 0) h = Math.max(h, (dr + maxRowStep - 1) / maxRowStep);
+    if (maxColStep > 0) h = Math.max(h, (dc + maxColStep - 1) / maxColStep);
+    if (maxStep > 0) h = Math.max(h, (dr + dc + maxStep - 1) / maxStep);
+    return h;
+  }
+
+  private int[] cellOf(int cell) {
+    return new int[] {cell / cols, cell % cols};
+  }
+}
@@ -0,0 +1,115 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class DStarLiteTest {
+  private static final int[][] FOUR = {{0, 1}, {-1, 0}, {1, 0}, {0, -1}};
+  private static final int[][] EIGHT = {{0, 1}, {-1, 0}, {1, 0}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+  private static final int[][] KNIGHT = {{1, 2}, {2, 1}, {-1, 2}, {-2, 1}, {1, -2}, {2, -1}, {-1, -2}, {-2, -1}};
+
+  private static char[][] randomBoard(Random random, int rows, int cols, int wallPercent) {
+    char[][] board = new char[rows][cols];
+    for (char[] row : board) {
+      for (int c = 0; c < cols; c++) row[c] = random.nextInt(100) < wallPercent ? 'X' : ' ';
+    }
+    return board;
+  }
+
+  // The number of moves a fresh search finds, or -1.
+  private static int expected(DynamicBoard board, int[] start, int[] goal, int[][] directions) {
+    return GridDistanceField.compute(board.cells(), new int[][] {goal}, directions).distance(start);
+  }
+
+  private static void assertMatches(DynamicBoard board, GridPath path, int[] start, int[] goal, int[][] directions) {
+    int expected = expected(board, start, goal, directions);
+    if (expected == GridDistanceField.UNREACHABLE) {
+      assertFalse(path.isFound());
+      return;
+    }
+    assertEquals(expected, path.cost());
+    List<int[]> cells = path.cells();
+    assertEquals(expected, path.moves());
+    assertArrayEquals(start, cells.get(0));
+    assertArrayEquals(goal, cells.get(cells.size() - 1));
+    for (int i = 1; i < cells.size(); i++) {
+      int[] to = cells.get(i);
+      assertTrue(Practice.nextMoves(board.cells(), cells.get(i - 1), directions).stream().anyMatch(m -> Arrays.equals(m, to)));
+    }
+  }
+
+  @Test
+  public void testRepairedPathsMatchFreshSearches() {
+    Random random = new Random(45);
+    for (int[][] directions : List.of(FOUR, EIGHT, KNIGHT)) {
+      for (int trial = 0; trial < 10; trial++) {
+        DynamicBoard board = new DynamicBoard(randomBoard(random, 8 + random.nextInt(15), 8 + random.nextInt(15), 25));
+        int[] start = {random.nextInt(board.rows()), random.nextInt(board.cols())};
+        int[] goal = {random.nextInt(board.rows()), random.nextInt(board.cols())};
+        DStarLite planner = new DStarLite(board, start, goal, directions);
+        for (int tick = 0; tick < 40; tick++) {
+          int toggles = random.nextInt(4);
+          for (int i = 0; i < toggles; i++) board.toggle(random.nextInt(board.rows()), random.nextInt(board.cols()));
+          GridPath path = planner.plan();
+          assertMatches(board, path, start, goal, directions);
+          // Follow the path one step, as an agent would.
+          if (path.isFound() && path.moves() > 0 && random.nextBoolean()) {
+            start = path.cells().get(1);
+            planner.moveTo(start);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSmallChangesCostLittle() {
+    DynamicBoard board = new DynamicBoard(randomBoard(new Random(1), 200, 200, 10));
+    board.setBlocked(0, 0, false);
+    board.setBlocked(199, 199, false);
+    DStarLite planner = new DStarLite(board, new int[] {0, 0}, new int[] {199, 199}, FOUR);
+    GridPath initial = planner.plan();
+    assertTrue(initial.isFound());
+
+    // A wall appearing far behind the goal does not affect the agent.
+    board.setBlocked(199, 150, true);
+    board.setBlocked(150, 199, true);
+    GridPath repaired = planner.plan();
+    assertMatches(board, repaired, new int[] {0, 0}, new int[] {199, 199}, FOUR);
+    assertTrue(repaired.expanded() * 20 < initial.expanded(), repaired.expanded() + " vs " + initial.expanded());
+
+    // A cell on the path is blocked.
+    int[] onPath = initial.cells().get(initial.moves() / 2);
+    board.setBlocked(onPath[0], onPath[1], true);
+    repaired = planner.plan();
+    assertMatches(board, repaired, new int[] {0, 0}, new int[] {199, 199}, FOUR);
+    assertTrue(repaired.expanded() * 4 < initial.expanded(), repaired.expanded() + " vs " + initial.expanded());
+  }
+
+  @Test
+  public void testRebuildsAfterLosingHistory() {
+    Random random = new Random(7);
+    DynamicBoard board = new DynamicBoard(randomBoard(random, 20, 20, 20), 4);
+    int[] start = {0, 0};
+    int[] goal = {19, 19};
+    DStarLite planner = new DStarLite(board, start, goal, FOUR);
+    assertMatches(board, planner.plan(), start, goal, FOUR);
+    for (int i = 0; i < 50; i++) board.toggle(random.nextInt(20), random.nextInt(20));
+    assertNull(board.changesSince(0));
+    assertMatches(board, planner.plan(), start, goal, FOUR);
+  }
+
+  @Test
+  public void testBoardVersionsAndHistory() {
+    char[][] cells = {"  X".toCharArray(), "   ".toCharArray()};
+    DynamicBoard board = new DynamicBoard(cells);
+    board.toggle(0, 2);
+    board.setBlocked(1, 1, true);
+    board.setBlocked(1, 1, true);
+    assertEquals(2, board.version());
+    assertEquals('X', cells[0][2]);
+    assertFalse(board.isBlocked(0, 2));
+    assertArrayEquals(new int[] {2, 4}, board.changesSince(0));
+    assertArrayEquals(new int[] {4}, board.changesSince(1));
+    assertEquals(0, board.changesSince(2).length);
+  }
+}
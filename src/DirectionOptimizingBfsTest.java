@@ -0,0 +1,72 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class DirectionOptimizingBfsTest {
+
+  // A small-world graph: a ring with random shortcuts, in the spirit of Watts-Strogatz.
+  private static CsrGraph smallWorld(Random random, int n, int degree) {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    for (int v = 0; v < n; v++) {
+      Set<Integer> neighbors = new HashSet<>();
+      neighbors.add((v + 1) % n);
+      neighbors.add((v + n - 1) % n);
+      for (int i = 0; i < degree; i++) neighbors.add(random.nextInt(n));
+      graph.put(v, neighbors);
+    }
+    return CsrGraph.fromMap(graph);
+  }
+
+  @Test
+  public void testMatchesDepthFirstReachability() {
+    Random random = new Random(39);
+    for (int trial = 0; trial < 20; trial++) {
+      Map<Integer, Set<Integer>> map = new HashMap<>();
+      int n = 1 + random.nextInt(200);
+      for (int v = 0; v < n; v++) map.put(v * 2 - 7, new HashSet<>());
+      for (int i = random.nextInt(4 * n); i > 0; i--) {
+        map.get(random.nextInt(n) * 2 - 7).add(random.nextInt(n) * 2 - 7);
+      }
+      CsrGraph graph = CsrGraph.fromMap(map);
+      DirectionOptimizingBfs bfs = DirectionOptimizingBfs.of(graph);
+      for (int start = -7; start < 2 * n - 7; start += 2) {
+        assertEquals(CompactGraphs.sortedReachable(graph, start), bfs.sortedReachable(start));
+      }
+    }
+  }
+
+  @Test
+  public void testBottomUpExaminesFewerEdges() {
+    CsrGraph graph = smallWorld(new Random(1), 100_000, 8);
+    DirectionOptimizingBfs.Result result = DirectionOptimizingBfs.of(graph).search(0, null, -1);
+    // A top-down search of a connected graph examines every edge once.
+    assertArrayEquals(CompactGraphs.reachable(graph, 0), result.reached());
+    assertTrue(result.bottomUpLevels() > 0);
+    assertTrue(result.edgesExamined() < graph.edgeCount() / 4, result.edgesExamined() + " vs " + graph.edgeCount());
+  }
+
+  @Test
+  public void testSearchStopsAtLabel() {
+    CsrGraph graph = smallWorld(new Random(2), 5000, 3);
+    int[] labels = new int[graph.vertexCount()];
+    labels[graph.indexOf(4321)] = 7;
+    DirectionOptimizingBfs bfs = DirectionOptimizingBfs.of(graph);
+    DirectionOptimizingBfs.Result result = bfs.search(graph.indexOf(0), labels, 7);
+    assertEquals(graph.indexOf(4321), result.found());
+    assertEquals(-1, bfs.search(graph.indexOf(0), labels, 8).found());
+    assertEquals(graph.indexOf(0), bfs.search(graph.indexOf(0), labels, 0).found());
+  }
+
+  @Test
+  public void testProfessionalNetworkExtendedNetwork() {
+    Professional d = new Professional("D", "Global Inc.", 6, new HashSet<>());
+    Professional e = new Professional("E", "Other Corp", 4, new HashSet<>());
+    Professional b = new Professional("B", "Other Corp", 5, new HashSet<>(Arrays.asList(d, e)));
+    Professional a = new Professional("A", "Other Corp", 3, new HashSet<>(Arrays.asList(b)));
+    ProfessionalNetwork network = ProfessionalNetwork.of(List.of(a));
+    assertEquals(Set.of(a, b, d, e), new HashSet<>(network.extendedNetwork(a)));
+    assertEquals(Set.of(d), new HashSet<>(network.extendedNetwork(d)));
+    assertTrue(network.hasExtendedConnectionAtCompany(a, "Global Inc."));
+    assertFalse(network.hasExtendedConnectionAtCompany(e, "Global Inc."));
+  }
+}
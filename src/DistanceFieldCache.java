@@ -0,0 +1,132 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of GridDistanceFields, keyed by board, board version, goal set and directions.
+ *
+ * Boards are plain char arrays with no change tracking, so the caller supplies a version number
+ * and must change it whenever it edits the board; the cache never looks inside the board to
+ * detect changes. Boards are compared by identity, goal sets ignore order and repeats, and the
+ * least recently used field is dropped once the cache is full. A field is computed outside the
+ * cache's lock, so lookups for other keys are never held up by a computation.
+ */
+public class DistanceFieldCache {
+  private final int capacity;
+  private final Map<Key, GridDistanceField> fields;
+  private long hits;
+  private long misses;
+
+  /**
+   * Constructs a cache.
+   *
+   * @param capacity the maximum number of fields kept
+   */
+  public DistanceFieldCache(int capacity) {
+    if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1");
+    this.capacity = capacity;
+    this.fields = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, GridDistanceField> eldest) {
+        return size() > DistanceFieldCache.this.capacity;
+      }
+    };
+  }
+
+  /**
+   * Returns the distance field for the given board version and goals, computing it on a miss.
+   *
+   * @param board a rectangular array where 'X' represent an impassible location
+   * @param version the board's version; must change whenever the board does
+   * @param goals the [row, column] goal cells
+   * @param directions an array of [row, column] possible directions
+   * @return the distance field
+   */
+  public GridDistanceField get(char[][] board, long version, int[][] goals, int[][] directions) {
+    Key key = new Key(board, version, goals, directions);
+    synchronized (this) {
+      GridDistanceField field = fields.get(key);
+      if (field != null) {
+        hits++;
+        return field;
+      }
+      misses++;
+    }
+    GridDistanceField field = GridDistanceField.compute(board, goals, directions);
+    synchronized (this) {
+      GridDistanceField raced = fields.putIfAbsent(key, field);
+      return raced != null ? raced : field;
+    }
+  }
+
+  /**
+   * Drops every field computed for the given board, for example when it is discarded.
+   *
+   * @param board the board
+   */
+  public synchronized void invalidate(char[][] board) {
+    fields.keySet().removeIf(key -> key.board == board);
+  }
+
+  /**
+   * Returns how many lookups were answered from the cache.
+   *
+   * @return the number of hits
+   */
+  public synchronized long hits() {
+    return hits;
+  }
+
+  /**
+   * Returns how many lookups had to compute a field.
+   *
+   * @return the number of misses
+   */
+  public synchronized long misses() {
+    return misses;
+  }
+
+  private static final class Key {
+    private final char[][] board;
+    private final long version;
+    private final int[] goals;
+    private final int[] directions;
+    private final int hash;
+
+    Key(char[][] board, long version, int[][] goals, int[][] directions) {
+      this.board = board;
+      this.version = version;
+      long[] packed = new long[goals.length];
+      for (int i = 0; i < goals.length; i++) {
+        packed[i] = ((long) goals[i][0] << 32) | (goals[i][1] & 0xFFFFFFFFL);
+      }
+      packed = Arrays.stream(packed).sorted().distinct().toArray();
+      int[] cells = new int[packed.length * 2];
+      for (int i = 0; i < packed.length; i++) {
+        cells[2 * i] = (int) (packed[i] >> 32);
+        cells[2 * i + 1] = (int) packed[i];
+      }
+      this.goals = cells;
+      this.directions = new int[directions.length * 2];
+      for (int i = 0; i < directions.length; i++) {
+        this.directions[2 * i] = directions[i][0];
+        this.directions[2 * i + 1] = directions[i][1];
+      }
+      this.hash = ((System.identityHashCode(board) * 31 + Long.hashCode(version)) * 31 + Arrays.hashCode(this.goals)) * 31
+          + Arrays.hashCode(this.directions);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) return false;
+      Key other = (Key) o;
+      return board == other.board && version == other.version
+          && Arrays.equals(goals, other.goals) && Arrays.equals(directions, other.directions);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
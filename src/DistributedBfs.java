@@ -0,0 +1,230 @@
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Coordinates a breadth-first search over a graph split into shards.
+ *
+ * The search proceeds in supersteps. In each superstep every shard with a non-empty frontier
+ * batch expands it locally, in parallel with the other shards, and replies with the ghost
+ * vertices it reached. The coordinator routes those to their owners as the next batches and
+ * stops when no batch is left, or as soon as a shard reports a vertex with the wanted label.
+ * The number of supersteps is bounded by the number of times a path crosses between shards,
+ * which is why a partition with a small edge cut pays off.
+ *
+ * Shards run either in this JVM or in ShardServers reached over sockets. Queries on one
+ * coordinator run one at a time, since the workers hold the state of the current query.
+ */
+public class DistributedBfs implements AutoCloseable {
+  private final CompactGraph graph;
+  private final GraphPartition partition;
+  private final List<ShardChannel> channels;
+  private final ExecutorService executor;
+
+  private DistributedBfs(CompactGraph graph, GraphPartition partition, List<ShardChannel> channels) {
+    this.graph = graph;
+    this.partition = partition;
+    this.channels = channels;
+    this.executor = Executors.newFixedThreadPool(channels.size(), runnable -> {
+      Thread thread = new Thread(runnable, "shard-coordinator");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Runs every shard in this JVM.
+   *
+   * @param graph the graph that was partitioned
+   * @param labels one label per vertex index, or null if only reachability is queried
+   * @param partition the partition of graph
+   * @return the coordinator
+   */
+  public static DistributedBfs inProcess(CompactGraph graph, int[] labels, GraphPartition partition) {
+    List<ShardChannel> channels = new ArrayList<>();
+    for (int s = 0; s < partition.shardCount(); s++) {
+      GraphPartition.Shard shard = partition.shard(s);
+      channels.add(ShardChannel.local(new ShardWorker(shard, shardLabels(shard, labels), partition.shardCount())));
+    }
+    return new DistributedBfs(graph, partition, channels);
+  }
+
+  /**
+   * Loads shard s into the ShardServer at workers.get(s) and coordinates them over sockets.
+   * Several shards may share one server.
+   *
+   * @param graph the graph that was partitioned
+   * @param labels one label per vertex index, or null if only reachability is queried
+   * @param partition the partition of graph
+   * @param workers one server address per shard
+   * @return the coordinator
+   * @throws java.io.UncheckedIOException if a server cannot be reached
+   */
+  public static DistributedBfs connect(CompactGraph graph, int[] labels, GraphPartition partition, List<InetSocketAddress> workers) {
+    if (workers.size() != partition.shardCount()) throw new IllegalArgumentException("Need one worker address per shard");
+    List<ShardChannel> channels = new ArrayList<>();
+    try {
+      for (int s = 0; s < partition.shardCount(); s++) {
+        GraphPartition.Shard shard = partition.shard(s);
+        channels.add(SocketShardChannel.connect(workers.get(s), shard, shardLabels(shard, labels), partition.shardCount()));
+      }
+    } catch (RuntimeException e) {
+      channels.forEach(ShardChannel::close);
+      throw e;
+    }
+    return new DistributedBfs(graph, partition, channels);
+  }
+
+  private static int[] shardLabels(GraphPartition.Shard shard, int[] labels) {
+    int[] result = new int[shard.vertexCount()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = labels == null ? -1 : labels[shard.globalIndex(i)];
+    }
+    return result;
+  }
+
+  /**
+   * Answers Practice.hasExtendedConnectionAtCompany for a network whose graph was partitioned.
+   *
+   * @param network the network this coordinator was built from, with its company labels
+   * @param person the professional to start the search from (may be null)
+   * @param companyName the name of the company to check for employment
+   * @return true if a person in the extended network works at the specified company
+   */
+  public boolean hasExtendedConnectionAtCompany(ProfessionalNetwork network, Professional person, String companyName) {
+    int start = network.indexOf(person);
+    int code = network.companyCode(companyName);
+    if (start < 0 || code < 0) return false;
+    return search(start, code);
+  }
+
+  /**
+   * Returns whether a vertex with the given label is reachable from the vertex with the given
+   * id, including that vertex itself.
+   *
+   * @param starting the starting vertex id
+   * @param label the label to look for, not negative
+   * @return whether a labelled vertex is reachable
+   */
+  public boolean reachesLabel(int starting, int label) {
+    if (label < 0) throw new IllegalArgumentException("label must not be negative");
+    int start = graph.indexOf(starting);
+    return start >= 0 && search(start, label);
+  }
+
+  /**
+   * Returns a sorted list of all ids reachable from the vertex with the given id,
+   * matching CompactGraphs.sortedReachable.
+   *
+   * @param starting the starting vertex id
+   * @return a sorted list of all reachable vertex ids, empty if starting is not a vertex
+   */
+  public synchronized List<Integer> sortedReachable(int starting) {
+    int start = graph.indexOf(starting);
+    if (start < 0) return new ArrayList<>();
+    search(start, -1);
+
+    List<int[]> parts = forEachShard(s -> channels.get(s).visited(), null);
+    int total = 0;
+    for (int[] part : parts) {
+      total += part.length;
+    }
+    int[] values = new int[total];
+    int count = 0;
+    for (int[] part : parts) {
+      for (int v : part) {
+        values[count++] = graph.id(v);
+      }
+    }
+    Arrays.sort(values);
+    List<Integer> sortedList = new ArrayList<>(count);
+    for (int value : values) {
+      sortedList.add(value);
+    }
+    return sortedList;
+  }
+
+  private synchronized boolean search(int start, int label) {
+    int shardCount = partition.shardCount();
+    forEachShard(s -> {
+      channels.get(s).begin(label);
+      return null;
+    }, null);
+
+    int[][] frontier = new int[shardCount][];
+    Arrays.fill(frontier, new int[0]);
+    frontier[partition.owner(start)] = new int[] {start};
+    while (true) {
+      int[][] batches = frontier;
+      List<ShardChannel.Step> steps = forEachShard(s -> channels.get(s).step(batches[s]), batches);
+
+      int[] sizes = new int[shardCount];
+      for (ShardChannel.Step step : steps) {
+        if (step == null) continue;
+        if (step.found) return true;
+        for (int s = 0; s < shardCount; s++) {
+          sizes[s] += step.outbound[s].length;
+        }
+      }
+      int[][] next = new int[shardCount][];
+      boolean done = true;
+      for (int s = 0; s < shardCount; s++) {
+        next[s] = new int[sizes[s]];
+        done &= sizes[s] == 0;
+      }
+      if (done) return false;
+      int[] filled = new int[shardCount];
+      for (ShardChannel.Step step : steps) {
+        if (step == null) continue;
+        for (int s = 0; s < shardCount; s++) {
+          System.arraycopy(step.outbound[s], 0, next[s], filled[s], step.outbound[s].length);
+          filled[s] += step.outbound[s].length;
+        }
+      }
+      frontier = next;
+    }
+  }
+
+  private interface ShardCall<T> {
+    T call(int shard);
+  }
+
+  /**
+   * Runs call on every shard in parallel, skipping shards whose batch is empty when batches is
+   * given, and returns the results in shard order, null for skipped shards.
+   */
+  private <T> List<T> forEachShard(ShardCall<T> call, int[][] batches) {
+    List<Future<T>> futures = new ArrayList<>();
+    for (int s = 0; s < channels.size(); s++) {
+      int shard = s;
+      futures.add(batches != null && batches[s].length == 0 ? null : executor.submit(() -> call.call(shard)));
+    }
+    List<T> results = new ArrayList<>();
+    try {
+      for (Future<T> future : futures) {
+        results.add(future == null ? null : future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for shards", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+      throw new IllegalStateException(e.getCause());
+    }
+    return results;
+  }
+
+  /**
+   * Closes every shard channel and stops the coordinator's threads.
+   */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    channels.forEach(ShardChannel::close);
+  }
+}
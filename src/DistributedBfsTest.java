@@ -0,0 +1,155 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.*;
+
+public class DistributedBfsTest {
+
+  private static Map<Integer, Set<Integer>> randomGraph(Random random, int n, int edges) {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    for (int v = 0; v < n; v++) graph.put(v * 3 - 50, new HashSet<>());
+    for (int i = 0; i < edges; i++) {
+      graph.get(random.nextInt(n) * 3 - 50).add(random.nextInt(n) * 3 - 50);
+    }
+    return graph;
+  }
+
+  // Ten dense communities of 30 vertices with a few links between them.
+  private static CsrGraph communityGraph(Random random) {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    for (int v = 0; v < 300; v++) graph.put(v, new HashSet<>());
+    for (int v = 0; v < 300; v++) {
+      int community = v / 30;
+      for (int i = 0; i < 4; i++) graph.get(v).add(community * 30 + random.nextInt(30));
+      if (random.nextInt(10) == 0) graph.get(v).add(random.nextInt(300));
+    }
+    return CsrGraph.fromMap(graph);
+  }
+
+  private static List<Professional> randomNetwork(Random random, int n) {
+    String[] companies = {"Tech Solutions", "Global Inc.", "Other Corp", "FutureTech", "Innovative LLC"};
+    List<Professional> people = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      // Rare companies make both answers likely.
+      String company = random.nextInt(8) == 0 ? companies[1 + random.nextInt(4)] : companies[0];
+      people.add(new Professional("P" + i, company, i % 20, new HashSet<>()));
+    }
+    for (Professional p : people) {
+      for (int i = random.nextInt(3); i > 0; i--) p.getConnections().add(people.get(random.nextInt(n)));
+    }
+    return people;
+  }
+
+  @Test
+  public void testShardTablesCoverGraph() {
+    CsrGraph graph = CsrGraph.fromMap(randomGraph(new Random(1), 200, 700));
+    GraphPartition partition = GraphPartition.hash(graph, 4);
+    int owned = 0;
+    long edges = 0;
+    for (int s = 0; s < 4; s++) {
+      GraphPartition.Shard shard = partition.shard(s);
+      owned += shard.vertexCount();
+      for (int i = 0; i < shard.vertexCount(); i++) {
+        int v = shard.globalIndex(i);
+        assertEquals(s, partition.owner(v));
+        assertEquals(graph.edgeEnd(v) - graph.edgeStart(v), shard.edgeEnd(i) - shard.edgeStart(i));
+        for (int e = shard.edgeStart(i); e < shard.edgeEnd(i); e++) {
+          int t = shard.target(e);
+          int global = t < shard.vertexCount() ? shard.globalIndex(t) : shard.ghostGlobal(t - shard.vertexCount());
+          assertEquals(graph.target(graph.edgeStart(v) + e - shard.edgeStart(i)), global);
+          if (t >= shard.vertexCount()) assertEquals(partition.owner(global), shard.ghostOwner(t - shard.vertexCount()));
+        }
+        edges += shard.edgeEnd(i) - shard.edgeStart(i);
+      }
+      for (int i = 0; i < shard.boundaryCount(); i++) {
+        assertEquals(s, partition.owner(shard.globalIndex(shard.boundary(i))));
+      }
+    }
+    assertEquals(graph.vertexCount(), owned);
+    assertEquals(graph.edgeCount(), edges);
+  }
+
+  @Test
+  public void testLabelPropagationCutsFewerEdges() {
+    CsrGraph graph = communityGraph(new Random(2));
+    GraphPartition hashed = GraphPartition.hash(graph, 5);
+    GraphPartition propagated = GraphPartition.labelPropagation(graph, 5, 10, 0.1);
+    assertTrue(propagated.cutEdges() < hashed.cutEdges() / 2, propagated.cutEdges() + " vs " + hashed.cutEdges());
+    for (int s = 0; s < 5; s++) {
+      assertTrue(propagated.shard(s).vertexCount() <= 66);
+    }
+  }
+
+  @Test
+  public void testInProcessSortedReachable() {
+    Random random = new Random(3);
+    CsrGraph graph = CsrGraph.fromMap(randomGraph(random, 300, 500));
+    for (GraphPartition partition : List.of(GraphPartition.hash(graph, 3), GraphPartition.labelPropagation(graph, 4, 5, 0.2))) {
+      try (DistributedBfs bfs = DistributedBfs.inProcess(graph, null, partition)) {
+        for (int i = 0; i < 20; i++) {
+          int start = graph.id(random.nextInt(graph.vertexCount()));
+          assertEquals(CompactGraphs.sortedReachable(graph, start), bfs.sortedReachable(start));
+        }
+        assertEquals(List.of(), bfs.sortedReachable(2));
+      }
+    }
+  }
+
+  @Test
+  public void testInProcessHasExtendedConnectionAtCompany() {
+    Random random = new Random(4);
+    List<Professional> people = randomNetwork(random, 400);
+    ProfessionalNetwork network = ProfessionalNetwork.of(people);
+    GraphPartition partition = GraphPartition.labelPropagation(network.graph(), 4, 5, 0.1);
+    try (DistributedBfs bfs = DistributedBfs.inProcess(network.graph(), network.companyLabels(), partition)) {
+      for (String company : List.of("Tech Solutions", "Global Inc.", "FutureTech", "Nowhere")) {
+        for (Professional p : people) {
+          boolean expected = Practice.hasExtendedConnectionAtCompany(p, company);
+          assertEquals(expected, network.hasExtendedConnectionAtCompany(p, company));
+          assertEquals(expected, bfs.hasExtendedConnectionAtCompany(network, p, company));
+        }
+      }
+      assertFalse(bfs.hasExtendedConnectionAtCompany(network, null, "Tech Solutions"));
+    }
+  }
+
+  @Test
+  public void testOverLoopbackSockets() throws Exception {
+    Random random = new Random(5);
+    List<Professional> people = randomNetwork(random, 300);
+    ProfessionalNetwork network = ProfessionalNetwork.of(people);
+    GraphPartition partition = GraphPartition.hash(network.graph(), 3);
+    try (ShardServer first = new ShardServer(0); ShardServer second = new ShardServer(0)) {
+      List<InetSocketAddress> workers = List.of(
+          new InetSocketAddress("127.0.0.1", first.port()),
+          new InetSocketAddress("127.0.0.1", second.port()),
+          new InetSocketAddress("127.0.0.1", first.port()));
+      try (DistributedBfs bfs = DistributedBfs.connect(network.graph(), network.companyLabels(), partition, workers)) {
+        for (int i = 0; i < 40; i++) {
+          Professional p = people.get(random.nextInt(people.size()));
+          assertEquals(Practice.hasExtendedConnectionAtCompany(p, "FutureTech"), bfs.hasExtendedConnectionAtCompany(network, p, "FutureTech"));
+          int start = network.indexOf(p);
+          assertEquals(CompactGraphs.sortedReachable(network.graph(), start), bfs.sortedReachable(start));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testServerRepliesWithAnErrorToMalformedRequests() throws Exception {
+    try (ShardServer server = new ShardServer(0); Socket socket = new Socket("127.0.0.1", server.port())) {
+      DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+      out.writeInt(ShardServer.LOAD);
+      out.writeInt(2);
+      out.writeInt(-5);
+      out.flush();
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+      assertEquals(ShardServer.ERROR, in.readInt());
+      assertTrue(in.readUTF().contains("-5"));
+      assertEquals(-1, in.read());
+    }
+  }
+}
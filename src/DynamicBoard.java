@@ -0,0 +1,137 @@
+/**
+ * A nextMoves board whose 'X' cells come and go, with a version number and a log of the changes.
+ *
+ * The board keeps its own copy of the cells and only changes them through setBlocked and
+ * toggle, which record every change. Incremental planners read the log to repair their paths
+ * instead of starting over; the version also serves as the board version for a
+ * DistanceFieldCache. Only the most recent historyLimit changes are kept, and a reader that
+ * falls further behind is told so and must rebuild its state.
+ *
+ * A DynamicBoard is not thread-safe; edits and planning should happen on one thread, for
+ * example once per tick.
+ */
+public final class DynamicBoard {
+  private static final int DEFAULT_HISTORY_LIMIT = 1 << 16;
+
+  private final char[][] cells;
+  private final int rows;
+  private final int cols;
+  private final int[] history;
+  private long version;
+
+  /**
+   * Constructs a board from a copy of the given cells, keeping the default amount of history.
+   *
+   * @param board a rectangular array where 'X' represent an impassible location
+   */
+  public DynamicBoard(char[][] board) {
+    this(board, DEFAULT_HISTORY_LIMIT);
+  }
+
+  /**
+   * Constructs a board from a copy of the given cells.
+   *
+   * @param board a rectangular array where 'X' represent an impassible location
+   * @param historyLimit the number of most recent changes kept for changesSince
+   */
+  public DynamicBoard(char[][] board, int historyLimit) {
+    if (historyLimit < 1) throw new IllegalArgumentException("historyLimit must be at least 1");
+    this.rows = board.length;
+    this.cols = rows == 0 ? 0 : board[0].length;
+    this.cells = new char[rows][];
+    for (int r = 0; r < rows; r++) {
+      cells[r] = board[r].clone();
+    }
+    this.history = new int[historyLimit];
+  }
+
+  /**
+   * Returns the live cells, for passing to nextMoves and the other board algorithms. Callers
+   * must not modify them; use setBlocked or toggle instead.
+   *
+   * @return the board
+   */
+  public char[][] cells() {
+    return cells;
+  }
+
+  /**
+   * Returns the number of rows.
+   *
+   * @return the number of rows
+   */
+  public int rows() {
+    return rows;
+  }
+
+  /**
+   * Returns the number of columns.
+   *
+   * @return the number of columns
+   */
+  public int cols() {
+    return cols;
+  }
+
+  /**
+   * Returns the number of changes made so far, which identifies the board's current state.
+   *
+   * @return the version
+   */
+  public long version() {
+    return version;
+  }
+
+  /**
+   * Returns whether a cell is an 'X'.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return whether the cell is blocked
+   */
+  public boolean isBlocked(int row, int col) {
+    return cells[row][col] == 'X';
+  }
+
+  /**
+   * Blocks a cell with an 'X' or clears it to a space. Setting a cell to the state it already
+   * has is not a change.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @param blocked whether the cell should be blocked
+   */
+  public void setBlocked(int row, int col, boolean blocked) {
+    if (isBlocked(row, col) == blocked) return;
+    cells[row][col] = blocked ? 'X' : ' ';
+    history[(int) (version % history.length)] = row * cols + col;
+    version++;
+  }
+
+  /**
+   * Blocks a free cell or clears a blocked one.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   */
+  public void toggle(int row, int col) {
+    setBlocked(row, col, !isBlocked(row, col));
+  }
+
+  /**
+   * Returns the cells changed since the given version, as row * cols() + col, oldest first. A
+   * cell changed more than once appears more than once.
+   *
+   * @param since an earlier version of this board
+   * @return the changed cells, or null if some of them are no longer in the history
+   */
+  int[] changesSince(long since) {
+    if (since > version) throw new IllegalArgumentException("Version " + since + " is in the future");
+    if (version - since > history.length) return null;
+    int[] changes = new int[(int) (version - since)];
+    for (int i = 0; i < changes.length; i++) {
+      changes[i] = history[(int) ((since + i) % history.length)];
+    }
+    return changes;
+  }
+}
@@ -0,0 +1,294 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mutable map-based graph that keeps the reachable sets of registered sources up to date
+ * as edges are inserted and deleted.
+ *
+ * The graph follows the same conventions as Practice.sortedReachable(Map, int): each key is a
+ * vertex and its value is the set of directly reachable neighbors. A neighbor that is not a key
+ * is not considered part of the graph and is never reported as reachable.
+ *
+ * For every registered source a spanning tree of its reachable set is maintained (each reached
+ * vertex remembers the vertex it was discovered from). An insertion only explores the vertices
+ * that become newly reachable. A deletion only does work when it removes a tree edge; in that
+ * case the subtree hanging below the edge is detached, re-attached through any remaining
+ * in-edge from a still reachable vertex, and whatever cannot be re-attached is dropped.
+ */
+public class DynamicReachabilityGraph {
+  private final Map<Integer, Set<Integer>> graph = new HashMap<>();
+  private final Map<Integer, Set<Integer>> reverse = new HashMap<>();
+  private final Map<Integer, Reach> sources = new HashMap<>();
+
+  /**
+   * Reachable set of a single source, stored as a discovery tree.
+   */
+  private static class Reach {
+    final int source;
+    final Map<Integer, Integer> parent = new HashMap<>();
+    int oddCount;
+
+    Reach(int source) {
+      this.source = source;
+    }
+  }
+
+  /**
+   * Constructs an empty graph.
+   */
+  public DynamicReachabilityGraph() {
+  }
+
+  /**
+   * Constructs a graph holding a copy of the given adjacency map.
+   * Later changes to the map are not seen by this graph.
+   *
+   * @param initial a map representing the graph
+   */
+  public DynamicReachabilityGraph(Map<Integer, Set<Integer>> initial) {
+    for (Map.Entry<Integer, Set<Integer>> entry : initial.entrySet()) {
+      int from = entry.getKey();
+      graph.computeIfAbsent(from, k -> new HashSet<>());
+      for (int to : entry.getValue()) {
+        graph.get(from).add(to);
+        reverse.computeIfAbsent(to, k -> new HashSet<>()).add(from);
+      }
+    }
+  }
+
+  /**
+   * Adds a vertex with no outgoing edges. If some registered source already reaches a vertex with
+   * an edge to this one, the vertex and everything it leads to become reachable from that source.
+   * If the vertex is itself a registered source, it starts reaching from itself.
+   *
+   * @param vertex the vertex value
+   */
+  public void addVertex(int vertex) {
+    if (graph.containsKey(vertex)) return;
+    graph.put(vertex, new HashSet<>());
+
+    for (Reach reach : sources.values()) {
+      if (reach.source == vertex) {
+        // A source registered before it existed starts reaching now.
+        attach(reach, vertex, vertex);
+        extend(reach, vertex);
+        continue;
+      }
+      for (int from : reverse.getOrDefault(vertex, Collections.emptySet())) {
+        if (reach.parent.containsKey(from)) {
+          attach(reach, vertex, from);
+          extend(reach, vertex);
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds the edge from -> to. Both endpoints become vertices of the graph if they are not already.
+   * Every source that reaches from gains the vertices that become reachable through the new edge.
+   *
+   * @param from the tail of the edge
+   * @param to the head of the edge
+   * @return true if the edge was not already present
+   */
+  public boolean addEdge(int from, int to) {
+    addVertex(from);
+    addVertex(to);
+    if (!graph.get(from).add(to)) return false;
+    reverse.computeIfAbsent(to, k -> new HashSet<>()).add(from);
+
+    for (Reach reach : sources.values()) {
+      if (reach.parent.containsKey(from) && !reach.parent.containsKey(to)) {
+        attach(reach, to, from);
+        extend(reach, to);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Removes the edge from -> to, updating the reachable set of every source whose discovery tree
+   * used the edge.
+   *
+   * @param from the tail of the edge
+   * @param to the head of the edge
+   * @return true if the edge was present
+   */
+  public boolean removeEdge(int from, int to) {
+    Set<Integer> neighbors = graph.get(from);
+    if (neighbors == null || !neighbors.remove(to)) return false;
+    reverse.get(to).remove(from);
+
+    for (Reach reach : sources.values()) {
+      Integer parent = reach.parent.get(to);
+      if (parent != null && parent == from && to != reach.source) {
+        repair(reach, to);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the edge from -> to is present.
+   *
+   * @param from the tail of the edge
+   * @param to the head of the edge
+   * @return whether the edge is present
+   */
+  public boolean hasEdge(int from, int to) {
+    Set<Integer> neighbors = graph.get(from);
+    return neighbors != null && neighbors.contains(to);
+  }
+
+  /**
+   * Starts maintaining the reachable set of the given source. Registering a source that is
+   * already registered has no effect. The source does not need to be a vertex yet; it starts
+   * reaching vertices once it is added.
+   *
+   * @param source the source vertex value
+   */
+  public void registerSource(int source) {
+    if (sources.containsKey(source)) return;
+    Reach reach = new Reach(source);
+    sources.put(source, reach);
+    if (graph.containsKey(source)) {
+      attach(reach, source, source);
+      extend(reach, source);
+    }
+  }
+
+  /**
+   * Stops maintaining the reachable set of the given source.
+   *
+   * @param source the source vertex value
+   */
+  public void unregisterSource(int source) {
+    sources.remove(source);
+  }
+
+  /**
+   * Returns whether target is currently reachable from the registered source.
+   *
+   * @param source a registered source
+   * @param target the vertex value to look for
+   * @return whether target is reachable from source
+   * @throws IllegalArgumentException if source is not registered
+   */
+  public boolean isReachable(int source, int target) {
+    return reachOf(source).parent.containsKey(target);
+  }
+
+  /**
+   * Returns a sorted list of all values reachable from the registered source, matching
+   * Practice.sortedReachable(Map, int) on the current graph.
+   *
+   * @param source a registered source
+   * @return a sorted list of all reachable vertex values
+   * @throws IllegalArgumentException if source is not registered
+   */
+  public List<Integer> sortedReachable(int source) {
+    List<Integer> sortedList = new ArrayList<>(reachOf(source).parent.keySet());
+    Collections.sort(sortedList);
+    return sortedList;
+  }
+
+  /**
+   * Returns the number of odd values reachable from the registered source.
+   *
+   * @param source a registered source
+   * @return the number of odd reachable vertex values
+   * @throws IllegalArgumentException if source is not registered
+   */
+  public int oddVertices(int source) {
+    return reachOf(source).oddCount;
+  }
+
+  /**
+   * Returns a read-only view of the current adjacency map, suitable for passing to Practice.
+   *
+   * @return the adjacency map
+   */
+  public Map<Integer, Set<Integer>> asMap() {
+    return Collections.unmodifiableMap(graph);
+  }
+
+  private Reach reachOf(int source) {
+    Reach reach = sources.get(source);
+    if (reach == null) throw new IllegalArgumentException("Source " + source + " is not registered");
+    return reach;
+  }
+
+  private static void attach(Reach reach, int vertex, int parent) {
+    reach.parent.put(vertex, parent);
+    if (vertex % 2 != 0) reach.oddCount++;
+  }
+
+  private static void detach(Reach reach, int vertex) {
+    reach.parent.remove(vertex);
+    if (vertex % 2 != 0) reach.oddCount--;
+  }
+
+  /**
+   * Discovers every vertex that is reachable from an already attached vertex but not yet attached.
+   */
+  private void extend(Reach reach, int start) {
+    Deque<Integer> stack = new ArrayDeque<>();
+    stack.push(start);
+
+    while (!stack.isEmpty()) {
+      int current = stack.pop();
+      for (int neighbor : graph.get(current)) {
+        if (graph.containsKey(neighbor) && !reach.parent.containsKey(neighbor)) {
+          attach(reach, neighbor, current);
+          stack.push(neighbor);
+        }
+      }
+    }
+  }
+
+  /**
+   * Handles the loss of the tree edge into root: detaches the subtree below root, re-attaches
+   * the parts that still have an in-edge from the reachable remainder, and extends from them.
+   */
+  private void repair(Reach reach, int root) {
+    List<Integer> subtree = new ArrayList<>();
+    Set<Integer> detached = new HashSet<>();
+    Deque<Integer> stack = new ArrayDeque<>();
+    stack.push(root);
+    detached.add(root);
+
+    while (!stack.isEmpty()) {
+      int current = stack.pop();
+      subtree.add(current);
+      for (int neighbor : graph.get(current)) {
+        Integer parent = reach.parent.get(neighbor);
+        if (parent != null && parent == current && neighbor != reach.source && detached.add(neighbor)) {
+          stack.push(neighbor);
+        }
+      }
+    }
+
+    for (int vertex : subtree) {
+      detach(reach, vertex);
+    }
+
+    for (int vertex : subtree) {
+      if (reach.parent.containsKey(vertex)) continue;
+      for (int from : reverse.getOrDefault(vertex, Collections.emptySet())) {
+        if (reach.parent.containsKey(from)) {
+          attach(reach, vertex, from);
+          extend(reach, vertex);
+          break;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,114 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class DynamicReachabilityGraphTest {
+
+  @Test
+  public void testInsertExtendsReachableSet() {
+    // 1 -> 2, 3 -> 4; adding 2 -> 3 makes 3 and 4 reachable from 1.
+    DynamicReachabilityGraph graph = new DynamicReachabilityGraph();
+    graph.addEdge(1, 2);
+    graph.addEdge(3, 4);
+    graph.registerSource(1);
+    assertEquals(List.of(1, 2), graph.sortedReachable(1));
+
+    graph.addEdge(2, 3);
+    assertEquals(List.of(1, 2, 3, 4), graph.sortedReachable(1));
+    assertEquals(2, graph.oddVertices(1));
+  }
+
+  @Test
+  public void testDeleteWithAlternatePath() {
+    // 1 -> 2 -> 4 and 1 -> 3 -> 4; removing 2 -> 4 keeps 4 reachable through 3.
+    DynamicReachabilityGraph graph = new DynamicReachabilityGraph();
+    graph.addEdge(1, 2);
+    graph.addEdge(1, 3);
+    graph.addEdge(2, 4);
+    graph.addEdge(3, 4);
+    graph.registerSource(1);
+
+    graph.removeEdge(2, 4);
+    assertEquals(List.of(1, 2, 3, 4), graph.sortedReachable(1));
+    graph.removeEdge(3, 4);
+    assertEquals(List.of(1, 2, 3), graph.sortedReachable(1));
+    assertFalse(graph.isReachable(1, 4));
+  }
+
+  @Test
+  public void testDeleteInsideCycle() {
+    // 1 -> 2 -> 3 -> 2 and 3 -> 5; cutting 1 -> 2 leaves only the source.
+    DynamicReachabilityGraph graph = new DynamicReachabilityGraph();
+    graph.addEdge(1, 2);
+    graph.addEdge(2, 3);
+    graph.addEdge(3, 2);
+    graph.addEdge(3, 5);
+    graph.registerSource(1);
+    assertEquals(3, graph.oddVertices(1));
+
+    graph.removeEdge(1, 2);
+    assertEquals(List.of(1), graph.sortedReachable(1));
+    assertEquals(1, graph.oddVertices(1));
+  }
+
+  @Test
+  public void testDanglingNeighborBecomesReachableWhenAdded() {
+    // 7 is only a neighbor, not a key, so it is not reachable until it becomes a vertex.
+    Map<Integer, Set<Integer>> initial = new HashMap<>();
+    initial.put(1, new HashSet<>(Arrays.asList(7)));
+    DynamicReachabilityGraph graph = new DynamicReachabilityGraph(initial);
+    graph.registerSource(1);
+    assertEquals(Practice.sortedReachable(initial, 1), graph.sortedReachable(1));
+
+    graph.addVertex(7);
+    assertEquals(List.of(1, 7), graph.sortedReachable(1));
+  }
+
+  @Test
+  public void testUnregisteredSourceThrows() {
+    DynamicReachabilityGraph graph = new DynamicReachabilityGraph();
+    assertThrows(IllegalArgumentException.class, () -> graph.sortedReachable(1));
+  }
+
+  @Test
+  public void testRandomMutationsMatchRecomputation() {
+    Random random = new Random(26);
+    DynamicReachabilityGraph graph = new DynamicReachabilityGraph();
+    for (int v = 0; v < 30; v++) graph.addVertex(v);
+    int[] sources = {0, 5, 17};
+    for (int source : sources) graph.registerSource(source);
+
+    for (int step = 0; step < 2000; step++) {
+      int from = random.nextInt(30);
+      int to = random.nextInt(30);
+      if (random.nextInt(3) == 0) {
+        graph.removeEdge(from, to);
+      } else {
+        graph.addEdge(from, to);
+      }
+
+      for (int source : sources) {
+        List<Integer> expected = Practice.sortedReachable(graph.asMap(), source);
+        assertEquals(expected, graph.sortedReachable(source));
+        int odd = 0;
+        for (int value : expected) if (value % 2 != 0) odd++;
+        assertEquals(odd, graph.oddVertices(source));
+      }
+    }
+  }
+
+  @Test
+  public void testSourceRegisteredBeforeItExists() {
+    DynamicReachabilityGraph graph = new DynamicReachabilityGraph();
+    graph.registerSource(5);
+    assertEquals(List.of(), graph.sortedReachable(5));
+    graph.addEdge(5, 6);
+    graph.addEdge(4, 5);
+    assertEquals(List.of(5, 6), graph.sortedReachable(5));
+    assertEquals(1, graph.oddVertices(5));
+
+    graph.registerSource(7);
+    graph.addVertex(7);
+    assertEquals(List.of(7), graph.sortedReachable(7));
+  }
+}
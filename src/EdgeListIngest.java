@@ -0,0 +1,321 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Builds a CsrGraph straight from a text edge list, without going through a boxed Map.
+ *
+ * Every non-empty line holds two whitespace separated integers, "src dst", describing the edge
+ * src -> dst. Lines starting with '#' or '%' are comments. Both endpoints of an edge become
+ * vertices, and repeated edges are kept once, as they would be in a Map&lt;Integer, Set&lt;Integer&gt;&gt;.
+ *
+ * The file is read twice. The first pass counts the out-degree of every id, which is enough to
+ * lay out the offsets array; the second pass drops every edge directly into its final slot. The
+ * file is split into line-aligned chunks that are parsed in parallel with NIO positional reads.
+ * Each chunk counts degrees into a table of its own, which is merged into the shared one as soon
+ * as the chunk finishes, so besides the final graph, peak memory is the merged id table plus a
+ * partial table and a read buffer for each chunk in flight.
+ */
+public final class EdgeListIngest {
+  private static final int READ_BUFFER_BYTES = 1 << 20;
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  private EdgeListIngest() {
+  }
+
+  /**
+   * The outcome of an ingestion: the graph and how fast it was built.
+   */
+  public static final class Result {
+    private final CsrGraph graph;
+    private final long edgesRead;
+    private final long elapsedNanos;
+
+    Result(CsrGraph graph, long edgesRead, long elapsedNanos) {
+      this.graph = graph;
+      this.edgesRead = edgesRead;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    public CsrGraph graph() {
+      return graph;
+    }
+
+    /**
+     * Returns the number of edge lines read, including repeated edges.
+     */
+    public long edgesRead() {
+      return edgesRead;
+    }
+
+    public long elapsedNanos() {
+      return elapsedNanos;
+    }
+
+    /**
+     * Returns the ingestion throughput in edge lines per second.
+     */
+    public double edgesPerSecond() {
+      return elapsedNanos == 0 ? 0 : edgesRead * 1e9 / elapsedNanos;
+    }
+  }
+
+  /**
+   * Reads an edge list using one thread per available processor.
+   *
+   * @param path the edge list file
+   * @return the graph and ingestion statistics
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if a line is not a pair of integers
+   */
+  public static Result read(Path path) throws IOException {
+    return read(path, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Reads an edge list using the given number of threads.
+   *
+   * @param path the edge list file
+   * @param threads how many threads parse chunks in parallel
+   * @return the graph and ingestion statistics
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if a line is not a pair of integers
+   */
+  public static Result read(Path path, int threads) throws IOException {
+    long startedAt = System.nanoTime();
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long[] bounds = chunkBounds(channel, threads * CHUNKS_PER_THREAD);
+
+      // Pass 1: out-degree of every id, with targets registered at degree 0.
+      IntIntHashMap degrees = new IntIntHashMap();
+      runChunks(pool, bounds, chunk -> {
+        IntIntHashMap partial = new IntIntHashMap();
+        parse(channel, bounds[chunk], bounds[chunk + 1], (from, to) -> {
+          partial.addTo(from, 1);
+          partial.addTo(to, 0);
+        });
+        return partial;
+      }, degrees::addAll);
+
+      int[] ids = degrees.keys();
+      Arrays.sort(ids);
+      IntIntHashMap indexOf = new IntIntHashMap(ids.length);
+      int[] offsets = new int[ids.length + 1];
+      for (int v = 0; v < ids.length; v++) {
+        indexOf.put(ids[v], v);
+        long end = (long) offsets[v] + degrees.get(ids[v], 0);
+        if (end > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many edges for an on-heap graph");
+        offsets[v + 1] = (int) end;
+      }
+      long edgesRead = offsets[ids.length];
+
+      // Pass 2: place every edge in its slot.
+      int[] targets = new int[offsets[ids.length]];
+      AtomicIntegerArray cursors = new AtomicIntegerArray(Arrays.copyOf(offsets, ids.length));
+      runChunks(pool, bounds, chunk -> {
+        parse(channel, bounds[chunk], bounds[chunk + 1], (from, to) -> {
+          targets[cursors.getAndIncrement(indexOf.get(from, -1))] = indexOf.get(to, -1);
+        });
+        return null;
+      }, done -> { });
+
+      CsrGraph graph = sortAndDeduplicate(ids, offsets, targets);
+      return new Result(graph, edgesRead, System.nanoTime() - startedAt);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Receives every parsed edge.
+   */
+  private interface EdgeSink {
+    void edge(int from, int to);
+  }
+
+  /**
+   * Work done for one chunk.
+   */
+  private interface ChunkTask<R> {
+    R run(int chunk) throws IOException;
+  }
+
+  /**
+   * Runs the task for every chunk on the pool and hands each result to collect, on the calling
+   * thread, in the order the chunks finish.
+   */
+  private static <R> void runChunks(ExecutorService pool, long[] bounds, ChunkTask<R> task, Consumer<R> collect)
+      throws IOException {
+    CompletionService<R> completed = new ExecutorCompletionService<>(pool);
+    int chunks = bounds.length - 1;
+    for (int chunk = 0; chunk < chunks; chunk++) {
+      int current = chunk;
+      completed.submit(() -> task.run(current));
+    }
+
+    try {
+      for (int i = 0; i < chunks; i++) {
+        collect.accept(completed.take().get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading edge list", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) throw (IOException) cause;
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      throw new IOException(cause);
+    }
+  }
+
+  /**
+   * Splits the file into up to chunks ranges, each starting at the beginning of a line.
+   */
+  private static long[] chunkBounds(FileChannel channel, int chunks) throws IOException {
+    long size = channel.size();
+    long[] bounds = new long[chunks + 1];
+    ByteBuffer probe = ByteBuffer.allocate(4096);
+    for (int i = 1; i < chunks; i++) {
+      long position = Math.max(bounds[i - 1], size * i / chunks);
+      bounds[i] = position == 0 ? 0 : nextLineStart(channel, position, probe);
+    }
+    bounds[chunks] = size;
+    return bounds;
+  }
+
+  /**
+   * Returns the position just after the first newline at or after position - 1.
+   */
+  private static long nextLineStart(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+    long at = position - 1;
+    while (true) {
+      probe.clear();
+      int read = channel.read(probe, at);
+      if (read <= 0) return channel.size();
+      for (int i = 0; i < read; i++) {
+        if (probe.get(i) == '\n') return at + i + 1;
+      }
+      at += read;
+    }
+  }
+
+  /**
+   * Parses the lines in [start, end) and passes each edge to the sink.
+   */
+  private static void parse(FileChannel channel, long start, long end, EdgeSink sink) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+    long position = start;
+    int field = 0;
+    boolean inNumber = false;
+    boolean negative = false;
+    boolean comment = false;
+    long value = 0;
+    int from = 0;
+
+    while (position < end) {
+      buffer.clear();
+      buffer.limit((int) Math.min(buffer.capacity(), end - position));
+      int read = channel.read(buffer, position);
+      if (read <= 0) break;
+      byte[] bytes = buffer.array();
+
+      for (int i = 0; i < read; i++) {
+        byte b = bytes[i];
+        if (b == '\n') {
+          if (inNumber) {
+            if (field == 0) throw malformed(position + i);
+            sink.edge(from, toInt(value, negative, position + i));
+            field = 2;
+            inNumber = false;
+            negative = false;
+          }
+          if (field == 1 || negative) throw malformed(position + i);
+          field = 0;
+          comment = false;
+          continue;
+        }
+        if (comment) continue;
+
+        if (b >= '0' && b <= '9') {
+          if (field == 2) throw malformed(position + i);
+          if (!inNumber) {
+            inNumber = true;
+            value = 0;
+          }
+          value = value * 10 + (b - '0');
+          if (value > 1L << 32) throw malformed(position + i);
+        } else if (b == '-' && !inNumber) {
+          if (field == 2 || negative) throw malformed(position + i);
+          negative = true;
+        } else if (b == ' ' || b == '\t' || b == '\r' || b == ',') {
+          if (inNumber) {
+            if (field == 0) {
+              from = toInt(value, negative, position + i);
+              field = 1;
+            } else {
+              sink.edge(from, toInt(value, negative, position + i));
+              field = 2;
+            }
+            inNumber = false;
+            negative = false;
+          } else if (negative) {
+            throw malformed(position + i);
+          }
+        } else if ((b == '#' || b == '%') && field == 0 && !inNumber && !negative) {
+          comment = true;
+        } else {
+          throw malformed(position + i);
+        }
+      }
+      position += read;
+    }
+
+    if (inNumber && field == 1) {
+      sink.edge(from, toInt(value, negative, position));
+    } else if (inNumber || field == 1) {
+      throw malformed(position);
+    }
+  }
+
+  private static int toInt(long magnitude, boolean negative, long position) {
+    long value = negative ? -magnitude : magnitude;
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) throw malformed(position);
+    return (int) value;
+  }
+
+  private static IllegalArgumentException malformed(long position) {
+    return new IllegalArgumentException("Malformed edge list near byte " + position);
+  }
+
+  /**
+   * Sorts every neighbor range and removes repeated edges, compacting the arrays in place.
+   */
+  private static CsrGraph sortAndDeduplicate(int[] ids, int[] offsets, int[] targets) {
+    int write = 0;
+    int rangeStart = 0;
+    for (int v = 0; v < ids.length; v++) {
+      int rangeEnd = offsets[v + 1];
+      Arrays.sort(targets, rangeStart, rangeEnd);
+      offsets[v] = write;
+      for (int e = rangeStart; e < rangeEnd; e++) {
+        if (e == rangeStart || targets[e] != targets[e - 1]) {
+          targets[write++] = targets[e];
+        }
+      }
+      rangeStart = rangeEnd;
+    }
+    offsets[ids.length] = write;
+    return new CsrGraph(ids, offsets, write == targets.length ? targets : Arrays.copyOf(targets, write));
+  }
+}
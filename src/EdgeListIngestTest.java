@@ -0,0 +1,69 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class EdgeListIngestTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void testSmallEdgeList() throws IOException {
+    Path file = tempDir.resolve("edges.txt");
+    Files.writeString(file, "# comment\n5 4\n5 8\n4 7\r\n8 7\n\n8\t9\n5 4\n");
+    EdgeListIngest.Result result = EdgeListIngest.read(file, 2);
+
+    Map<Integer, Set<Integer>> expected = new HashMap<>();
+    expected.put(5, new HashSet<>(Arrays.asList(4, 8)));
+    expected.put(4, new HashSet<>(Arrays.asList(7)));
+    expected.put(8, new HashSet<>(Arrays.asList(7, 9)));
+    expected.put(7, new HashSet<>());
+    expected.put(9, new HashSet<>());
+    assertEquals(expected, result.graph().toMap());
+    assertEquals(6, result.edgesRead());
+    assertEquals(5, result.graph().edgeCount());
+    assertTrue(result.edgesPerSecond() > 0);
+  }
+
+  @Test
+  public void testNegativeIdsAndMissingTrailingNewline() throws IOException {
+    Path file = tempDir.resolve("negative.txt");
+    Files.writeString(file, "3 -4\n-4 5");
+    CsrGraph graph = EdgeListIngest.read(file, 1).graph();
+    assertEquals(List.of(-4, 3, 5), CompactGraphs.sortedReachable(graph, 3));
+    assertFalse(CompactGraphs.positivePathExists(graph, 3, 5));
+  }
+
+  @Test
+  public void testParallelChunksMatchMap() throws IOException {
+    Random random = new Random(31);
+    Map<Integer, Set<Integer>> expected = new HashMap<>();
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 20_000; i++) {
+      int from = random.nextInt(3000) - 1000;
+      int to = random.nextInt(3000) - 1000;
+      expected.computeIfAbsent(from, k -> new HashSet<>()).add(to);
+      expected.computeIfAbsent(to, k -> new HashSet<>());
+      text.append(from).append(' ').append(to).append('\n');
+    }
+    Path file = tempDir.resolve("random.txt");
+    Files.writeString(file, text);
+
+    for (int threads : new int[] {1, 3, 8}) {
+      assertEquals(expected, EdgeListIngest.read(file, threads).graph().toMap());
+    }
+  }
+
+  @Test
+  public void testMalformedLineRejected() throws IOException {
+    Path file = tempDir.resolve("bad.txt");
+    Files.writeString(file, "1 2\n3\n");
+    assertThrows(IllegalArgumentException.class, () -> EdgeListIngest.read(file, 1));
+    Files.writeString(file, "1 two\n");
+    assertThrows(IllegalArgumentException.class, () -> EdgeListIngest.read(file, 1));
+  }
+}
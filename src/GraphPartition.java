@@ -0,0 +1,385 @@
+import java.util.Arrays;
+
+/**
+ * An assignment of every vertex of a CompactGraph to one of several shards, and the per-shard
+ * subgraphs that a sharded traversal runs on.
+ *
+ * Two partitioners are provided. hash spreads vertices by a mix of their ids, which balances
+ * perfectly but cuts almost every edge. labelPropagation starts from the hash assignment and
+ * repeatedly moves each vertex to the shard most of its neighbors are in, as long as that shard
+ * is below its capacity, which keeps communities together and cuts far fewer edges.
+ *
+ * Each Shard stores its own vertices and their outgoing edges in CSR form. Edge targets index
+ * first the shard's own vertices and then its ghosts: copies of vertices owned by other shards
+ * that an owned vertex has an edge to. The ghost table records each ghost's global index and
+ * owner, which tells a traversal where to send it. The boundary table lists the owned vertices
+ * that other shards have edges to, the vertices that can arrive in a frontier batch.
+ */
+public class GraphPartition {
+  private final int shardCount;
+  private final int[] owner;
+  private final Shard[] shards;
+  private final long cutEdges;
+
+  private GraphPartition(CompactGraph graph, int shardCount, int[] owner) {
+    this.shardCount = shardCount;
+    this.owner = owner;
+    this.shards = new Shard[shardCount];
+    long cut = 0;
+    for (int v = 0; v < graph.vertexCount(); v++) {
+      for (long e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+        if (owner[graph.target(e)] != owner[v]) cut++;
+      }
+    }
+    this.cutEdges = cut;
+    int[] localIndex = new int[graph.vertexCount()];
+    for (int s = 0; s < shardCount; s++) {
+      shards[s] = new Shard(graph, owner, s, localIndex);
+    }
+  }
+
+  /**
+   * Splits a graph by hashing vertex ids.
+   *
+   * @param graph the graph
+   * @param shardCount the number of shards, at least 1
+   * @return the partition
+   */
+  public static GraphPartition hash(CompactGraph graph, int shardCount) {
+    return new GraphPartition(graph, checkShardCount(shardCount), hashOwners(graph, shardCount));
+  }
+
+  /**
+   * Splits a graph by balanced label propagation. No shard grows beyond the average shard size
+   * by more than the given slack, and rounds stop early once no vertex moves.
+   *
+   * @param graph the graph
+   * @param shardCount the number of shards, at least 1
+   * @param rounds the maximum number of passes over all vertices
+   * @param slack the allowed imbalance, for example 0.1 for shards up to 10% over the average
+   * @return the partition
+   */
+  public static GraphPartition labelPropagation(CompactGraph graph, int shardCount, int rounds, double slack) {
+    checkShardCount(shardCount);
+    if (slack < 0) throw new IllegalArgumentException("slack must not be negative");
+    int n = graph.vertexCount();
+    int[] owner = hashOwners(graph, shardCount);
+    int[] sizes = new int[shardCount];
+    for (int v = 0; v < n; v++) {
+      sizes[owner[v]]++;
+    }
+    int capacity = (int) Math.ceil((double) n / shardCount * (1 + slack));
+
+    // Label propagation looks at neighbors in both directions.
+    CsrGraph reverse = CsrGraph.copyOf(graph).transpose();
+    int[] votes = new int[shardCount];
+    int[] touched = new int[shardCount];
+    for (int round = 0; round < rounds; round++) {
+      int moved = 0;
+      for (int v = 0; v < n; v++) {
+        int touchedCount = 0;
+        for (int side = 0; side < 2; side++) {
+          CompactGraph edges = side == 0 ? graph : reverse;
+          for (long e = edges.edgeStart(v); e < edges.edgeEnd(v); e++) {
+            int label = owner[edges.target(e)];
+            if (votes[label]++ == 0) touched[touchedCount++] = label;
+          }
+        }
+
+        int current = owner[v];
+        int best = current;
+        for (int i = 0; i < touchedCount; i++) {
+          int label = touched[i];
+          if (votes[label] > votes[best] && sizes[label] < capacity) best = label;
+        }
+        for (int i = 0; i < touchedCount; i++) {
+          votes[touched[i]] = 0;
+        }
+        if (best != current) {
+          sizes[current]--;
+          sizes[best]++;
+          owner[v] = best;
+          moved++;
+        }
+      }
+      if (moved == 0) break;
+    }
+    return new GraphPartition(graph, shardCount, owner);
+  }
+
+  private static int checkShardCount(int shardCount) {
+    if (shardCount < 1) throw new IllegalArgumentException("shardCount must be at least 1");
+    return shardCount;
+  }
+
+  private static int[] hashOwners(CompactGraph graph, int shardCount) {
+    int[] owner = new int[graph.vertexCount()];
+    for (int v = 0; v < owner.length; v++) {
+      owner[v] = Math.floorMod(mix(graph.id(v)), shardCount);
+    }
+    return owner;
+  }
+
+  /**
+   * The murmur3 finalizer, so that consecutive ids do not land in consecutive shards.
+   */
+  private static int mix(int h) {
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  /**
+   * Returns the number of shards.
+   *
+   * @return the number of shards
+   */
+  public int shardCount() {
+    return shardCount;
+  }
+
+  /**
+   * Returns the shard owning the vertex at the given index.
+   *
+   * @param vertex a vertex index of the partitioned graph
+   * @return its shard
+   */
+  public int owner(int vertex) {
+    return owner[vertex];
+  }
+
+  /**
+   * Returns one shard.
+   *
+   * @param shard a shard number
+   * @return the shard
+   */
+  public Shard shard(int shard) {
+    return shards[shard];
+  }
+
+  /**
+   * Returns the number of edges whose endpoints are owned by different shards.
+   *
+   * @return the edge cut
+   */
+  public long cutEdges() {
+    return cutEdges;
+  }
+
+  /**
+   * The vertices owned by one shard, their outgoing edges, and the ghost and boundary tables.
+   * Vertex indices inside a shard are local; globalIndex and ghostGlobal translate them back.
+   */
+  public static final class Shard {
+    private final int[] globals;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] ghostGlobals;
+    private final int[] ghostOwners;
+    private final int[] boundary;
+
+    Shard(int[] globals, int[] offsets, int[] targets, int[] ghostGlobals, int[] ghostOwners, int[] boundary) {
+      this.globals = globals;
+      this.offsets = offsets;
+      this.targets = targets;
+      this.ghostGlobals = ghostGlobals;
+      this.ghostOwners = ghostOwners;
+      this.boundary = boundary;
+    }
+
+    /**
+     * Builds shard s. localIndex is scratch space of one int per global vertex.
+     */
+    private Shard(CompactGraph graph, int[] owner, int s, int[] localIndex) {
+      int n = graph.vertexCount();
+      int count = 0;
+      for (int v = 0; v < n; v++) {
+        if (owner[v] == s) localIndex[v] = count++;
+      }
+      int[] globals = new int[count];
+      for (int v = 0, i = 0; v < n; v++) {
+        if (owner[v] == s) globals[i++] = v;
+      }
+
+      IntIntHashMap ghostIndex = new IntIntHashMap();
+      int[] ghostGlobals = new int[16];
+      int ghostCount = 0;
+      int[] offsets = new int[count + 1];
+      int[] targets = new int[16];
+      int m = 0;
+      for (int i = 0; i < count; i++) {
+        int v = globals[i];
+        for (long e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+          int w = graph.target(e);
+          int local;
+          if (owner[w] == s) {
+            local = localIndex[w];
+          } else {
+            int ghost = ghostIndex.get(w, -1);
+            if (ghost < 0) {
+              ghost = ghostCount++;
+              ghostIndex.put(w, ghost);
+              if (ghost == ghostGlobals.length) ghostGlobals = Arrays.copyOf(ghostGlobals, ghost * 2);
+              ghostGlobals[ghost] = w;
+            }
+            local = count + ghost;
+          }
+          if (m == targets.length) targets = Arrays.copyOf(targets, m * 2);
+          targets[m++] = local;
+        }
+        offsets[i + 1] = m;
+      }
+      int[] ghostOwners = new int[ghostCount];
+      for (int g = 0; g < ghostCount; g++) {
+        ghostOwners[g] = owner[ghostGlobals[g]];
+      }
+
+      long[] isBoundary = new long[CompactGraphs.words(count)];
+      for (int v = 0; v < n; v++) {
+        if (owner[v] == s) continue;
+        for (long e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+          int w = graph.target(e);
+          if (owner[w] == s) CompactGraphs.set(isBoundary, localIndex[w]);
+        }
+      }
+      int[] boundary = new int[count];
+      int boundaryCount = 0;
+      for (int i = CompactGraphs.nextSetBit(isBoundary, 0); i >= 0; i = CompactGraphs.nextSetBit(isBoundary, i + 1)) {
+        boundary[boundaryCount++] = i;
+      }
+
+      this.globals = globals;
+      this.offsets = offsets;
+      this.targets = Arrays.copyOf(targets, m);
+      this.ghostGlobals = Arrays.copyOf(ghostGlobals, ghostCount);
+      this.ghostOwners = ghostOwners;
+      this.boundary = Arrays.copyOf(boundary, boundaryCount);
+    }
+
+    /**
+     * Returns the number of vertices this shard owns.
+     *
+     * @return the number of owned vertices
+     */
+    public int vertexCount() {
+      return globals.length;
+    }
+
+    /**
+     * Returns the global index of an owned vertex.
+     *
+     * @param local a local index below vertexCount()
+     * @return the vertex index in the partitioned graph
+     */
+    public int globalIndex(int local) {
+      return globals[local];
+    }
+
+    /**
+     * Returns the first edge of an owned vertex.
+     *
+     * @param local a local index below vertexCount()
+     * @return the first edge position
+     */
+    public int edgeStart(int local) {
+      return offsets[local];
+    }
+
+    /**
+     * Returns the position just past the last edge of an owned vertex.
+     *
+     * @param local a local index below vertexCount()
+     * @return the end edge position, exclusive
+     */
+    public int edgeEnd(int local) {
+      return offsets[local + 1];
+    }
+
+    /**
+     * Returns the target of an edge: a local index below vertexCount() for owned vertices, or
+     * vertexCount() plus a ghost number for vertices of other shards.
+     *
+     * @param edge an edge position
+     * @return the local or ghost target
+     */
+    public int target(int edge) {
+      return targets[edge];
+    }
+
+    /**
+     * Returns the number of ghost vertices.
+     *
+     * @return the number of ghosts
+     */
+    public int ghostCount() {
+      return ghostGlobals.length;
+    }
+
+    /**
+     * Returns the global index of a ghost.
+     *
+     * @param ghost a ghost number below ghostCount()
+     * @return the vertex index in the partitioned graph
+     */
+    public int ghostGlobal(int ghost) {
+      return ghostGlobals[ghost];
+    }
+
+    /**
+     * Returns the shard owning a ghost.
+     *
+     * @param ghost a ghost number below ghostCount()
+     * @return the owning shard
+     */
+    public int ghostOwner(int ghost) {
+      return ghostOwners[ghost];
+    }
+
+    /**
+     * Returns the number of owned vertices that other shards have edges to.
+     *
+     * @return the size of the boundary table
+     */
+    public int boundaryCount() {
+      return boundary.length;
+    }
+
+    /**
+     * Returns the i-th boundary vertex, in increasing local index order.
+     *
+     * @param i which boundary vertex, below boundaryCount()
+     * @return its local index
+     */
+    public int boundary(int i) {
+      return boundary[i];
+    }
+
+    int[] globals() {
+      return globals;
+    }
+
+    int[] offsets() {
+      return offsets;
+    }
+
+    int[] targets() {
+      return targets;
+    }
+
+    int[] ghostGlobals() {
+      return ghostGlobals;
+    }
+
+    int[] ghostOwners() {
+      return ghostOwners;
+    }
+
+    int[] boundaryTable() {
+      return boundary;
+    }
+  }
+}
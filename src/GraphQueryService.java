@@ -0,0 +1,211 @@
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs Practice-style graph queries concurrently with per-query deadlines and bounded admission.
+ *
+ * Each query runs on its own virtual thread when the JDK provides them (21 and later) and on a
+ * cached pool of daemon platform threads otherwise. At most maxConcurrentQueries queries are in
+ * flight at once; further submissions fail immediately with a RejectedExecutionException instead
+ * of queueing, so a burst cannot build an unbounded backlog. A query keeps its slot until its
+ * worker has stopped, even after its future has timed out, so queries that ignore interrupts
+ * cannot pile up threads.
+ *
+ * The network and two-way queries charge a TraversalBudget carrying the deadline and the
+ * thread's interrupt flag while they traverse, so an expired or cancelled query stops consuming
+ * CPU promptly. A timed out query completes exceptionally with a TimeoutException, a cancelled
+ * one with a CancellationException.
+ */
+public class GraphQueryService implements AutoCloseable {
+  private final ExecutorService executor;
+  private final Semaphore admission;
+  private final Duration defaultDeadline;
+
+  /**
+   * Constructs a service using virtual threads when available.
+   *
+   * @param maxConcurrentQueries the maximum number of queries in flight
+   * @param defaultDeadline      the deadline applied when a query does not give one
+   */
+  public GraphQueryService(int maxConcurrentQueries, Duration defaultDeadline) {
+    this(newDefaultExecutor(), maxConcurrentQueries, defaultDeadline);
+  }
+
+  /**
+   * Constructs a service running queries on the given executor. The service owns the executor
+   * and shuts it down on close.
+   *
+   * @param executor             the executor to run queries on
+   * @param maxConcurrentQueries the maximum number of queries in flight
+   * @param defaultDeadline      the deadline applied when a query does not give one
+   */
+  public GraphQueryService(ExecutorService executor, int maxConcurrentQueries, Duration defaultDeadline) {
+    if (maxConcurrentQueries <= 0) throw new IllegalArgumentException("maxConcurrentQueries must be positive");
+    this.executor = executor;
+    this.admission = new Semaphore(maxConcurrentQueries);
+    this.defaultDeadline = defaultDeadline;
+  }
+
+  /**
+   * Asynchronously answers Practice.hasExtendedConnectionAtCompany with the default deadline.
+   *
+   * @param person the professional to start the search from (may be null)
+   * @param companyName the name of the company to check for employment
+   * @return a future holding the answer
+   */
+  public CompletableFuture<Boolean> hasExtendedConnectionAtCompany(Professional person, String companyName) {
+    return hasExtendedConnectionAtCompany(person, companyName, defaultDeadline);
+  }
+
+  /**
+   * Asynchronously answers Practice.hasExtendedConnectionAtCompany within the given deadline.
+   *
+   * @param person the professional to start the search from (may be null)
+   * @param companyName the name of the company to check for employment
+   * @param deadline how long the query may run
+   * @return a future holding the answer
+   */
+  public CompletableFuture<Boolean> hasExtendedConnectionAtCompany(Professional person, String companyName, Duration deadline) {
+    return run(budget -> Practice.hasExtendedConnectionAtCompany(person, companyName, budget), deadline);
+  }
+
+  /**
+   * Asynchronously answers Practice.twoWay with the default deadline.
+   *
+   * @param <T> the type of data stored in the vertex
+   * @param v1 the starting vertex
+   * @param v2 the target vertex
+   * @return a future holding the answer
+   */
+  public <T> CompletableFuture<Boolean> twoWay(Vertex<T> v1, Vertex<T> v2) {
+    return twoWay(v1, v2, defaultDeadline);
+  }
+
+  /**
+   * Asynchronously answers Practice.twoWay within the given deadline.
+   *
+   * @param <T> the type of data stored in the vertex
+   * @param v1 the starting vertex
+   * @param v2 the target vertex
+   * @param deadline how long the query may run
+   * @return a future holding the answer
+   */
+  public <T> CompletableFuture<Boolean> twoWay(Vertex<T> v1, Vertex<T> v2, Duration deadline) {
+    return run(budget -> Practice.twoWay(v1, v2, budget), deadline);
+  }
+
+  /**
+   * Asynchronously runs an arbitrary query, for example another Practice method. The query is
+   * interrupted when its deadline passes but is not otherwise checked while it runs.
+   *
+   * @param <R> the result type
+   * @param query the query to run
+   * @param deadline how long the query may run
+   * @return a future holding the result
+   */
+  public <R> CompletableFuture<R> submit(Callable<R> query, Duration deadline) {
+    return run(budget -> {
+      try {
+        return query.call();
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }, deadline);
+  }
+
+  /**
+   * Returns how many more queries could be admitted right now.
+   *
+   * @return the number of free admission slots
+   */
+  public int availableSlots() {
+    return admission.availablePermits();
+  }
+
+  /**
+   * Stops accepting queries and interrupts the ones still running.
+   */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * A query body that charges its work to the given budget.
+   */
+  private interface Query<R> {
+    R run(TraversalBudget budget);
+  }
+
+  private <R> CompletableFuture<R> run(Query<R> query, Duration deadline) {
+    CompletableFuture<R> result = new CompletableFuture<>();
+    if (!admission.tryAcquire()) {
+      result.completeExceptionally(new RejectedExecutionException("Too many concurrent queries"));
+      return result;
+    }
+
+    long stopAt = System.nanoTime() + deadline.toNanos();
+    // Whoever sets started owns the permit: the worker releases it once the query has really
+    // stopped, or the completion callback releases it if the task was cancelled before it ran.
+    AtomicBoolean started = new AtomicBoolean();
+    Future<?> task;
+    try {
+      task = executor.submit(() -> {
+        if (!started.compareAndSet(false, true)) return;
+        TraversalBudget budget = TraversalBudget.unlimited()
+            .withDeadlineNanos(stopAt)
+            .withCancellation(() -> Thread.currentThread().isInterrupted());
+        try {
+          R value = query.run(budget);
+          if (budget.reason() == TraversalBudget.Reason.DEADLINE) {
+            result.completeExceptionally(new TimeoutException("Query exceeded its deadline of " + deadline));
+          } else if (budget.reason() == TraversalBudget.Reason.CANCELLED) {
+            result.cancel(false);
+          } else {
+            result.complete(value);
+          }
+        } catch (Throwable t) {
+          result.completeExceptionally(t);
+        } finally {
+          admission.release();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      admission.release();
+      result.completeExceptionally(e);
+      return result;
+    }
+
+    result.orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS);
+    result.whenComplete((value, error) -> {
+      if (error != null) task.cancel(true);
+      if (started.compareAndSet(false, true)) admission.release();
+    });
+    return result;
+  }
+
+  private static ExecutorService newDefaultExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "graph-query");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+}
@@ -0,0 +1,85 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class GraphQueryServiceTest {
+
+  @Test
+  public void testAnswersMatchPractice() throws Exception {
+    Professional b = new Professional("B", "Tech Solutions", 8, new HashSet<>());
+    Professional a = new Professional("A", "Other Corp", 5, new HashSet<>(Arrays.asList(b)));
+    Vertex<Integer> v1 = new Vertex<>(1);
+    Vertex<Integer> v2 = new Vertex<>(2);
+    v1.neighbors.add(v2);
+
+    try (GraphQueryService service = new GraphQueryService(4, Duration.ofSeconds(5))) {
+      assertTrue(service.hasExtendedConnectionAtCompany(a, "Tech Solutions").get());
+      assertFalse(service.hasExtendedConnectionAtCompany(a, "Missing Inc.").get());
+      assertFalse(service.hasExtendedConnectionAtCompany(null, "Tech Solutions").get());
+      assertFalse(service.twoWay(v1, v2).get());
+      v2.neighbors.add(v1);
+      assertTrue(service.twoWay(v1, v2).get());
+    }
+  }
+
+  @Test
+  public void testDeadlineStopsLongTraversal() {
+    // A long chain with no matching company has to be fully explored, which cannot finish in time.
+    Professional head = new Professional("P0", "Other Corp", 1, new HashSet<>());
+    Professional current = head;
+    for (int i = 1; i < 200_000; i++) {
+      Professional next = new Professional("P" + i, "Other Corp", 1, new HashSet<>());
+      current.getConnections().add(next);
+      current = next;
+    }
+
+    try (GraphQueryService service = new GraphQueryService(4, Duration.ofSeconds(5))) {
+      CompletableFuture<Boolean> answer = service.hasExtendedConnectionAtCompany(head, "Missing Inc.", Duration.ZERO);
+      ExecutionException error = assertThrows(ExecutionException.class, () -> answer.get(10, TimeUnit.SECONDS));
+      assertTrue(error.getCause() instanceof TimeoutException);
+    }
+  }
+
+  @Test
+  public void testAdmissionRejectsWhenFull() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    try (GraphQueryService service = new GraphQueryService(1, Duration.ofSeconds(5))) {
+      CompletableFuture<Boolean> blocker = service.submit(() -> release.await(5, TimeUnit.SECONDS), Duration.ofSeconds(5));
+      CompletableFuture<Boolean> rejected = service.hasExtendedConnectionAtCompany(null, "Any");
+      ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+      assertTrue(error.getCause() instanceof RejectedExecutionException);
+
+      release.countDown();
+      assertTrue(blocker.get());
+    }
+  }
+
+  @Test
+  public void testTimedOutQueryKeepsItsSlotUntilItStops() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    try (GraphQueryService service = new GraphQueryService(1, Duration.ofSeconds(5))) {
+      CompletableFuture<Boolean> stubborn = service.submit(() -> {
+        // Ignores interrupts, like a query without cooperative checks.
+        while (true) {
+          try {
+            return release.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            // keep waiting
+          }
+        }
+      }, Duration.ofMillis(20));
+      ExecutionException error = assertThrows(ExecutionException.class, () -> stubborn.get(5, TimeUnit.SECONDS));
+      assertTrue(error.getCause() instanceof TimeoutException);
+      assertEquals(0, service.availableSlots());
+      CompletableFuture<Boolean> rejected = service.hasExtendedConnectionAtCompany(null, "Any");
+      assertTrue(assertThrows(ExecutionException.class, rejected::get).getCause() instanceof RejectedExecutionException);
+
+      release.countDown();
+      long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (service.availableSlots() == 0 && System.nanoTime() < giveUp) Thread.sleep(1);
+      assertEquals(1, service.availableSlots());
+    }
+  }
+}
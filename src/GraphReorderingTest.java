@@ -0,0 +1,95 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class GraphReorderingTest {
+
+  // A 40 x 40 grid whose ids are shuffled, so its index order has no locality.
+  private static CsrGraph shuffledGrid(Random random) {
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 0; i < 1600; i++) ids.add(i * 7 - 3000);
+    Collections.shuffle(ids, random);
+    Map<Integer, Set<Integer>> graph = new LinkedHashMap<>();
+    for (int r = 0; r < 40; r++) {
+      for (int c = 0; c < 40; c++) {
+        Set<Integer> neighbors = new HashSet<>();
+        if (r + 1 < 40) neighbors.add(ids.get((r + 1) * 40 + c));
+        if (c + 1 < 40) neighbors.add(ids.get(r * 40 + c + 1));
+        graph.put(ids.get(r * 40 + c), neighbors);
+      }
+    }
+    return CsrGraph.fromMap(graph);
+  }
+
+  private static List<GraphReordering> allOrders(CsrGraph graph) {
+    return List.of(
+        GraphReordering.reverseCuthillMcKee(graph),
+        GraphReordering.degreeDescending(graph),
+        GraphReordering.bfsOrder(graph),
+        GraphReordering.gorderLite(graph, 5, 64));
+  }
+
+  @Test
+  public void testReorderingsArePermutations() {
+    CsrGraph graph = shuffledGrid(new Random(40));
+    for (GraphReordering reordering : allOrders(graph)) {
+      CsrGraph reordered = reordering.graph();
+      assertEquals(graph.vertexCount(), reordered.vertexCount());
+      assertEquals(graph.edgeCount(), reordered.edgeCount());
+      boolean[] seen = new boolean[graph.vertexCount()];
+      for (int v = 0; v < graph.vertexCount(); v++) {
+        int k = reordering.newIndex(v);
+        assertFalse(seen[k]);
+        seen[k] = true;
+        assertEquals(v, reordering.oldIndex(k));
+        assertEquals(graph.id(v), reordered.id(k));
+        assertEquals(new HashSet<>(graph.neighborIds(graph.id(v))), new HashSet<>(reordered.neighborIds(graph.id(v))));
+      }
+      assertEquals(graph.toMap(), reordered.toMap());
+    }
+  }
+
+  @Test
+  public void testQueriesUnchanged() {
+    Random random = new Random(1);
+    Map<Integer, Set<Integer>> map = new HashMap<>();
+    for (int v = 0; v < 300; v++) map.put(random.nextInt(2000) - 1000, new HashSet<>());
+    List<Integer> keys = new ArrayList<>(map.keySet());
+    for (int i = 0; i < 600; i++) {
+      map.get(keys.get(random.nextInt(keys.size()))).add(keys.get(random.nextInt(keys.size())));
+    }
+    CsrGraph graph = CsrGraph.fromMap(map);
+    for (GraphReordering reordering : allOrders(graph)) {
+      CsrGraph reordered = reordering.graph();
+      for (int i = 0; i < 30; i++) {
+        int a = keys.get(random.nextInt(keys.size()));
+        int b = keys.get(random.nextInt(keys.size()));
+        assertEquals(Practice.sortedReachable(map, a), CompactGraphs.sortedReachable(reordered, a));
+        assertEquals(CompactGraphs.oddVertices(graph, a), CompactGraphs.oddVertices(reordered, a));
+        assertEquals(Practice.positivePathExists(map, a, b), CompactGraphs.positivePathExists(reordered, a, b));
+      }
+    }
+  }
+
+  @Test
+  public void testLocalityImproves() {
+    CsrGraph graph = shuffledGrid(new Random(2));
+    // Shuffled, a typical edge spans about 2^8 indices; RCM and BFS bring that near 2^5.
+    double before = GraphReordering.averageLogGap(graph);
+    assertTrue(GraphReordering.averageLogGap(GraphReordering.reverseCuthillMcKee(graph).graph()) < before - 3);
+    assertTrue(GraphReordering.averageLogGap(GraphReordering.bfsOrder(graph).graph()) < before - 3);
+    assertTrue(GraphReordering.averageLogGap(GraphReordering.gorderLite(graph, 5, 64).graph()) < before - 2);
+  }
+
+  @Test
+  public void testDegreeDescendingPutsHubsFirst() {
+    Map<Integer, Set<Integer>> map = new HashMap<>();
+    map.put(1, new HashSet<>(Set.of(2)));
+    map.put(2, new HashSet<>());
+    map.put(3, new HashSet<>(Set.of(1, 2, 4)));
+    map.put(4, new HashSet<>(Set.of(3)));
+    CsrGraph reordered = GraphReordering.degreeDescending(CsrGraph.fromMap(map)).graph();
+    assertEquals(3, reordered.id(0));
+    assertEquals(4, reordered.id(3));
+  }
+}
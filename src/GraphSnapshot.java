@@ -0,0 +1,558 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshots of Vertex and Professional object graphs, for saving a built graph and
+ * loading it back quickly.
+ *
+ * Java serialization walks these cyclic structures recursively, so it is slow and overflows the
+ * stack on long chains. A snapshot instead numbers every object reachable from the roots with
+ * an iterative breadth-first walk and writes the graph as flat arrays, all values
+ * little-endian:
+ *
+ *   header      magic, format version, kind, object count n, root count, dictionary size d (6 ints),
+ *               edge count m (long)
+ *   dictionary  d strings, each a byte length and UTF-8 bytes
+ *   objects     n records: a data code for a Vertex; name code, company code and years of
+ *               experience for a Professional; -1 codes stand for null
+ *   degrees     n ints, the neighbor count of every object
+ *   targets     m ints, the object number of every neighbor, object by object
+ *   roots       the object numbers of the roots
+ *   checksum    CRC32 of everything before it (int)
+ *
+ * Names, companies and vertex data are dictionary-encoded, so each distinct string is stored
+ * once and loaded as one shared instance. Reading and writing stream through a small buffer
+ * over any NIO channel, and reading rebuilds the objects in two flat passes, so neither depth
+ * nor size is limited by the stack. The layout only changes with the format version, and a
+ * reader rejects versions it does not know.
+ *
+ * Vertex neighbor lists keep their order and repeats and are loaded as ArrayLists;
+ * Professional connections are loaded as HashSets.
+ *
+ * Nothing is sized from a count in the file until the data behind it has been seen: when the
+ * length of the input is known, as for files, the header counts are checked against it, and
+ * otherwise lists and strings grow as they are read. A corrupt count is therefore reported as
+ * an IllegalArgumentException rather than a huge allocation.
+ */
+public final class GraphSnapshot {
+  static final int MAGIC = 0x504E5347;
+  static final int VERSION = 1;
+  static final int VERTICES = 1;
+  static final int PROFESSIONALS = 2;
+  private static final int BUFFER_BYTES = 1 << 16;
+  /** The most elements reserved up front for a list whose length comes from the file. */
+  private static final int INITIAL_CAPACITY = 1 << 12;
+
+  private GraphSnapshot() {
+  }
+
+  /**
+   * Writes every vertex reachable from the roots to a file.
+   *
+   * @param roots the vertices to save, with everything reachable from them
+   * @param encoder turns vertex data into a string
+   * @param path the file to create or replace
+   * @throws IOException if the file cannot be written
+   */
+  public static <T> void writeVertices(List<Vertex<T>> roots, Function<? super T, String> encoder, Path path)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      writeVertices(roots, encoder, channel);
+    }
+  }
+
+  /**
+   * Writes every vertex reachable from the roots to a channel, which is left open.
+   *
+   * @param roots the vertices to save, with everything reachable from them
+   * @param encoder turns vertex data into a string
+   * @param channel the channel to write to
+   * @throws IOException if the channel cannot be written
+   */
+  public static <T> void writeVertices(List<Vertex<T>> roots, Function<? super T, String> encoder,
+      WritableByteChannel channel) throws IOException {
+    Numbering<Vertex<T>> numbering = new Numbering<>(roots);
+    Dictionary dictionary = new Dictionary();
+    List<Vertex<T>> objects = numbering.objects;
+    for (int i = 0; i < objects.size(); i++) {
+      numbering.visitAll(objects.get(i).neighbors);
+    }
+    int[] data = new int[objects.size()];
+    for (int i = 0; i < data.length; i++) {
+      T value = objects.get(i).data;
+      data[i] = dictionary.code(value == null ? null : encoder.apply(value));
+    }
+
+    Out out = new Out(channel);
+    writeHeader(out, VERTICES, numbering, dictionary);
+    for (int code : data) {
+      out.putInt(code);
+    }
+    for (Vertex<T> vertex : objects) {
+      out.putInt(vertex.neighbors.size());
+    }
+    for (Vertex<T> vertex : objects) {
+      for (Vertex<T> neighbor : vertex.neighbors) {
+        out.putInt(numbering.number(neighbor));
+      }
+    }
+    writeRoots(out, numbering, roots);
+    out.finish();
+  }
+
+  /**
+   * Reads the roots of a vertex snapshot from a file, with everything reachable from them.
+   *
+   * @param path the file to read
+   * @param decoder turns a string written by the encoder back into vertex data
+   * @return the roots, in the order they were written
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a valid vertex snapshot
+   */
+  public static <T> List<Vertex<T>> readVertices(Path path, Function<String, ? extends T> decoder) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return readVertices(channel, decoder);
+    }
+  }
+
+  /**
+   * Reads the roots of a vertex snapshot from a channel, with everything reachable from them.
+   *
+   * @param channel the channel to read from, positioned at the start of the snapshot
+   * @param decoder turns a string written by the encoder back into vertex data
+   * @return the roots, in the order they were written
+   * @throws IOException if the channel cannot be read
+   * @throws IllegalArgumentException if the data is not a valid vertex snapshot
+   */
+  public static <T> List<Vertex<T>> readVertices(ReadableByteChannel channel, Function<String, ? extends T> decoder)
+      throws IOException {
+    In in = new In(channel);
+    Header header = readHeader(in, VERTICES);
+    List<T> values = new ArrayList<>(header.dictionary.length);
+    for (String value : header.dictionary) {
+      values.add(decoder.apply(value));
+    }
+    List<Vertex<T>> objects = new ArrayList<>(initialCapacity(header.objectCount));
+    for (int i = 0; i < header.objectCount; i++) {
+      int code = in.getCode(values.size());
+      objects.add(new Vertex<>(code < 0 ? null : values.get(code)));
+    }
+    int[] degrees = readDegrees(in, header);
+    for (int i = 0; i < header.objectCount; i++) {
+      List<Vertex<T>> neighbors = new ArrayList<>(initialCapacity(degrees[i]));
+      for (int k = 0; k < degrees[i]; k++) {
+        neighbors.add(objects.get(in.getIndex(header.objectCount)));
+      }
+      objects.get(i).neighbors = neighbors;
+    }
+    return readRoots(in, header, objects);
+  }
+
+  /**
+   * Writes every professional reachable from the roots to a file.
+   *
+   * @param roots the professionals to save, with everyone they are connected to
+   * @param path the file to create or replace
+   * @throws IOException if the file cannot be written
+   */
+  public static void writeProfessionals(List<Professional> roots, Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      writeProfessionals(roots, channel);
+    }
+  }
+
+  /**
+   * Writes every professional reachable from the roots to a channel, which is left open.
+   *
+   * @param roots the professionals to save, with everyone they are connected to
+   * @param channel the channel to write to
+   * @throws IOException if the channel cannot be written
+   */
+  public static void writeProfessionals(List<Professional> roots, WritableByteChannel channel) throws IOException {
+    Numbering<Professional> numbering = new Numbering<>(roots);
+    Dictionary dictionary = new Dictionary();
+    List<Professional> objects = numbering.objects;
+    for (int i = 0; i < objects.size(); i++) {
+      numbering.visitAll(objects.get(i).getConnections());
+    }
+    int[] records = new int[objects.size() * 3];
+    for (int i = 0; i < objects.size(); i++) {
+      Professional person = objects.get(i);
+      records[3 * i] = dictionary.code(person.getName());
+      records[3 * i + 1] = dictionary.code(person.getCompany());
+      records[3 * i + 2] = person.getYearsOfExperience();
+    }
+
+    Out out = new Out(channel);
+    writeHeader(out, PROFESSIONALS, numbering, dictionary);
+    for (int value : records) {
+      out.putInt(value);
+    }
+    for (Professional person : objects) {
+      out.putInt(person.getConnections().size());
+    }
+    for (Professional person : objects) {
+      for (Professional connection : person.getConnections()) {
+        out.putInt(numbering.number(connection));
+      }
+    }
+    writeRoots(out, numbering, roots);
+    out.finish();
+  }
+
+  /**
+   * Reads the roots of a professional snapshot from a file, with everyone they are connected to.
+   *
+   * @param path the file to read
+   * @return the roots, in the order they were written
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a valid professional snapshot
+   */
+  public static List<Professional> readProfessionals(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return readProfessionals(channel);
+    }
+  }
+
+  /**
+   * Reads the roots of a professional snapshot from a channel, with everyone they are connected
+   * to.
+   *
+   * @param channel the channel to read from, positioned at the start of the snapshot
+   * @return the roots, in the order they were written
+   * @throws IOException if the channel cannot be read
+   * @throws IllegalArgumentException if the data is not a valid professional snapshot
+   */
+  public static List<Professional> readProfessionals(ReadableByteChannel channel) throws IOException {
+    In in = new In(channel);
+    Header header = readHeader(in, PROFESSIONALS);
+    String[] dictionary = header.dictionary;
+    List<Professional> objects = new ArrayList<>(initialCapacity(header.objectCount));
+    for (int i = 0; i < header.objectCount; i++) {
+      int name = in.getCode(dictionary.length);
+      int company = in.getCode(dictionary.length);
+      int years = in.getInt();
+      objects.add(new Professional(name < 0 ? null : dictionary[name], company < 0 ? null : dictionary[company], years,
+          new HashSet<>()));
+    }
+    int[] degrees = readDegrees(in, header);
+    for (int i = 0; i < header.objectCount; i++) {
+      Set<Professional> connections = objects.get(i).getConnections();
+      for (int k = 0; k < degrees[i]; k++) {
+        connections.add(objects.get(in.getIndex(header.objectCount)));
+      }
+    }
+    return readRoots(in, header, objects);
+  }
+
+  private static void writeHeader(Out out, int kind, Numbering<?> numbering, Dictionary dictionary) throws IOException {
+    out.putInt(MAGIC);
+    out.putInt(VERSION);
+    out.putInt(kind);
+    out.putInt(numbering.objects.size());
+    out.putInt(numbering.rootCount);
+    out.putInt(dictionary.values.size());
+    out.putLong(numbering.edgeCount);
+    for (String value : dictionary.values) {
+      out.putString(value);
+    }
+  }
+
+  private static <T> void writeRoots(Out out, Numbering<T> numbering, List<T> roots) throws IOException {
+    for (T root : roots) {
+      out.putInt(numbering.number(root));
+    }
+  }
+
+  private static Header readHeader(In in, int kind) throws IOException {
+    if (in.getInt() != MAGIC) throw new IllegalArgumentException("Not a graph snapshot");
+    int version = in.getInt();
+    if (version != VERSION) throw new IllegalArgumentException("Unsupported graph snapshot version " + version);
+    if (in.getInt() != kind) {
+      throw new IllegalArgumentException("Not a " + (kind == VERTICES ? "vertex" : "professional") + " snapshot");
+    }
+    Header header = new Header();
+    header.objectCount = in.getInt();
+    header.rootCount = in.getInt();
+    int dictionarySize = in.getInt();
+    header.edgeCount = in.getLong();
+    if (header.objectCount < 0 || header.rootCount < 0 || dictionarySize < 0 || header.edgeCount < 0
+        || header.edgeCount > Long.MAX_VALUE / 8) {
+      throw new IllegalArgumentException("Corrupt graph snapshot header");
+    }
+    // The smallest snapshot these counts allow: empty strings, then fixed-size records.
+    int recordBytes = kind == VERTICES ? 4 : 12;
+    in.expect(4L * dictionarySize + (recordBytes + 4L) * header.objectCount + 4 * header.edgeCount
+        + 4L * header.rootCount + 4);
+    List<String> dictionary = new ArrayList<>(initialCapacity(dictionarySize));
+    for (int i = 0; i < dictionarySize; i++) {
+      dictionary.add(in.getString());
+    }
+    header.dictionary = dictionary.toArray(new String[0]);
+    return header;
+  }
+
+  private static int initialCapacity(long count) {
+    return (int) Math.min(count, INITIAL_CAPACITY);
+  }
+
+  private static int[] readDegrees(In in, Header header) throws IOException {
+    // The object records have been read, so objectCount is backed by data.
+    int[] degrees = new int[header.objectCount];
+    long total = 0;
+    for (int i = 0; i < degrees.length; i++) {
+      degrees[i] = in.getInt();
+      if (degrees[i] < 0) throw new IllegalArgumentException("Corrupt graph snapshot degree");
+      total += degrees[i];
+    }
+    if (total != header.edgeCount) throw new IllegalArgumentException("Corrupt graph snapshot edge count");
+    return degrees;
+  }
+
+  private static <T> List<T> readRoots(In in, Header header, List<T> objects) throws IOException {
+    List<T> roots = new ArrayList<>(initialCapacity(header.rootCount));
+    for (int i = 0; i < header.rootCount; i++) {
+      roots.add(objects.get(in.getIndex(header.objectCount)));
+    }
+    in.verifyChecksum();
+    return roots;
+  }
+
+  private static final class Header {
+    int objectCount;
+    int rootCount;
+    long edgeCount;
+    String[] dictionary;
+  }
+
+  /**
+   * Numbers objects by identity in breadth-first order: the roots first, then the neighbors
+   * passed to visitAll as each object is processed in number order.
+   */
+  private static final class Numbering<T> {
+    final List<T> objects = new ArrayList<>();
+    final Map<T, Integer> numbers = new IdentityHashMap<>();
+    final int rootCount;
+    long edgeCount;
+
+    Numbering(List<T> roots) {
+      this.rootCount = roots.size();
+      for (T root : roots) {
+        visit(root);
+      }
+    }
+
+    void visit(T object) {
+      if (object == null) throw new NullPointerException("Graph snapshots cannot hold null objects");
+      if (!numbers.containsKey(object)) {
+        numbers.put(object, objects.size());
+        objects.add(object);
+      }
+    }
+
+    void visitAll(Collection<T> neighbors) {
+      for (T neighbor : neighbors) {
+        visit(neighbor);
+      }
+      edgeCount += neighbors.size();
+    }
+
+    int number(T object) {
+      return numbers.get(object);
+    }
+  }
+
+  private static final class Dictionary {
+    final List<String> values = new ArrayList<>();
+    final Map<String, Integer> codes = new HashMap<>();
+
+    int code(String value) {
+      if (value == null) return -1;
+      Integer code = codes.get(value);
+      if (code == null) {
+        code = values.size();
+        codes.put(value, code);
+        values.add(value);
+      }
+      return code;
+    }
+  }
+
+  /**
+   * Buffered little-endian writer that checksums everything it writes.
+   */
+  private static final class Out {
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 crc = new CRC32();
+
+    Out(WritableByteChannel channel) {
+      this.channel = channel;
+    }
+
+    void putInt(int value) throws IOException {
+      if (buffer.remaining() < 4) flush();
+      buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+      if (buffer.remaining() < 8) flush();
+      buffer.putLong(value);
+    }
+
+    void putString(String value) throws IOException {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      putInt(bytes.length);
+      for (int at = 0; at < bytes.length; ) {
+        if (!buffer.hasRemaining()) flush();
+        int length = Math.min(buffer.remaining(), bytes.length - at);
+        buffer.put(bytes, at, length);
+        at += length;
+      }
+    }
+
+    void finish() throws IOException {
+      flush();
+      buffer.putInt((int) crc.getValue());
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      crc.update(buffer.duplicate());
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+
+  /**
+   * Buffered little-endian reader that checksums everything it reads and treats running out of
+   * data as a truncated snapshot. Bytes are checksummed a buffer at a time, from unchecked up to
+   * the read position. For seekable channels it also tracks how many bytes are left unread, so
+   * that counts can be checked with expect before anything is sized from them.
+   */
+  private static final class In {
+    private static final long UNKNOWN = -1;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 crc = new CRC32();
+    private int unchecked;
+    private long unread;
+
+    In(ReadableByteChannel channel) throws IOException {
+      this.channel = channel;
+      if (channel instanceof SeekableByteChannel) {
+        SeekableByteChannel seekable = (SeekableByteChannel) channel;
+        this.unread = Math.max(0, seekable.size() - seekable.position());
+      } else {
+        this.unread = UNKNOWN;
+      }
+      buffer.flip();
+    }
+
+    private void require(int bytes) throws IOException {
+      if (buffer.remaining() >= bytes) return;
+      checksumRead();
+      buffer.compact();
+      while (buffer.position() < bytes) {
+        int read = channel.read(buffer);
+        if (read < 0) throw new IllegalArgumentException("Graph snapshot is truncated");
+        if (unread != UNKNOWN) unread = Math.max(0, unread - read);
+      }
+      buffer.flip();
+      unchecked = 0;
+    }
+
+    /**
+     * Checks that at least the given number of bytes is left, when the length of the input is
+     * known.
+     */
+    void expect(long bytes) {
+      if (unread != UNKNOWN && (bytes < 0 || bytes > buffer.remaining() + unread)) {
+        throw new IllegalArgumentException("Graph snapshot is truncated");
+      }
+    }
+
+    private void checksumRead() {
+      ByteBuffer read = buffer.duplicate();
+      read.limit(buffer.position()).position(unchecked);
+      crc.update(read);
+      unchecked = buffer.position();
+    }
+
+    int getInt() throws IOException {
+      require(4);
+      return buffer.getInt();
+    }
+
+    long getLong() throws IOException {
+      require(8);
+      return buffer.getLong();
+    }
+
+    /** Reads a dictionary code, which is -1 or below size. */
+    int getCode(int size) throws IOException {
+      int code = getInt();
+      if (code < -1 || code >= size) throw new IllegalArgumentException("Corrupt graph snapshot dictionary code");
+      return code;
+    }
+
+    /** Reads an object number, which is below count. */
+    int getIndex(int count) throws IOException {
+      int index = getInt();
+      if (index < 0 || index >= count) throw new IllegalArgumentException("Corrupt graph snapshot object number");
+      return index;
+    }
+
+    String getString() throws IOException {
+      int length = getInt();
+      if (length < 0) throw new IllegalArgumentException("Corrupt graph snapshot string");
+      expect(length);
+      // Grow the array as bytes arrive, so a corrupt length on a stream ends as a truncation.
+      byte[] bytes = new byte[Math.min(length, BUFFER_BYTES)];
+      for (int at = 0; at < length; ) {
+        require(1);
+        if (at == bytes.length) bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * at));
+        int chunk = Math.min(Math.min(buffer.remaining(), length - at), bytes.length - at);
+        buffer.get(bytes, at, chunk);
+        at += chunk;
+      }
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    void verifyChecksum() throws IOException {
+      require(4);
+      checksumRead();
+      int stored = buffer.getInt();
+      if (stored != (int) crc.getValue()) throw new IllegalArgumentException("Graph snapshot checksum mismatch");
+    }
+  }
+}
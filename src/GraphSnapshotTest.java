@@ -0,0 +1,149 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class GraphSnapshotTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void testVertexRoundTripPreservesStructure() throws IOException {
+    Vertex<Integer> a = new Vertex<>(1);
+    Vertex<Integer> b = new Vertex<>(2);
+    Vertex<Integer> c = new Vertex<>(3);
+    Vertex<Integer> d = new Vertex<>(null);
+    a.neighbors.addAll(List.of(b, c, b));
+    b.neighbors.add(b);
+    c.neighbors.addAll(List.of(a, d));
+    Vertex<Integer> other = new Vertex<>(4);
+    other.neighbors.add(c);
+
+    Path file = tempDir.resolve("vertices.snap");
+    GraphSnapshot.writeVertices(List.of(a, other), String::valueOf, file);
+    List<Vertex<Integer>> roots = GraphSnapshot.readVertices(file, Integer::valueOf);
+
+    assertEquals(2, roots.size());
+    Vertex<Integer> a2 = roots.get(0);
+    assertEquals(1, a2.data);
+    assertEquals(List.of(2, 3, 2), a2.neighbors.stream().map(v -> v.data).toList());
+    Vertex<Integer> b2 = a2.neighbors.get(0);
+    assertSame(b2, a2.neighbors.get(2));
+    assertSame(b2, b2.neighbors.get(0));
+    Vertex<Integer> c2 = a2.neighbors.get(1);
+    assertSame(a2, c2.neighbors.get(0));
+    assertNull(c2.neighbors.get(1).data);
+    assertSame(c2, roots.get(1).neighbors.get(0));
+    assertEquals(4, roots.get(1).data);
+  }
+
+  @Test
+  public void testLongChainsDoNotOverflowTheStack() throws IOException {
+    int n = 300_000;
+    Vertex<String> head = new Vertex<>("v0");
+    Vertex<String> tail = head;
+    for (int i = 1; i < n; i++) {
+      Vertex<String> next = new Vertex<>("v" + i);
+      tail.neighbors.add(next);
+      tail = next;
+    }
+    Path file = tempDir.resolve("chain.snap");
+    GraphSnapshot.writeVertices(List.of(head), s -> s, file);
+    Vertex<String> loaded = GraphSnapshot.readVertices(file, s -> s).get(0);
+    for (int i = 0; i < n; i++) {
+      assertEquals("v" + i, loaded.data);
+      if (i + 1 < n) loaded = loaded.neighbors.get(0);
+    }
+    assertTrue(loaded.neighbors.isEmpty());
+  }
+
+  @Test
+  public void testProfessionalRoundTripSharesDictionaryStrings() throws IOException {
+    Professional alice = new Professional("Alice", "Acme", 5, new HashSet<>());
+    Professional bob = new Professional("Bob", new String("Acme"), 3, new HashSet<>());
+    Professional carol = new Professional("Carol", "Globex", 10, new HashSet<>());
+    Professional dave = new Professional("Dave", null, 1, new HashSet<>());
+    alice.getConnections().addAll(List.of(bob, carol));
+    bob.getConnections().add(alice);
+    carol.getConnections().addAll(List.of(alice, dave));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    GraphSnapshot.writeProfessionals(List.of(alice), Channels.newChannel(bytes));
+    List<Professional> roots = GraphSnapshot.readProfessionals(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+
+    Professional alice2 = roots.get(0);
+    assertEquals("Alice", alice2.getName());
+    assertEquals(5, alice2.getYearsOfExperience());
+    Map<String, Professional> byName = new HashMap<>();
+    for (Professional p : alice2.getConnections()) byName.put(p.getName(), p);
+    assertEquals(Set.of("Bob", "Carol"), byName.keySet());
+    assertSame(alice2.getCompany(), byName.get("Bob").getCompany());
+    assertEquals(Set.of(alice2), byName.get("Bob").getConnections());
+    Professional dave2 = byName.get("Carol").getConnections().stream().filter(p -> p != alice2).findFirst().get();
+    assertEquals("Dave", dave2.getName());
+    assertNull(dave2.getCompany());
+    assertEquals(10, byName.get("Carol").getYearsOfExperience());
+  }
+
+  @Test
+  public void testRejectsCorruptAndMismatchedSnapshots() throws IOException {
+    Vertex<Integer> a = new Vertex<>(1);
+    a.neighbors.add(new Vertex<>(2));
+    Path file = tempDir.resolve("small.snap");
+    GraphSnapshot.writeVertices(List.of(a), String::valueOf, file);
+    byte[] good = Files.readAllBytes(file);
+
+    byte[] flipped = good.clone();
+    flipped[flipped.length - 9] ^= 1;
+    Files.write(file, flipped);
+    assertThrows(IllegalArgumentException.class, () -> GraphSnapshot.readVertices(file, Integer::valueOf));
+
+    Files.write(file, Arrays.copyOf(good, good.length - 2));
+    assertThrows(IllegalArgumentException.class, () -> GraphSnapshot.readVertices(file, Integer::valueOf));
+
+    Files.write(file, good);
+    assertThrows(IllegalArgumentException.class, () -> GraphSnapshot.readProfessionals(file));
+    assertEquals(2, GraphSnapshot.readVertices(file, Integer::valueOf).get(0).neighbors.get(0).data);
+  }
+
+  @Test
+  public void testRejectsCorruptHeaderCountsWithoutAllocatingThem() throws IOException {
+    Vertex<Integer> a = new Vertex<>(1);
+    a.neighbors.add(new Vertex<>(2));
+    Path file = tempDir.resolve("counts.snap");
+    GraphSnapshot.writeVertices(List.of(a), String::valueOf, file);
+    byte[] good = Files.readAllBytes(file);
+
+    // The high bytes of the object count, root count, dictionary size, edge count and first
+    // string length.
+    for (int offset : new int[] {15, 19, 23, 31, 35}) {
+      byte[] corrupt = good.clone();
+      corrupt[offset] = 0x7f;
+      Files.write(file, corrupt);
+      assertThrows(IllegalArgumentException.class, () -> GraphSnapshot.readVertices(file, Integer::valueOf),
+          "offset " + offset);
+      assertThrows(IllegalArgumentException.class, () -> GraphSnapshot.readVertices(
+          Channels.newChannel(new ByteArrayInputStream(corrupt)), Integer::valueOf), "stream, offset " + offset);
+    }
+
+    Professional alice = new Professional("Alice", "Acme", 5, new HashSet<>());
+    Path people = tempDir.resolve("people.snap");
+    GraphSnapshot.writeProfessionals(List.of(alice), people);
+    byte[] goodPeople = Files.readAllBytes(people);
+    for (int offset : new int[] {15, 23, 35}) {
+      byte[] corrupt = goodPeople.clone();
+      corrupt[offset] = 0x7f;
+      Files.write(people, corrupt);
+      assertThrows(IllegalArgumentException.class, () -> GraphSnapshot.readProfessionals(people), "offset " + offset);
+      assertThrows(IllegalArgumentException.class, () -> GraphSnapshot.readProfessionals(
+          Channels.newChannel(new ByteArrayInputStream(corrupt))), "stream, offset " + offset);
+    }
+  }
+}
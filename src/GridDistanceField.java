@@ -0,0 +1,144 @@
+import java.util.Arrays;
+
+/**
+ * The number of moves from every cell of a board to the nearest of a set of goal cells.
+ *
+ * Moves follow Practice.possibleMoves: from a cell a player may step by any of the given
+ * directions, as long as it stays on the board and does not land on an 'X'. The field is
+ * computed by one breadth-first search started from all goals at once and run against the
+ * directions, so each cell is settled once no matter how many goals there are; afterwards every
+ * lookup is a single array read. Like possibleMoves, the field never checks the cell a player
+ * stands on, so an 'X' cell gets a distance if a player placed there could move out.
+ *
+ * The board is assumed rectangular, as nextMoves assumes.
+ */
+public final class GridDistanceField {
+  /**
+   * The distance of a cell from which no goal can be reached.
+   */
+  public static final int UNREACHABLE = -1;
+
+  private final int rows;
+  private final int cols;
+  private final int[] distance;
+  private final int[][] directions;
+
+  private GridDistanceField(int rows, int cols, int[] distance, int[][] directions) {
+    this.rows = rows;
+    this.cols = cols;
+    this.distance = distance;
+    this.directions = directions;
+  }
+
+  /**
+   * Computes the distance field of a board.
+   *
+   * @param board a rectangular array where 'X' represent an impassible location
+   * @param goals the [row, column] goal cells, all on the board
+   * @param directions an array of [row, column] possible directions
+   * @return the distance field
+   */
+  public static GridDistanceField compute(char[][] board, int[][] goals, int[][] directions) {
+    int rows = board.length;
+    int cols = rows == 0 ? 0 : board[0].length;
+    int[] distance = new int[rows * cols];
+    Arrays.fill(distance, UNREACHABLE);
+    int[] queue = new int[rows * cols];
+    int head = 0;
+    int tail = 0;
+    for (int[] goal : goals) {
+      int cell = goal[0] * cols + goal[1];
+      if (distance[cell] == UNREACHABLE) {
+        distance[cell] = 0;
+        queue[tail++] = cell;
+      }
+    }
+
+    while (head < tail) {
+      int cell = queue[head++];
+      int r = cell / cols;
+      int c = cell % cols;
+      // Only a cell that can be entered extends paths backwards.
+      if (board[r][c] == 'X') continue;
+      for (int[] direction : directions) {
+        int pr = r - direction[0];
+        int pc = c - direction[1];
+        if (pr < 0 || pr >= rows || pc < 0 || pc >= cols) continue;
+        int previous = pr * cols + pc;
+        if (distance[previous] != UNREACHABLE) continue;
+        distance[previous] = distance[cell] + 1;
+        queue[tail++] = previous;
+      }
+    }
+    return new GridDistanceField(rows, cols, distance, directions);
+  }
+
+  /**
+   * Returns the number of moves from a cell to the nearest goal.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return the distance, or UNREACHABLE
+   */
+  public int distance(int row, int col) {
+    return distance[row * cols + col];
+  }
+
+  /**
+   * Returns the number of moves from a [row, column] cell to the nearest goal.
+   *
+   * @param cell the [row, column] position
+   * @return the distance, or UNREACHABLE
+   */
+  public int distance(int[] cell) {
+    return distance(cell[0], cell[1]);
+  }
+
+  /**
+   * Returns whether a goal can be reached from a cell.
+   *
+   * @param cell the [row, column] position
+   * @return whether some goal is reachable
+   */
+  public boolean isReachable(int[] cell) {
+    return distance(cell) != UNREACHABLE;
+  }
+
+  /**
+   * Returns a move from the given cell that is one step closer to a goal: the first of the
+   * field's directions leading to a cell with a smaller distance.
+   *
+   * @param board the board the field was computed for
+   * @param cell the [row, column] position
+   * @return the [row, column] position to move to, or null at a goal or if no goal is reachable
+   */
+  public int[] nextStep(char[][] board, int[] cell) {
+    int d = distance(cell);
+    if (d == UNREACHABLE || d == 0) return null;
+    for (int[] direction : directions) {
+      int r = cell[0] + direction[0];
+      int c = cell[1] + direction[1];
+      if (r < 0 || r >= rows || c < 0 || c >= cols || board[r][c] == 'X') continue;
+      if (distance[r * cols + c] == d - 1) return new int[] {r, c};
+    }
+    return null;
+  }
+
+  /**
+   * Returns the number of rows.
+   *
+   * @return the number of rows
+   */
+  public int rows() {
+    return rows;
+  }
+
+  /**
+   * Returns the number of columns.
+   *
+   * @return the number of columns
+   */
+  public int cols() {
+    return cols;
+  }
+}
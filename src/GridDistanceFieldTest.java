@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class GridDistanceFieldTest {
+  private static final int[][] FOUR = {{0, 1}, {-1, 0}, {1, 0}, {0, -1}};
+  private static final int[][] ODD = {{0, 1}, {-1, 0}, {1, 0}, {1, -1}};
+
+  private static char[][] randomBoard(Random random, int rows, int cols) {
+    char[][] board = new char[rows][cols];
+    for (char[] row : board) {
+      for (int c = 0; c < cols; c++) row[c] = random.nextInt(4) == 0 ? 'X' : ' ';
+    }
+    return board;
+  }
+
+  // Forward BFS with nextMoves from one cell, as a reference.
+  private static int bfs(char[][] board, int[] start, Set<List<Integer>> goals, int[][] directions) {
+    Map<List<Integer>, Integer> seen = new HashMap<>();
+    Deque<int[]> queue = new ArrayDeque<>();
+    seen.put(List.of(start[0], start[1]), 0);
+    queue.add(start);
+    while (!queue.isEmpty()) {
+      int[] cell = queue.poll();
+      int d = seen.get(List.of(cell[0], cell[1]));
+      if (goals.contains(List.of(cell[0], cell[1]))) return d;
+      for (int[] move : Practice.nextMoves(board, cell, directions)) {
+        if (seen.putIfAbsent(List.of(move[0], move[1]), d + 1) == null) queue.add(move);
+      }
+    }
+    return GridDistanceField.UNREACHABLE;
+  }
+
+  @Test
+  public void testMatchesForwardSearch() {
+    Random random = new Random(43);
+    for (int[][] directions : List.of(FOUR, ODD)) {
+      char[][] board = randomBoard(random, 15, 12);
+      int[][] goals = {{0, 0}, {14, 11}, {7, 3}};
+      Set<List<Integer>> goalSet = new HashSet<>();
+      for (int[] g : goals) goalSet.add(List.of(g[0], g[1]));
+      GridDistanceField field = GridDistanceField.compute(board, goals, directions);
+      for (int r = 0; r < 15; r++) {
+        for (int c = 0; c < 12; c++) {
+          assertEquals(bfs(board, new int[] {r, c}, goalSet, directions), field.distance(r, c), r + "," + c);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testNextStepWalksToGoal() {
+    char[][] board = {
+        {' ', ' ', 'X'},
+        {'X', ' ', ' '},
+        {' ', ' ', ' '}
+    };
+    GridDistanceField field = GridDistanceField.compute(board, new int[][] {{0, 0}}, FOUR);
+    int[] cell = {2, 2};
+    assertEquals(4, field.distance(cell));
+    for (int steps = 4; steps > 0; steps--) {
+      cell = field.nextStep(board, cell);
+      assertEquals(steps - 1, field.distance(cell));
+    }
+    assertNull(field.nextStep(board, cell));
+    assertArrayEquals(new int[] {0, 0}, cell);
+  }
+
+  @Test
+  public void testCacheKeys() {
+    char[][] board = randomBoard(new Random(1), 10, 10);
+    DistanceFieldCache cache = new DistanceFieldCache(2);
+    GridDistanceField first = cache.get(board, 1, new int[][] {{0, 0}, {5, 5}}, FOUR);
+    assertSame(first, cache.get(board, 1, new int[][] {{5, 5}, {0, 0}, {5, 5}}, FOUR));
+    assertEquals(1, cache.hits());
+
+    board[1][1] = board[1][1] == 'X' ? ' ' : 'X';
+    GridDistanceField edited = cache.get(board, 2, new int[][] {{0, 0}, {5, 5}}, FOUR);
+    assertNotSame(first, edited);
+    assertNotSame(edited, cache.get(board, 2, new int[][] {{0, 0}, {5, 5}}, ODD));
+    // Capacity 2: the version 1 field was evicted.
+    assertNotSame(first, cache.get(board, 1, new int[][] {{0, 0}, {5, 5}}, FOUR));
+    assertEquals(4, cache.misses());
+
+    cache.invalidate(board);
+    assertNotSame(edited, cache.get(board, 2, new int[][] {{0, 0}, {5, 5}}, FOUR));
+  }
+}
@@ -0,0 +1,67 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A path found on a board by one of the grid pathfinders, with the work it took to find it.
+ */
+public final class GridPath {
+  private final List<int[]> cells;
+  private final double cost;
+  private final int expanded;
+
+  GridPath(List<int[]> cells, double cost, int expanded) {
+    this.cells = cells;
+    this.cost = cost;
+    this.expanded = expanded;
+  }
+
+  static GridPath notFound(int expanded) {
+    return new GridPath(new ArrayList<>(), Double.POSITIVE_INFINITY, expanded);
+  }
+
+  /**
+   * Returns whether a path was found.
+   *
+   * @return whether the goal is reachable
+   */
+  public boolean isFound() {
+    return !cells.isEmpty();
+  }
+
+  /**
+   * Returns every cell of the path as [row, column] pairs, from the start to the goal
+   * inclusive, each a single move from the one before.
+   *
+   * @return the cells, or an empty list if no path was found
+   */
+  public List<int[]> cells() {
+    return cells;
+  }
+
+  /**
+   * Returns the cost of the path under the pathfinder's cost model.
+   *
+   * @return the cost, or Double.POSITIVE_INFINITY if no path was found
+   */
+  public double cost() {
+    return cost;
+  }
+
+  /**
+   * Returns the number of moves on the path.
+   *
+   * @return cells().size() - 1, or -1 if no path was found
+   */
+  public int moves() {
+    return cells.size() - 1;
+  }
+
+  /**
+   * Returns how many search nodes were expanded, the measure of search effort.
+   *
+   * @return the number of expanded nodes
+   */
+  public int expanded() {
+    return expanded;
+  }
+}
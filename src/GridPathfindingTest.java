@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class GridPathfindingTest {
+  private static final int[][] FOUR = {{0, 1}, {-1, 0}, {1, 0}, {0, -1}};
+  private static final int[][] EIGHT = {{0, 1}, {-1, 0}, {1, 0}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+  private static char[][] randomBoard(Random random, int rows, int cols, int wallPercent) {
+    char[][] board = new char[rows][cols];
+    for (char[] row : board) {
+      for (int c = 0; c < cols; c++) row[c] = random.nextInt(100) < wallPercent ? 'X' : ' ';
+    }
+    return board;
+  }
+
+  // Dijkstra over nextMoves, with octile costs when octile is set; the reference for both searches.
+  private static double reference(char[][] board, int[] start, int[] goal, int[][] directions, boolean octile) {
+    int cols = board[0].length;
+    WeightedGraph.Builder builder = new WeightedGraph.Builder();
+    for (int r = 0; r < board.length; r++) {
+      for (int c = 0; c < cols; c++) {
+        builder.addVertex(r * cols + c);
+        for (int[] move : Practice.nextMoves(board, new int[] {r, c}, directions)) {
+          boolean diagonalMove = move[0] != r && move[1] != c;
+          builder.addEdge(r * cols + c, move[0] * cols + move[1], octile && diagonalMove ? Math.sqrt(2) : 1);
+        }
+      }
+    }
+    return ShortestPaths.dijkstra(builder.build(), start[0] * cols + start[1], ShortestPaths.ANY_VERTEX)
+        .distance(goal[0] * cols + goal[1]);
+  }
+
+  private static void assertValidPath(char[][] board, GridPath path, int[] start, int[] goal, int[][] directions) {
+    List<int[]> cells = path.cells();
+    assertArrayEquals(start, cells.get(0));
+    assertArrayEquals(goal, cells.get(cells.size() - 1));
+    for (int i = 1; i < cells.size(); i++) {
+      int[] to = cells.get(i);
+      assertTrue(Practice.nextMoves(board, cells.get(i - 1), directions).stream().anyMatch(m -> Arrays.equals(m, to)));
+    }
+  }
+
+  @Test
+  public void testJumpPointSearchIsOptimal() {
+    Random random = new Random(44);
+    for (int trial = 0; trial < 60; trial++) {
+      boolean diagonal = trial % 2 == 1;
+      int[][] directions = diagonal ? EIGHT : FOUR;
+      char[][] board = randomBoard(random, 5 + random.nextInt(20), 5 + random.nextInt(20), 10 + random.nextInt(30));
+      for (int q = 0; q < 10; q++) {
+        int[] start = {random.nextInt(board.length), random.nextInt(board[0].length)};
+        int[] goal = {random.nextInt(board.length), random.nextInt(board[0].length)};
+        double expected = reference(board, start, goal, directions, diagonal);
+        GridPath path = JumpPointSearch.findPath(board, start, goal, diagonal);
+        assertEquals(expected, path.cost(), 1e-9, "trial " + trial);
+        if (path.isFound()) assertValidPath(board, path, start, goal, directions);
+      }
+    }
+  }
+
+  @Test
+  public void testJumpPointSearchExpandsFewNodesOnOpenBoards() {
+    // Two long walls to get around, otherwise open.
+    char[][] board = randomBoard(new Random(1), 300, 300, 0);
+    for (int r = 0; r < 250; r++) board[r][100] = 'X';
+    for (int r = 50; r < 300; r++) board[r][200] = 'X';
+    for (boolean diagonal : new boolean[] {false, true}) {
+      GridPath path = JumpPointSearch.findPath(board, new int[] {0, 0}, new int[] {299, 299}, diagonal);
+      assertTrue(path.isFound());
+      assertTrue(path.expanded() < 100, "expanded " + path.expanded());
+    }
+  }
+
+  @Test
+  public void testHierarchicalPathsAreValidAndNearOptimal() {
+    Random random = new Random(45);
+    for (int trial = 0; trial < 60; trial++) {
+      boolean diagonal = trial % 2 == 1;
+      int[][] directions = diagonal ? EIGHT : FOUR;
+      char[][] board = randomBoard(random, 5 + random.nextInt(30), 5 + random.nextInt(30), random.nextInt(35));
+      HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(board, 2 + random.nextInt(8), diagonal);
+      for (int q = 0; q < 10; q++) {
+        int[] start = {random.nextInt(board.length), random.nextInt(board[0].length)};
+        int[] goal = {random.nextInt(board.length), random.nextInt(board[0].length)};
+        double expected = reference(board, start, goal, directions, false);
+        GridPath path = pathfinder.findPath(start, goal);
+        assertEquals(expected != Double.POSITIVE_INFINITY, path.isFound(), "trial " + trial);
+        if (!path.isFound()) continue;
+        assertValidPath(board, path, start, goal, directions);
+        assertEquals(path.moves(), path.cost());
+        assertTrue(path.cost() >= expected && path.cost() <= 2 * expected + 8, "trial " + trial);
+      }
+    }
+  }
+
+  @Test
+  public void testHierarchicalSearchTouchesFewCellsOnOpenBoards() {
+    char[][] board = randomBoard(new Random(2), 300, 300, 5);
+    board[0][0] = ' ';
+    board[299][299] = ' ';
+    int[] start = {0, 0};
+    int[] goal = {299, 299};
+    double optimal = reference(board, start, goal, FOUR, false);
+    GridPath path = new HierarchicalPathfinder(board, 10, false).findPath(start, goal);
+    assertTrue(path.isFound());
+    assertTrue(path.cost() <= optimal * 1.1, path.cost() + " vs " + optimal);
+    assertTrue(path.expanded() < 300 * 300 / 4, "expanded " + path.expanded());
+  }
+}
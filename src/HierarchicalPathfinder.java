@@ -0,0 +1,373 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hierarchical pathfinding (HPA*, Botea, Mueller and Schaeffer, 2004) on nextMoves boards.
+ *
+ * The board is cut into square clusters. Where two neighboring clusters touch, every maximal run
+ * of cells open on both sides forms an entrance, represented by one transition in its middle,
+ * or one at each end for runs of six or more. With diagonal moves, a diagonal crossing whose
+ * two cells are in no run gets a transition of its own, which also covers crossings at cluster
+ * corners. Transition cells are the nodes of an abstract graph with an edge for each crossing
+ * and, inside every cluster, an edge between each pair of its nodes that are connected within
+ * the cluster, weighted by the local distance. All of this is computed once in the constructor.
+ *
+ * A query connects the start and goal to the nodes of their own clusters, runs A* over the
+ * abstract graph, and refines each abstract edge into cells with a search confined to one
+ * cluster. Every search stays small, so queries on large open boards touch a tiny fraction of
+ * the cells. The path found is legal but not always shortest: it passes through transition
+ * cells, which typically costs a few percent over the optimum. A path is found whenever one
+ * exists.
+ *
+ * Moves follow possibleMoves with the four or eight unit directions, each move costing 1, so
+ * cost() counts nextMoves steps. The board is read once; build a new pathfinder after editing it.
+ */
+public final class HierarchicalPathfinder {
+  private final char[][] board;
+  private final int rows;
+  private final int cols;
+  private final int clusterSize;
+  private final int clusterCols;
+  private final int[][] moves;
+  private final IntIntHashMap nodeOf = new IntIntHashMap();
+  private int[] nodeCell = new int[16];
+  private int nodeCount;
+  private int[][] edgeTarget = new int[16][];
+  private int[][] edgeCost = new int[16][];
+  private int[] edgeCount = new int[16];
+  private final int[][] clusterNodes;
+
+  // Scratch space for searches confined to one cluster, indexed by local(cell); stamp marks the
+  // cells a search touched.
+  private final int[] stamp;
+  private final int[] localDistance;
+  private final int[] localParent;
+  private final int[] localQueue;
+  private int round;
+
+  /**
+   * Builds the abstraction of a board.
+   *
+   * @param board a rectangular array where 'X' represent an impassible location
+   * @param clusterSize the side length of a cluster, at least 2
+   * @param diagonal false for the four straight directions, true to add the four diagonals
+   */
+  public HierarchicalPathfinder(char[][] board, int clusterSize, boolean diagonal) {
+    if (clusterSize < 2) throw new IllegalArgumentException("clusterSize must be at least 2");
+    this.board = board;
+    this.rows = board.length;
+    this.cols = rows == 0 ? 0 : board[0].length;
+    this.clusterSize = clusterSize;
+    this.clusterCols = (cols + clusterSize - 1) / clusterSize;
+    int clusterRows = (rows + clusterSize - 1) / clusterSize;
+    this.moves = diagonal
+        ? new int[][] {{0, 1}, {-1, 0}, {1, 0}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}}
+        : new int[][] {{0, 1}, {-1, 0}, {1, 0}, {0, -1}};
+    this.stamp = new int[clusterSize * clusterSize];
+    this.localDistance = new int[clusterSize * clusterSize];
+    this.localParent = new int[clusterSize * clusterSize];
+    this.localQueue = new int[Math.min(rows * cols, clusterSize * clusterSize)];
+
+    // Entrances across vertical borders, then horizontal ones.
+    for (int x = clusterSize; x < cols; x += clusterSize) {
+      addEntrances(true, x, rows, diagonal);
+    }
+    for (int y = clusterSize; y < rows; y += clusterSize) {
+      addEntrances(false, y, cols, diagonal);
+    }
+
+    // Intra-cluster edges.
+    int[] clusterSizes = new int[clusterRows * clusterCols];
+    for (int u = 0; u < nodeCount; u++) {
+      clusterSizes[cluster(nodeCell[u])]++;
+    }
+    clusterNodes = new int[clusterSizes.length][];
+    for (int k = 0; k < clusterSizes.length; k++) {
+      clusterNodes[k] = new int[clusterSizes[k]];
+      clusterSizes[k] = 0;
+    }
+    for (int u = 0; u < nodeCount; u++) {
+      int k = cluster(nodeCell[u]);
+      clusterNodes[k][clusterSizes[k]++] = u;
+    }
+    for (int[] nodes : clusterNodes) {
+      for (int u : nodes) {
+        localSearch(nodeCell[u], -1);
+        for (int v : nodes) {
+          if (v != u && stamp[local(nodeCell[v])] == round) addEdge(u, v, localDistance[local(nodeCell[v])]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds the transitions across one border. For a vertical border at column line, a cell
+   * (i, line - 1) faces (i, line); for a horizontal one at row line, (line - 1, i) faces (line, i).
+   */
+  private void addEntrances(boolean vertical, int line, int length, boolean diagonal) {
+    int runStart = -1;
+    for (int i = 0; i <= length; i++) {
+      // Runs end at blocked pairs and at cluster boundaries along the border.
+      if (i < length && i % clusterSize == 0 && runStart >= 0) {
+        addRun(vertical, line, runStart, i - 1);
+        runStart = -1;
+      }
+      if (i < length && free(vertical, line - 1, i) && free(vertical, line, i)) {
+        if (runStart < 0) runStart = i;
+      } else if (runStart >= 0) {
+        addRun(vertical, line, runStart, i - 1);
+        runStart = -1;
+      }
+    }
+
+    if (!diagonal) return;
+    for (int i = 0; i < length; i++) {
+      for (int step = -1; step <= 1; step += 2) {
+        int j = i + step;
+        if (j < 0 || j >= length) continue;
+        // Horizontal borders leave corner crossings to the vertical border scan.
+        if (!vertical && i / clusterSize != j / clusterSize) continue;
+        if (free(vertical, line - 1, i) && free(vertical, line, j)
+            && !free(vertical, line, i) && !free(vertical, line - 1, j)) {
+          addTransition(cell(vertical, line - 1, i), cell(vertical, line, j));
+        }
+      }
+    }
+  }
+
+  private void addRun(boolean vertical, int line, int first, int last) {
+    if (last - first + 1 >= 6) {
+      addTransition(cell(vertical, line - 1, first), cell(vertical, line, first));
+      addTransition(cell(vertical, line - 1, last), cell(vertical, line, last));
+    } else {
+      int middle = (first + last) / 2;
+      addTransition(cell(vertical, line - 1, middle), cell(vertical, line, middle));
+    }
+  }
+
+  private int cell(boolean vertical, int across, int along) {
+    return vertical ? along * cols + across : across * cols + along;
+  }
+
+  private boolean free(boolean vertical, int across, int along) {
+    int cell = cell(vertical, across, along);
+    return board[cell / cols][cell % cols] != 'X';
+  }
+
+  private void addTransition(int a, int b) {
+    int u = node(a);
+    int v = node(b);
+    addEdge(u, v, 1);
+    addEdge(v, u, 1);
+  }
+
+  private int node(int cell) {
+    int u = nodeOf.get(cell, -1);
+    if (u >= 0) return u;
+    if (nodeCount == nodeCell.length) {
+      nodeCell = Arrays.copyOf(nodeCell, nodeCount * 2);
+      edgeTarget = Arrays.copyOf(edgeTarget, nodeCount * 2);
+      edgeCost = Arrays.copyOf(edgeCost, nodeCount * 2);
+      edgeCount = Arrays.copyOf(edgeCount, nodeCount * 2);
+    }
+    nodeCell[nodeCount] = cell;
+    edgeTarget[nodeCount] = new int[4];
+    edgeCost[nodeCount] = new int[4];
+    nodeOf.put(cell, nodeCount);
+    return nodeCount++;
+  }
+
+  private void addEdge(int u, int v, int cost) {
+    int m = edgeCount[u];
+    if (m == edgeTarget[u].length) {
+      edgeTarget[u] = Arrays.copyOf(edgeTarget[u], m * 2);
+      edgeCost[u] = Arrays.copyOf(edgeCost[u], m * 2);
+    }
+    edgeTarget[u][m] = v;
+    edgeCost[u][m] = cost;
+    edgeCount[u]++;
+  }
+
+  private int cluster(int cell) {
+    return (cell / cols / clusterSize) * clusterCols + (cell % cols) / clusterSize;
+  }
+
+  /**
+   * Returns the index of a cell within its cluster, for the local search scratch arrays.
+   */
+  private int local(int cell) {
+    return (cell / cols % clusterSize) * clusterSize + cell % cols % clusterSize;
+  }
+
+  /**
+   * Breadth-first search from source confined to its cluster, stopping early once target is
+   * reached if target is not -1. Reached cells have stamp[local(cell)] == round afterwards, and
+   * only cells of the source's cluster may be looked up until the next search.
+   *
+   * @return the number of cells expanded
+   */
+  private int localSearch(int source, int target) {
+    round++;
+    int r0 = source / cols / clusterSize * clusterSize;
+    int c0 = source % cols / clusterSize * clusterSize;
+    int r1 = Math.min(rows, r0 + clusterSize);
+    int c1 = Math.min(cols, c0 + clusterSize);
+    int head = 0;
+    int tail = 0;
+    stamp[local(source)] = round;
+    localDistance[local(source)] = 0;
+    localParent[local(source)] = source;
+    localQueue[tail++] = source;
+    while (head < tail) {
+      int cell = localQueue[head++];
+      if (cell == target) break;
+      int r = cell / cols;
+      int c = cell % cols;
+      for (int[] move : moves) {
+        int nr = r + move[0];
+        int nc = c + move[1];
+        if (nr < r0 || nr >= r1 || nc < c0 || nc >= c1 || board[nr][nc] == 'X') continue;
+        int next = nr * cols + nc;
+        int index = local(next);
+        if (stamp[index] == round) continue;
+        stamp[index] = round;
+        localDistance[index] = localDistance[local(cell)] + 1;
+        localParent[index] = cell;
+        localQueue[tail++] = next;
+      }
+    }
+    return head;
+  }
+
+  /**
+   * Finds a path between two cells.
+   *
+   * @param start the [row, column] starting position
+   * @param goal the [row, column] goal position
+   * @return the path, with cost() its number of moves
+   */
+  public synchronized GridPath findPath(int[] start, int[] goal) {
+    int s = start[0] * cols + start[1];
+    int t = goal[0] * cols + goal[1];
+    if (s == t) return new GridPath(new ArrayList<>(List.of(new int[] {start[0], start[1]})), 0, 0);
+    if (board[goal[0]][goal[1]] == 'X') return GridPath.notFound(0);
+    if (board[start[0]][start[1]] == 'X') return findPathFromBlocked(start, goal);
+
+    // Virtual nodes: nodeCount is the start, nodeCount + 1 the goal.
+    int startNode = nodeCount;
+    int goalNode = nodeCount + 1;
+    int expanded = 0;
+    int[] fromStart = new int[nodeCount + 2];
+    int[] toGoal = new int[nodeCount + 2];
+    Arrays.fill(fromStart, -1);
+    Arrays.fill(toGoal, -1);
+    expanded += localSearch(s, -1);
+    for (int u : clusterNodes[cluster(s)]) {
+      if (stamp[local(nodeCell[u])] == round) fromStart[u] = localDistance[local(nodeCell[u])];
+    }
+    if (cluster(s) == cluster(t) && stamp[local(t)] == round) fromStart[goalNode] = localDistance[local(t)];
+    expanded += localSearch(t, -1);
+    for (int u : clusterNodes[cluster(t)]) {
+      // Moves are symmetric, so the distance from the goal equals the distance to it.
+      if (stamp[local(nodeCell[u])] == round) toGoal[u] = localDistance[local(nodeCell[u])];
+    }
+
+    double[] g = new double[nodeCount + 2];
+    int[] parent = new int[nodeCount + 2];
+    Arrays.fill(g, Double.POSITIVE_INFINITY);
+    IndexedMinHeap open = new IndexedMinHeap(nodeCount + 2);
+    g[startNode] = 0;
+    parent[startNode] = startNode;
+    open.insertOrDecrease(startNode, heuristic(s, t));
+    while (!open.isEmpty()) {
+      int u = open.poll();
+      expanded++;
+      if (u == goalNode) break;
+      if (u == startNode) {
+        for (int v = 0; v < nodeCount + 2; v++) {
+          if (fromStart[v] >= 0) relax(u, v, fromStart[v], g, parent, open, t);
+        }
+        continue;
+      }
+      for (int i = 0; i < edgeCount[u]; i++) {
+        relax(u, edgeTarget[u][i], edgeCost[u][i], g, parent, open, t);
+      }
+      if (toGoal[u] >= 0) relax(u, goalNode, toGoal[u], g, parent, open, t);
+    }
+    if (g[goalNode] == Double.POSITIVE_INFINITY) return GridPath.notFound(expanded);
+
+    // Refine the abstract path into cells.
+    List<Integer> abstractPath = new ArrayList<>();
+    for (int u = goalNode; u != startNode; u = parent[u]) {
+      abstractPath.add(u);
+    }
+    Collections.reverse(abstractPath);
+    List<int[]> cells = new ArrayList<>();
+    cells.add(new int[] {start[0], start[1]});
+    int from = s;
+    for (int u : abstractPath) {
+      int to = u == goalNode ? t : nodeCell[u];
+      if (to == from) continue;
+      if (cluster(from) != cluster(to)) {
+        cells.add(new int[] {to / cols, to % cols});
+      } else {
+        expanded += localSearch(from, to);
+        int mark = cells.size();
+        for (int cell = to; cell != from; cell = localParent[local(cell)]) {
+          cells.add(new int[] {cell / cols, cell % cols});
+        }
+        Collections.reverse(cells.subList(mark, cells.size()));
+      }
+      from = to;
+    }
+    return new GridPath(cells, cells.size() - 1, expanded);
+  }
+
+  /**
+   * Like possibleMoves, a player standing on an 'X' may still move out of it. Such a start is no
+   * transition and may only lead out of its cluster, so search from each of its moves instead.
+   */
+  private GridPath findPathFromBlocked(int[] start, int[] goal) {
+    GridPath best = GridPath.notFound(0);
+    int expanded = 0;
+    for (int[] move : moves) {
+      int r = start[0] + move[0];
+      int c = start[1] + move[1];
+      if (r < 0 || r >= rows || c < 0 || c >= cols || board[r][c] == 'X') continue;
+      GridPath path = findPath(new int[] {r, c}, goal);
+      expanded += path.expanded();
+      if (path.cost() < best.cost()) best = path;
+    }
+    if (!best.isFound()) return GridPath.notFound(expanded);
+    List<int[]> cells = new ArrayList<>();
+    cells.add(new int[] {start[0], start[1]});
+    cells.addAll(best.cells());
+    return new GridPath(cells, cells.size() - 1, expanded);
+  }
+
+  private void relax(int u, int v, int cost, double[] g, int[] parent, IndexedMinHeap open, int t) {
+    double candidate = g[u] + cost;
+    if (candidate >= g[v]) return;
+    g[v] = candidate;
+    parent[v] = u;
+    int cell = v == nodeCount + 1 ? t : nodeCell[v];
+    open.insertOrUpdate(v, candidate + heuristic(cell, t));
+  }
+
+  private double heuristic(int from, int to) {
+    int dr = Math.abs(from / cols - to / cols);
+    int dc = Math.abs(from % cols - to % cols);
+    return moves.length == 8 ? Math.max(dr, dc) : dr + dc;
+  }
+
+  /**
+   * Returns the number of transition cells in the abstract graph.
+   *
+   * @return the number of abstract nodes
+   */
+  public int abstractNodeCount() {
+    return nodeCount;
+  }
+}
@@ -0,0 +1,171 @@
+import java.util.Arrays;
+
+/**
+ * A HyperLogLog distinct-count sketch (Flajolet et al., 2007) with an exact sparse mode.
+ *
+ * Items are 64-bit hashes. The dense form keeps 2^precision one-byte registers, each the
+ * longest run of leading zeros seen among the hashes routed to it, and estimates the count from
+ * the histogram of the registers with a relative standard error of about
+ * 1.04 / sqrt(2^precision): 0.8% at the default precision of 14. Until a sketch holds more
+ * distinct hashes than fit in the same memory as the registers, it keeps the sorted hashes
+ * themselves and counts them exactly, as HyperLogLog++ does, so small sets cost little memory
+ * and have no error.
+ *
+ * Sketches of the same precision merge losslessly: the merge of two sketches is the sketch of
+ * the union of their items.
+ */
+final class HyperLogLog {
+  static final int DEFAULT_PRECISION = 14;
+
+  private final int precision;
+  private long[] hashes = new long[4];
+  private int size;
+  private byte[] registers;
+
+  HyperLogLog(int precision) {
+    if (precision < 4 || precision > 18) throw new IllegalArgumentException("precision must be between 4 and 18");
+    this.precision = precision;
+  }
+
+  /**
+   * Spreads an int over 64 bits with the murmur3 finalizer, so that small consecutive values
+   * make well-distributed hashes.
+   */
+  static long hash(int value) {
+    long h = value * 0x9E3779B97F4A7C15L;
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private int sparseLimit() {
+    // Eight bytes per hash, so the sparse form never outgrows the registers.
+    return (1 << precision) / 8;
+  }
+
+  void add(long hash) {
+    if (registers != null) {
+      addDense(hash);
+      return;
+    }
+    int at = Arrays.binarySearch(hashes, 0, size, hash);
+    if (at >= 0) return;
+    at = -at - 1;
+    if (size == hashes.length) hashes = Arrays.copyOf(hashes, size * 2);
+    System.arraycopy(hashes, at, hashes, at + 1, size - at);
+    hashes[at] = hash;
+    size++;
+    if (size > sparseLimit()) toDense();
+  }
+
+  private void addDense(long hash) {
+    int index = (int) (hash >>> (64 - precision));
+    int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+    if (rank > registers[index]) registers[index] = (byte) rank;
+  }
+
+  private void toDense() {
+    registers = new byte[1 << precision];
+    for (int i = 0; i < size; i++) {
+      addDense(hashes[i]);
+    }
+    hashes = null;
+    size = 0;
+  }
+
+  /**
+   * Adds every item of another sketch of the same precision to this one.
+   */
+  void merge(HyperLogLog other) {
+    if (other.precision != precision) throw new IllegalArgumentException("precisions differ");
+    if (other.registers == null) {
+      if (registers != null) {
+        for (int i = 0; i < other.size; i++) {
+          addDense(other.hashes[i]);
+        }
+        return;
+      }
+      // Both sparse: merge the sorted hash lists.
+      long[] merged = new long[size + other.size];
+      int i = 0;
+      int j = 0;
+      int n = 0;
+      while (i < size || j < other.size) {
+        long next;
+        if (j == other.size || (i < size && hashes[i] < other.hashes[j])) {
+          next = hashes[i++];
+        } else if (i == size || other.hashes[j] < hashes[i]) {
+          next = other.hashes[j++];
+        } else {
+          next = hashes[i++];
+          j++;
+        }
+        merged[n++] = next;
+      }
+      hashes = merged.length == 0 ? new long[4] : merged;
+      size = n;
+      if (size > sparseLimit()) toDense();
+      return;
+    }
+    if (registers == null) toDense();
+    for (int r = 0; r < registers.length; r++) {
+      if (other.registers[r] > registers[r]) registers[r] = other.registers[r];
+    }
+  }
+
+  /**
+   * Returns the estimated number of distinct items added, exact while the sketch is sparse.
+   *
+   * Dense sketches use Ertl's improved estimator ("New cardinality estimation algorithms for
+   * HyperLogLog sketches", 2017). It replaces the harmonic mean and the switch to linear
+   * counting, whose bias peaks right where the two meet, with closed-form corrections for empty
+   * and saturated registers, so the error stays near 1.04 / sqrt(m) at every cardinality
+   * without empirical bias tables.
+   */
+  long estimate() {
+    if (registers == null) return size;
+    int m = registers.length;
+    int q = 64 - precision;
+    int[] histogram = new int[q + 2];
+    for (byte register : registers) {
+      histogram[register]++;
+    }
+    double z = m * tau(1 - (double) histogram[q + 1] / m);
+    for (int k = q; k >= 1; k--) {
+      z = 0.5 * (z + histogram[k]);
+    }
+    z += m * sigma((double) histogram[0] / m);
+    return Math.round(m / (2 * Math.log(2)) * m / z);
+  }
+
+  private static double sigma(double x) {
+    if (x == 1) return Double.POSITIVE_INFINITY;
+    double y = 1;
+    double z = x;
+    double previous;
+    do {
+      x *= x;
+      previous = z;
+      z += x * y;
+      y += y;
+    } while (z != previous);
+    return z;
+  }
+
+  private static double tau(double x) {
+    if (x == 0 || x == 1) return 0;
+    double y = 1;
+    double z = 1 - x;
+    double previous;
+    do {
+      x = Math.sqrt(x);
+      previous = z;
+      y *= 0.5;
+      z -= (1 - x) * (1 - x) * y;
+    } while (z != previous);
+    return z / 3;
+  }
+}
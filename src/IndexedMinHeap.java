@@ -0,0 +1,136 @@
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of vertex indices keyed by double priorities, supporting key updates.
+ *
+ * Each vertex index from 0 to capacity - 1 can be in the heap at most once. A position array
+ * tracks where every vertex sits, so key updates are O(log n) and nothing is boxed.
+ */
+final class IndexedMinHeap {
+  private int[] heap;
+  private int[] position;
+  private double[] key;
+  private int size;
+
+  IndexedMinHeap(int capacity) {
+    heap = new int[capacity];
+    position = new int[capacity];
+    key = new double[capacity];
+    Arrays.fill(position, -1);
+  }
+
+  /**
+   * Raises the capacity, keeping the vertices already in the heap.
+   */
+  void grow(int capacity) {
+    int old = position.length;
+    if (capacity <= old) return;
+    heap = Arrays.copyOf(heap, capacity);
+    position = Arrays.copyOf(position, capacity);
+    key = Arrays.copyOf(key, capacity);
+    Arrays.fill(position, old, capacity, -1);
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  boolean contains(int vertex) {
+    return position[vertex] >= 0;
+  }
+
+  /**
+   * Inserts the vertex, or lowers its key if it is present with a higher one.
+   */
+  void insertOrDecrease(int vertex, double priority) {
+    if (position[vertex] < 0) {
+      heap[size] = vertex;
+      position[vertex] = size;
+      key[vertex] = priority;
+      siftUp(size++);
+    } else if (priority < key[vertex]) {
+      key[vertex] = priority;
+      siftUp(position[vertex]);
+    }
+  }
+
+  /**
+   * Inserts the vertex, or moves it to the given key whether that is lower or higher.
+   */
+  void insertOrUpdate(int vertex, double priority) {
+    if (position[vertex] < 0) {
+      insertOrDecrease(vertex, priority);
+    } else {
+      key[vertex] = priority;
+      siftUp(position[vertex]);
+      siftDown(position[vertex]);
+    }
+  }
+
+  /**
+   * Removes and returns the vertex with the smallest key.
+   */
+  int poll() {
+    int top = heap[0];
+    position[top] = -1;
+    if (--size > 0) {
+      heap[0] = heap[size];
+      position[heap[0]] = 0;
+      siftDown(0);
+    }
+    return top;
+  }
+
+  /**
+   * Returns the smallest key without removing its vertex; the heap must not be empty.
+   */
+  double peekKey() {
+    return key[heap[0]];
+  }
+
+  /**
+   * Removes the vertex if it is present.
+   */
+  void remove(int vertex) {
+    int i = position[vertex];
+    if (i < 0) return;
+    position[vertex] = -1;
+    if (i < --size) {
+      int moved = heap[size];
+      heap[i] = moved;
+      position[moved] = i;
+      siftUp(i);
+      siftDown(position[moved]);
+    }
+  }
+
+  private void siftUp(int i) {
+    int vertex = heap[i];
+    double priority = key[vertex];
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (key[heap[parent]] <= priority) break;
+      heap[i] = heap[parent];
+      position[heap[i]] = i;
+      i = parent;
+    }
+    heap[i] = vertex;
+    position[vertex] = i;
+  }
+
+  private void siftDown(int i) {
+    int vertex = heap[i];
+    double priority = key[vertex];
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) break;
+      if (child + 1 < size && key[heap[child + 1]] < key[heap[child]]) child++;
+      if (key[heap[child]] >= priority) break;
+      heap[i] = heap[child];
+      position[heap[i]] = i;
+      i = child;
+    }
+    heap[i] = vertex;
+    position[vertex] = i;
+  }
+}
@@ -0,0 +1,128 @@
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of vertex indices keyed by pairs of longs compared lexicographically,
+ * supporting key updates.
+ *
+ * Like IndexedMinHeap, but for keys that do not fit a single double exactly, such as the
+ * (k1, k2) keys of D* Lite. Each vertex index from 0 to capacity - 1 can be in the heap at most
+ * once.
+ */
+final class IndexedPairMinHeap {
+  private final int[] heap;
+  private final int[] position;
+  private final long[] primary;
+  private final long[] secondary;
+  private int size;
+
+  IndexedPairMinHeap(int capacity) {
+    heap = new int[capacity];
+    position = new int[capacity];
+    primary = new long[capacity];
+    secondary = new long[capacity];
+    Arrays.fill(position, -1);
+  }
+
+  /**
+   * Returns whether the key (a1, a2) is smaller than (b1, b2).
+   */
+  static boolean less(long a1, long a2, long b1, long b2) {
+    return a1 < b1 || a1 == b1 && a2 < b2;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Inserts the vertex, or moves it to the given key whether that is lower or higher.
+   */
+  void insertOrUpdate(int vertex, long key1, long key2) {
+    primary[vertex] = key1;
+    secondary[vertex] = key2;
+    if (position[vertex] < 0) {
+      heap[size] = vertex;
+      position[vertex] = size;
+      siftUp(size++);
+    } else {
+      siftUp(position[vertex]);
+      siftDown(position[vertex]);
+    }
+  }
+
+  /**
+   * Removes and returns the vertex with the smallest key.
+   */
+  int poll() {
+    int top = heap[0];
+    position[top] = -1;
+    if (--size > 0) {
+      heap[0] = heap[size];
+      position[heap[0]] = 0;
+      siftDown(0);
+    }
+    return top;
+  }
+
+  /**
+   * Returns the first component of the smallest key; the heap must not be empty.
+   */
+  long peekPrimary() {
+    return primary[heap[0]];
+  }
+
+  /**
+   * Returns the second component of the smallest key; the heap must not be empty.
+   */
+  long peekSecondary() {
+    return secondary[heap[0]];
+  }
+
+  /**
+   * Removes the vertex if it is present.
+   */
+  void remove(int vertex) {
+    int i = position[vertex];
+    if (i < 0) return;
+    position[vertex] = -1;
+    if (i < --size) {
+      int moved = heap[size];
+      heap[i] = moved;
+      position[moved] = i;
+      siftUp(i);
+      siftDown(position[moved]);
+    }
+  }
+
+  private boolean less(int a, int b) {
+    return less(primary[a], secondary[a], primary[b], secondary[b]);
+  }
+
+  private void siftUp(int i) {
+    int vertex = heap[i];
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (!less(vertex, heap[parent])) break;
+      heap[i] = heap[parent];
+      position[heap[i]] = i;
+      i = parent;
+    }
+    heap[i] = vertex;
+    position[vertex] = i;
+  }
+
+  private void siftDown(int i) {
+    int vertex = heap[i];
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) break;
+      if (child + 1 < size && less(heap[child + 1], heap[child])) child++;
+      if (!less(heap[child], vertex)) break;
+      heap[i] = heap[child];
+      position[heap[i]] = i;
+      i = child;
+    }
+    heap[i] = vertex;
+    position[vertex] = i;
+  }
+}
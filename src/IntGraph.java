@@ -0,0 +1,255 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * A primitive, array-backed version of a graph of Vertex&lt;Integer&gt; objects.
+ *
+ * Each vertex is a dense index; data[v] is its value and its neighbors are the indices
+ * targets[offsets[v]] up to targets[offsets[v + 1] - 1], in the same order as the original
+ * neighbors list. Unlike CompactGraph, values need not be unique, exactly like Vertex graphs,
+ * so duplicate values still appear once per vertex in sortedReachable.
+ *
+ * A vertex costs three ints plus one int per edge, instead of a Vertex, a boxed Integer and an
+ * ArrayList with its backing array.
+ *
+ * Queries that aggregate over a reachable set separate the traversal from the evaluation: the
+ * traversal produces a bitmap of reached vertices, a predicate is turned into a bitmap over all
+ * vertices once, and the answer is the popcount of the two ANDed together.
+ */
+public class IntGraph {
+  private final int[] data;
+  private final int[] offsets;
+  private final int[] targets;
+  private final long[] oddMask;
+
+  /**
+   * Constructs a graph from its arrays. The arrays are used as-is, not copied.
+   *
+   * @param data the value of every vertex
+   * @param offsets vertexCount + 1 ascending edge positions
+   * @param targets the target vertex index of every edge
+   * @throws IllegalArgumentException if the arrays are inconsistent
+   */
+  public IntGraph(int[] data, int[] offsets, int[] targets) {
+    if (offsets.length != data.length + 1 || offsets[0] != 0 || offsets[data.length] != targets.length) {
+      throw new IllegalArgumentException("offsets must have vertexCount + 1 entries spanning all targets");
+    }
+    this.data = data;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.oddMask = mask(value -> value % 2 != 0);
+  }
+
+  /**
+   * Converts every vertex reachable from starting into an IntGraph. The starting vertex
+   * gets index 0. Null neighbors are skipped.
+   *
+   * @param starting the starting vertex
+   * @return the converted graph
+   * @throws IllegalArgumentException if starting is null or a reachable vertex has null data
+   */
+  public static IntGraph fromVertex(Vertex<Integer> starting) {
+    if (starting == null) throw new IllegalArgumentException("starting vertex is null");
+
+    Map<Vertex<Integer>, Integer> indexOf = new IdentityHashMap<>();
+    List<Vertex<Integer>> order = new ArrayList<>();
+    indexOf.put(starting, 0);
+    order.add(starting);
+
+    int edges = 0;
+    for (int i = 0; i < order.size(); i++) {
+      for (Vertex<Integer> neighbor : order.get(i).neighbors) {
+        if (neighbor == null) continue;
+        edges++;
+        if (!indexOf.containsKey(neighbor)) {
+          indexOf.put(neighbor, order.size());
+          order.add(neighbor);
+        }
+      }
+    }
+
+    int[] data = new int[order.size()];
+    int[] offsets = new int[order.size() + 1];
+    int[] targets = new int[edges];
+    int m = 0;
+    for (int v = 0; v < order.size(); v++) {
+      Vertex<Integer> vertex = order.get(v);
+      if (vertex.data == null) throw new IllegalArgumentException("vertex with null data");
+      data[v] = vertex.data;
+      for (Vertex<Integer> neighbor : vertex.neighbors) {
+        if (neighbor != null) targets[m++] = indexOf.get(neighbor);
+      }
+      offsets[v + 1] = m;
+    }
+    return new IntGraph(data, offsets, targets);
+  }
+
+  /**
+   * Rebuilds the graph as Vertex objects.
+   *
+   * @return the vertex with index 0, or null if the graph is empty
+   */
+  public Vertex<Integer> toVertex() {
+    List<Vertex<Integer>> vertices = new ArrayList<>(data.length);
+    for (int value : data) {
+      vertices.add(new Vertex<>(value));
+    }
+    for (int v = 0; v < data.length; v++) {
+      for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+        vertices.get(v).neighbors.add(vertices.get(targets[e]));
+      }
+    }
+    return vertices.isEmpty() ? null : vertices.get(0);
+  }
+
+  public int vertexCount() {
+    return data.length;
+  }
+
+  public int edgeCount() {
+    return targets.length;
+  }
+
+  /**
+   * Returns the value of the vertex at the given index.
+   *
+   * @param index a vertex index
+   * @return the vertex value
+   */
+  public int data(int index) {
+    return data[index];
+  }
+
+  /**
+   * Returns the number of neighbors of the vertex at the given index.
+   *
+   * @param index a vertex index
+   * @return the number of neighbors
+   */
+  public int neighborCount(int index) {
+    return offsets[index + 1] - offsets[index];
+  }
+
+  /**
+   * Returns the index of the i-th neighbor of the vertex at the given index.
+   *
+   * @param index a vertex index
+   * @param i which neighbor, from 0 to neighborCount(index) - 1
+   * @return the neighbor's index
+   */
+  public int neighbor(int index, int i) {
+    return targets[offsets[index] + i];
+  }
+
+  /**
+   * Returns a lightweight handle for navigating the graph vertex by vertex.
+   *
+   * @param index a vertex index
+   * @return a handle for the vertex
+   */
+  public IntVertex vertex(int index) {
+    return new IntVertex(this, index);
+  }
+
+  /**
+   * Returns the number of odd values reachable from the vertex at the given index, including
+   * the vertex itself, matching Practice.oddVertices.
+   *
+   * @param start the starting vertex index
+   * @return the number of odd reachable values
+   */
+  public int oddVertices(int start) {
+    return CompactGraphs.andCardinality(reachable(start), oddMask);
+  }
+
+  /**
+   * Returns how many vertices reachable from the vertex at the given index, including the vertex
+   * itself, have a value matching the predicate. When the same predicate is used repeatedly,
+   * build its mask once with mask and call count(long[], long[]) instead.
+   *
+   * @param start the starting vertex index
+   * @param predicate the condition on vertex values
+   * @return the number of matching reachable vertices
+   */
+  public int count(int start, IntPredicate predicate) {
+    return count(reachable(start), mask(predicate));
+  }
+
+  /**
+   * Returns how many vertices are set in both a reachable set and a mask.
+   *
+   * @param reached a bitmap from reachable
+   * @param mask a bitmap from mask
+   * @return the number of vertices set in both
+   */
+  public static int count(long[] reached, long[] mask) {
+    return CompactGraphs.andCardinality(reached, mask);
+  }
+
+  /**
+   * Returns a bitmap over vertex indices with a bit set for every vertex whose value matches
+   * the predicate.
+   *
+   * @param predicate the condition on vertex values
+   * @return the matching vertices as a bitmap
+   */
+  public long[] mask(IntPredicate predicate) {
+    long[] mask = new long[CompactGraphs.words(data.length)];
+    for (int v = 0; v < data.length; v++) {
+      if (predicate.test(data[v])) mask[v >>> 6] |= 1L << v;
+    }
+    return mask;
+  }
+
+  /**
+   * Returns a sorted list of all values reachable from the vertex at the given index,
+   * including duplicates, matching Practice.sortedReachable(Vertex).
+   *
+   * @param start the starting vertex index
+   * @return a sorted list of all reachable values
+   */
+  public List<Integer> sortedReachable(int start) {
+    return CompactGraphs.sortedIds(reachable(start), v -> data[v]);
+  }
+
+  /**
+   * Same as sortedReachable, but returns a primitive array and never boxes.
+   *
+   * @param start the starting vertex index
+   * @return the sorted reachable values
+   */
+  public int[] sortedReachableValues(int start) {
+    return CompactGraphs.sortedIdArray(reachable(start), v -> data[v]);
+  }
+
+  /**
+   * Returns a bitmap over vertex indices with a bit set for every vertex reachable from start,
+   * including start itself.
+   *
+   * @param start the starting vertex index
+   * @return the reachable set as a bitmap
+   */
+  public long[] reachable(int start) {
+    long[] visited = new long[CompactGraphs.words(data.length)];
+    int[] stack = new int[16];
+    int size = 0;
+    stack[size++] = start;
+    CompactGraphs.set(visited, start);
+
+    while (size > 0) {
+      int current = stack[--size];
+      for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+        int next = targets[e];
+        if (CompactGraphs.get(visited, next)) continue;
+        CompactGraphs.set(visited, next);
+        if (size == stack.length) stack = Arrays.copyOf(stack, size * 2);
+        stack[size++] = next;
+      }
+    }
+    return visited;
+  }
+}
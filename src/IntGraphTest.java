@@ -0,0 +1,76 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class IntGraphTest {
+
+  // Same shape as the complex graph in PracticeTest, plus a duplicate value 7.
+  private Vertex<Integer> createGraph() {
+    Vertex<Integer> v3  = new Vertex<>(3);
+    Vertex<Integer> v7  = new Vertex<>(7);
+    Vertex<Integer> v12 = new Vertex<>(12);
+    Vertex<Integer> v34 = new Vertex<>(34);
+    Vertex<Integer> v56 = new Vertex<>(56);
+    Vertex<Integer> v91 = new Vertex<>(91);
+    Vertex<Integer> other7 = new Vertex<>(7);
+
+    v3.neighbors  = new ArrayList<>(List.of(v7, v34));
+    v7.neighbors  = new ArrayList<>(List.of(v12, v34, v56));
+    v12.neighbors = new ArrayList<>(List.of(v7, other7));
+    v34.neighbors = new ArrayList<>(List.of(v34, v91));
+    v91.neighbors = new ArrayList<>(List.of(v56));
+    return v3;
+  }
+
+  @Test
+  public void testMatchesPractice() {
+    Vertex<Integer> start = createGraph();
+    IntGraph graph = IntGraph.fromVertex(start);
+    assertEquals(7, graph.vertexCount());
+    assertEquals(Practice.sortedReachable(start), graph.sortedReachable(0));
+    assertEquals(Practice.oddVertices(start), graph.oddVertices(0));
+    assertArrayEquals(new int[] {3, 7, 7, 12, 34, 56, 91}, graph.sortedReachableValues(0));
+  }
+
+  @Test
+  public void testNavigationAndRoundTrip() {
+    IntGraph graph = IntGraph.fromVertex(createGraph());
+    IntVertex root = graph.vertex(0);
+    assertEquals(3, root.data());
+    assertEquals(2, root.neighborCount());
+    assertEquals(7, root.neighbor(0).data());
+
+    Vertex<Integer> rebuilt = graph.toVertex();
+    assertEquals(graph.sortedReachable(0), Practice.sortedReachable(rebuilt));
+  }
+
+  @Test
+  public void testNullStartRejected() {
+    assertThrows(IllegalArgumentException.class, () -> IntGraph.fromVertex(null));
+  }
+
+  @Test
+  public void testPredicateCountsOverReachableSet() {
+    IntGraph graph = IntGraph.fromVertex(createGraph());
+    assertEquals(3, graph.count(0, value -> value > 30));
+    long[] reached = graph.reachable(0);
+    long[] even = graph.mask(value -> value % 2 == 0);
+    assertEquals(3, IntGraph.count(reached, even));
+    assertEquals(graph.vertexCount(), IntGraph.count(reached, graph.mask(value -> true)));
+  }
+
+  @Test
+  public void testOddCountOnLargeChain() {
+    // A chain of 1000 vertices valued 0..999 crosses many bitmap words.
+    Vertex<Integer> head = new Vertex<>(0);
+    Vertex<Integer> current = head;
+    for (int i = 1; i < 1000; i++) {
+      Vertex<Integer> next = new Vertex<>(i);
+      current.neighbors.add(next);
+      current = next;
+    }
+    IntGraph graph = IntGraph.fromVertex(head);
+    assertEquals(500, graph.oddVertices(0));
+    assertEquals(250, graph.oddVertices(500));
+  }
+}
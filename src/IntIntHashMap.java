@@ -0,0 +1,122 @@
+/**
+ * An open-addressing hash map from int to int, used where a Map&lt;Integer, Integer&gt; would box
+ * every key and value.
+ *
+ * Lookups are safe from several threads once no thread writes to the map any more.
+ */
+final class IntIntHashMap {
+  private int[] keys;
+  private int[] values;
+  private boolean[] used;
+  private int size;
+  private int mask;
+
+  IntIntHashMap() {
+    this(16);
+  }
+
+  IntIntHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+    allocate(capacity);
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean containsKey(int key) {
+    return used[slot(key)];
+  }
+
+  /**
+   * Returns the value for key, or defaultValue if the key is absent.
+   */
+  int get(int key, int defaultValue) {
+    int slot = slot(key);
+    return used[slot] ? values[slot] : defaultValue;
+  }
+
+  void put(int key, int value) {
+    int slot = slot(key);
+    if (!used[slot]) {
+      insert(slot, key, value);
+    } else {
+      values[slot] = value;
+    }
+  }
+
+  /**
+   * Adds delta to the value for key, treating an absent key as 0.
+   */
+  void addTo(int key, int delta) {
+    int slot = slot(key);
+    if (!used[slot]) {
+      insert(slot, key, delta);
+    } else {
+      values[slot] += delta;
+    }
+  }
+
+  /**
+   * Returns the keys in no particular order.
+   */
+  int[] keys() {
+    int[] result = new int[size];
+    int n = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) result[n++] = keys[i];
+    }
+    return result;
+  }
+
+  /**
+   * Adds every entry of other into this map.
+   */
+  void addAll(IntIntHashMap other) {
+    for (int i = 0; i < other.keys.length; i++) {
+      if (other.used[i]) addTo(other.keys[i], other.values[i]);
+    }
+  }
+
+  private int slot(int key) {
+    int slot = mix(key) & mask;
+    while (used[slot] && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void insert(int slot, int key, int value) {
+    keys[slot] = key;
+    values[slot] = value;
+    used[slot] = true;
+    if (++size * 2 > keys.length) rehash();
+  }
+
+  private void rehash() {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    boolean[] oldUsed = used;
+    allocate(keys.length * 2);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int slot = slot(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+        used[slot] = true;
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    values = new int[capacity];
+    used = new boolean[capacity];
+    mask = capacity - 1;
+  }
+
+  private static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,47 @@
+/**
+ * A handle on one vertex of an IntGraph, for code that prefers to walk a graph vertex by
+ * vertex the way it would walk Vertex objects. The handle holds no data of its own.
+ */
+public final class IntVertex {
+  private final IntGraph graph;
+  private final int index;
+
+  IntVertex(IntGraph graph, int index) {
+    this.graph = graph;
+    this.index = index;
+  }
+
+  public int index() {
+    return index;
+  }
+
+  public int data() {
+    return graph.data(index);
+  }
+
+  public int neighborCount() {
+    return graph.neighborCount(index);
+  }
+
+  /**
+   * Returns the i-th neighbor.
+   *
+   * @param i which neighbor, from 0 to neighborCount() - 1
+   * @return the neighbor
+   */
+  public IntVertex neighbor(int i) {
+    return new IntVertex(graph, graph.neighbor(index, i));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof IntVertex)) return false;
+    IntVertex other = (IntVertex) o;
+    return graph == other.graph && index == other.index;
+  }
+
+  @Override
+  public int hashCode() {
+    return index;
+  }
+}
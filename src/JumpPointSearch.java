@@ -0,0 +1,263 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Jump Point Search (Harabor and Grastien, AAAI 2011) on nextMoves boards.
+ *
+ * A* on a grid expands every cell of an open area, since many equally short paths lead
+ * through it. JPS fixes one canonical order for the moves of a path and prunes every neighbor a
+ * canonical path would not use, then "jumps" along straight and diagonal lines without adding
+ * the cells in between to the open list. Only jump points, cells where an obstacle forces a
+ * canonical path to turn, are expanded, so open boards cost a handful of expansions instead of
+ * one per cell. The path returned is still optimal.
+ *
+ * Blocking follows possibleMoves: a move is legal when its destination is on the board and not
+ * an 'X', so diagonal moves may pass between two blocked cells. Two uniform move sets are
+ * supported:
+ * <ul>
+ *   <li>four directions, each move costing 1, so the cost is the number of nextMoves steps;
+ *       vertical moves come first in canonical paths and branch sideways at every cell;</li>
+ *   <li>eight directions with octile costs, 1 for a straight move and sqrt(2) for a diagonal
+ *       one, the setting JPS was designed for.</li>
+ * </ul>
+ *
+ * Only the cells a query generates get search state, kept in arrays indexed in the order they
+ * are generated and found through a hash map from cell, so a query's time and memory follow
+ * the handful of jump points it touches rather than the size of the board.
+ */
+public final class JumpPointSearch {
+  private static final double SQRT2 = Math.sqrt(2);
+
+  private final char[][] board;
+  private final int rows;
+  private final int cols;
+  private final boolean diagonal;
+  private int goalRow;
+  private int goalCol;
+
+  // Search state of the generated nodes, by node number.
+  private final IntIntHashMap nodeOf = new IntIntHashMap();
+  private int[] cellOf = new int[64];
+  private double[] g = new double[64];
+  private int[] parentCell = new int[64];
+  private long[] closed = new long[CompactGraphs.words(64)];
+  private int nodeCount;
+  private final IndexedMinHeap open = new IndexedMinHeap(64);
+
+  private JumpPointSearch(char[][] board, boolean diagonal) {
+    this.board = board;
+    this.rows = board.length;
+    this.cols = rows == 0 ? 0 : board[0].length;
+    this.diagonal = diagonal;
+  }
+
+  /**
+   * Finds an optimal path.
+   *
+   * @param board a rectangular array where 'X' represent an impassible location
+   * @param start the [row, column] starting position
+   * @param goal the [row, column] goal position
+   * @param diagonal false for four directions with unit cost, true for eight with octile cost
+   * @return the path, with cost() the path's cost under the chosen model
+   */
+  public static GridPath findPath(char[][] board, int[] start, int[] goal, boolean diagonal) {
+    return new JumpPointSearch(board, diagonal).search(start, goal);
+  }
+
+  private boolean free(int r, int c) {
+    return r >= 0 && r < rows && c >= 0 && c < cols && board[r][c] != 'X';
+  }
+
+  private GridPath search(int[] start, int[] goal) {
+    int s = start[0] * cols + start[1];
+    int t = goal[0] * cols + goal[1];
+    if (s == t) return new GridPath(new ArrayList<>(List.of(new int[] {start[0], start[1]})), 0, 0);
+    if (!free(goal[0], goal[1])) return GridPath.notFound(0);
+    goalRow = goal[0];
+    goalCol = goal[1];
+
+    int source = node(s);
+    g[source] = 0;
+    parentCell[source] = s;
+    open.insertOrDecrease(source, heuristic(start[0], start[1]));
+    int expanded = 0;
+    int[] directions = new int[16];
+
+    while (!open.isEmpty()) {
+      int current = open.poll();
+      int cell = cellOf[current];
+      if (cell == t) return new GridPath(unpack(s, t), g[current], expanded);
+      CompactGraphs.set(closed, current);
+      expanded++;
+      int r = cell / cols;
+      int c = cell % cols;
+      int count = cell == s ? allDirections(directions) : prunedDirections(r, c, parentCell[current], directions);
+      for (int i = 0; i < count; i += 2) {
+        int jump = jump(r, c, directions[i], directions[i + 1]);
+        if (jump < 0) continue;
+        int next = node(jump);
+        if (CompactGraphs.get(closed, next)) continue;
+        int jr = jump / cols;
+        int jc = jump % cols;
+        double cost = g[current] + distance(r, c, jr, jc);
+        if (cost < g[next]) {
+          g[next] = cost;
+          parentCell[next] = cell;
+          open.insertOrUpdate(next, cost + heuristic(jr, jc));
+        }
+      }
+    }
+    return GridPath.notFound(expanded);
+  }
+
+  /**
+   * Returns the node number of a cell, giving the cell a node with an infinite g the first
+   * time it is generated.
+   */
+  private int node(int cell) {
+    int v = nodeOf.get(cell, -1);
+    if (v >= 0) return v;
+    if (nodeCount == cellOf.length) {
+      int capacity = 2 * nodeCount;
+      cellOf = Arrays.copyOf(cellOf, capacity);
+      g = Arrays.copyOf(g, capacity);
+      parentCell = Arrays.copyOf(parentCell, capacity);
+      closed = Arrays.copyOf(closed, CompactGraphs.words(capacity));
+      open.grow(capacity);
+    }
+    v = nodeCount++;
+    cellOf[v] = cell;
+    g[v] = Double.POSITIVE_INFINITY;
+    nodeOf.put(cell, v);
+    return v;
+  }
+
+  private int allDirections(int[] out) {
+    int count = 0;
+    for (int dr = -1; dr <= 1; dr++) {
+      for (int dc = -1; dc <= 1; dc++) {
+        if ((dr == 0 && dc == 0) || (!diagonal && dr != 0 && dc != 0)) continue;
+        out[count++] = dr;
+        out[count++] = dc;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Writes the directions a canonical path may continue in after arriving at (r, c) from
+   * parent: the natural ones plus those towards forced neighbors.
+   */
+  private int prunedDirections(int r, int c, int parent, int[] out) {
+    int dr = Integer.signum(r - parent / cols);
+    int dc = Integer.signum(c - parent % cols);
+    int count = 0;
+    if (diagonal) {
+      if (dr != 0 && dc != 0) {
+        count = add(out, count, dr, 0);
+        count = add(out, count, 0, dc);
+        count = add(out, count, dr, dc);
+        if (!free(r, c - dc) && free(r + dr, c - dc)) count = add(out, count, dr, -dc);
+        if (!free(r - dr, c) && free(r - dr, c + dc)) count = add(out, count, -dr, dc);
+      } else if (dr == 0) {
+        count = add(out, count, 0, dc);
+        for (int side = -1; side <= 1; side += 2) {
+          if (!free(r + side, c) && free(r + side, c + dc)) count = add(out, count, side, dc);
+        }
+      } else {
+        count = add(out, count, dr, 0);
+        for (int side = -1; side <= 1; side += 2) {
+          if (!free(r, c + side) && free(r + dr, c + side)) count = add(out, count, dr, side);
+        }
+      }
+    } else if (dr != 0) {
+      count = add(out, count, dr, 0);
+      count = add(out, count, 0, 1);
+      count = add(out, count, 0, -1);
+    } else {
+      count = add(out, count, 0, dc);
+      for (int side = -1; side <= 1; side += 2) {
+        if (forcedSideways(r, c, dc, side)) count = add(out, count, side, 0);
+      }
+    }
+    return count;
+  }
+
+  private static int add(int[] out, int count, int dr, int dc) {
+    out[count] = dr;
+    out[count + 1] = dc;
+    return count + 2;
+  }
+
+  /**
+   * Four directions: moving horizontally by dc into (r, c), the cell on the given side is
+   * forced when the cell beside it, one step back, is blocked, since a vertical-first path
+   * would otherwise have reached it.
+   */
+  private boolean forcedSideways(int r, int c, int dc, int side) {
+    return !free(r + side, c - dc) && free(r + side, c);
+  }
+
+  /**
+   * Returns the first jump point from (r, c) in direction (dr, dc), or -1 if the line runs
+   * into an obstacle or off the board first.
+   */
+  private int jump(int r, int c, int dr, int dc) {
+    while (true) {
+      r += dr;
+      c += dc;
+      if (!free(r, c)) return -1;
+      if (r == goalRow && c == goalCol) return r * cols + c;
+      if (diagonal) {
+        if (dr != 0 && dc != 0) {
+          if ((!free(r, c - dc) && free(r + dr, c - dc)) || (!free(r - dr, c) && free(r - dr, c + dc))) return r * cols + c;
+          if (jump(r, c, dr, 0) >= 0 || jump(r, c, 0, dc) >= 0) return r * cols + c;
+        } else if (dr == 0) {
+          if ((!free(r - 1, c) && free(r - 1, c + dc)) || (!free(r + 1, c) && free(r + 1, c + dc))) return r * cols + c;
+        } else {
+          if ((!free(r, c - 1) && free(r + dr, c - 1)) || (!free(r, c + 1) && free(r + dr, c + 1))) return r * cols + c;
+        }
+      } else if (dr != 0) {
+        if (jump(r, c, 0, 1) >= 0 || jump(r, c, 0, -1) >= 0) return r * cols + c;
+      } else {
+        if (forcedSideways(r, c, dc, -1) || forcedSideways(r, c, dc, 1)) return r * cols + c;
+      }
+    }
+  }
+
+  private double heuristic(int r, int c) {
+    return distance(r, c, goalRow, goalCol);
+  }
+
+  private double distance(int r1, int c1, int r2, int c2) {
+    int dr = Math.abs(r1 - r2);
+    int dc = Math.abs(c1 - c2);
+    if (!diagonal) return dr + dc;
+    return Math.max(dr, dc) + (SQRT2 - 1) * Math.min(dr, dc);
+  }
+
+  /**
+   * Walks the parent chain of jump points back from t and fills in the cells between them.
+   */
+  private List<int[]> unpack(int s, int t) {
+    List<int[]> cells = new ArrayList<>();
+    for (int v = t; ; v = parentCell[nodeOf.get(v, -1)]) {
+      int r = v / cols;
+      int c = v % cols;
+      cells.add(new int[] {r, c});
+      if (v == s) break;
+      int parent = parentCell[nodeOf.get(v, -1)];
+      int pr = parent / cols;
+      int pc = parent % cols;
+      int dr = Integer.signum(pr - r);
+      int dc = Integer.signum(pc - c);
+      for (r += dr, c += dc; r != pr || c != pc; r += dr, c += dc) {
+        cells.add(new int[] {r, c});
+      }
+    }
+    Collections.reverse(cells);
+    return cells;
+  }
+}
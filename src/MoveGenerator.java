@@ -0,0 +1,272 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * nextMoves for a whole population of agents in one call.
+ *
+ * The generator copies the board once into a flat array with a border of 'X' cells as wide as
+ * the longest direction, so every move from a cell on the board lands on the padded array and a
+ * move is legal exactly when the padded cell is not an 'X'. Each direction becomes a fixed
+ * offset, and checking a move is one array read and compare with no bounds checks or branches
+ * on the row length. Jagged boards are padded out with 'X', which matches possibleMoves checking
+ * each row's own length.
+ *
+ * generate runs two passes over the agents in parallel chunks on a ForkJoinPool. The first
+ * records which directions are legal for each agent in a bitmask and counts them, a prefix sum
+ * over the counts gives each agent's place in the output, and the second decodes the bitmasks
+ * straight into the output arrays. The result is structure-of-arrays: offsets per agent and the
+ * rows and columns of all moves, with no object per move.
+ *
+ * The board is read once; build a new generator after editing it.
+ */
+public final class MoveGenerator {
+  private static final int CHUNK = 2048;
+
+  private final char[] padded;
+  private final int pad;
+  private final int width;
+  private final int rows;
+  private final int cols;
+  private final int[][] directions;
+  private final int[] delta;
+  private final int words;
+
+  /**
+   * Constructs a generator for a board and set of directions.
+   *
+   * @param board an array where 'X' represent an impassible location
+   * @param directions an array of [row, column] possible directions
+   */
+  public MoveGenerator(char[][] board, int[][] directions) {
+    int longest = 0;
+    for (int[] direction : directions) {
+      longest = Math.max(longest, Math.max(Math.abs(direction[0]), Math.abs(direction[1])));
+    }
+    this.pad = longest;
+    this.rows = board.length;
+    int maxCols = 0;
+    for (char[] row : board) {
+      maxCols = Math.max(maxCols, row.length);
+    }
+    this.cols = maxCols;
+    this.width = cols + 2 * pad;
+    this.padded = new char[(rows + 2 * pad) * width];
+    Arrays.fill(padded, 'X');
+    for (int r = 0; r < rows; r++) {
+      System.arraycopy(board[r], 0, padded, (r + pad) * width + pad, board[r].length);
+    }
+    this.directions = directions.clone();
+    this.delta = new int[directions.length];
+    for (int d = 0; d < directions.length; d++) {
+      delta[d] = directions[d][0] * width + directions[d][1];
+    }
+    this.words = Math.max(1, (directions.length + 63) >>> 6);
+  }
+
+  /**
+   * Generates the moves of every agent on the common pool.
+   *
+   * @param agentRows the row of each agent
+   * @param agentCols the column of each agent, at the same index
+   * @return the moves, in the order nextMoves would list them
+   */
+  public Moves generate(int[] agentRows, int[] agentCols) {
+    return generate(agentRows, agentCols, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Generates the moves of every agent on the given pool.
+   *
+   * @param agentRows the row of each agent
+   * @param agentCols the column of each agent, at the same index
+   * @param pool the pool to run the chunks on
+   * @return the moves, in the order nextMoves would list them
+   */
+  public Moves generate(int[] agentRows, int[] agentCols, ForkJoinPool pool) {
+    if (agentRows.length != agentCols.length) throw new IllegalArgumentException("Row and column counts differ");
+    int n = agentRows.length;
+    long[] legal = new long[n * words];
+    int[] offsets = new int[n + 1];
+    pool.invoke(new Chunk(this, agentRows, agentCols, legal, offsets, null, null, 0, n));
+    for (int i = 0; i < n; i++) {
+      offsets[i + 1] += offsets[i];
+    }
+    int[] moveRows = new int[offsets[n]];
+    int[] moveCols = new int[offsets[n]];
+    pool.invoke(new Chunk(this, agentRows, agentCols, legal, offsets, moveRows, moveCols, 0, n));
+    return new Moves(offsets, moveRows, moveCols);
+  }
+
+  /**
+   * First pass: sets the legal-direction bits of agents from to to and stores each agent's count
+   * at offsets[agent + 1].
+   */
+  private void mark(int[] agentRows, int[] agentCols, long[] legal, int[] offsets, int from, int to) {
+    for (int i = from; i < to; i++) {
+      int r = agentRows[i];
+      int c = agentCols[i];
+      int count = 0;
+      if (r >= 0 && r < rows && c >= 0 && c < cols) {
+        int base = (r + pad) * width + c + pad;
+        for (int d = 0; d < delta.length; d++) {
+          long bit = padded[base + delta[d]] != 'X' ? 1L : 0L;
+          legal[i * words + (d >>> 6)] |= bit << d;
+          count += (int) bit;
+        }
+      } else {
+        // Off the board, where the padding does not reach; check each move the slow way.
+        for (int d = 0; d < delta.length; d++) {
+          if (isFree(r + directions[d][0], c + directions[d][1])) {
+            legal[i * words + (d >>> 6)] |= 1L << d;
+            count++;
+          }
+        }
+      }
+      offsets[i + 1] = count;
+    }
+  }
+
+  private boolean isFree(int r, int c) {
+    return r >= 0 && r < rows && c >= 0 && c < cols && padded[(r + pad) * width + c + pad] != 'X';
+  }
+
+  /**
+   * Second pass: writes the moves of agents from to to at their offsets.
+   */
+  private void fill(int[] agentRows, int[] agentCols, long[] legal, int[] offsets, int[] moveRows, int[] moveCols,
+      int from, int to) {
+    for (int i = from; i < to; i++) {
+      int out = offsets[i];
+      for (int w = 0; w < words; w++) {
+        long bits = legal[i * words + w];
+        while (bits != 0) {
+          int d = (w << 6) + Long.numberOfTrailingZeros(bits);
+          bits &= bits - 1;
+          moveRows[out] = agentRows[i] + directions[d][0];
+          moveCols[out] = agentCols[i] + directions[d][1];
+          out++;
+        }
+      }
+    }
+  }
+
+  private static final class Chunk extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final MoveGenerator generator;
+    private final int[] agentRows;
+    private final int[] agentCols;
+    private final long[] legal;
+    private final int[] offsets;
+    private final int[] moveRows;
+    private final int[] moveCols;
+    private final int from;
+    private final int to;
+
+    Chunk(MoveGenerator generator, int[] agentRows, int[] agentCols, long[] legal, int[] offsets, int[] moveRows,
+        int[] moveCols, int from, int to) {
+      this.generator = generator;
+      this.agentRows = agentRows;
+      this.agentCols = agentCols;
+      this.legal = legal;
+      this.offsets = offsets;
+      this.moveRows = moveRows;
+      this.moveCols = moveCols;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > CHUNK) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new Chunk(generator, agentRows, agentCols, legal, offsets, moveRows, moveCols, from, middle),
+            new Chunk(generator, agentRows, agentCols, legal, offsets, moveRows, moveCols, middle, to));
+      } else if (moveRows == null) {
+        generator.mark(agentRows, agentCols, legal, offsets, from, to);
+      } else {
+        generator.fill(agentRows, agentCols, legal, offsets, moveRows, moveCols, from, to);
+      }
+    }
+  }
+
+  /**
+   * The legal moves of a batch of agents. Agent i's moves are at indices offsets()[i] up to
+   * offsets()[i + 1] of rows() and cols().
+   */
+  public static final class Moves {
+    private final int[] offsets;
+    private final int[] rows;
+    private final int[] cols;
+
+    Moves(int[] offsets, int[] rows, int[] cols) {
+      this.offsets = offsets;
+      this.rows = rows;
+      this.cols = cols;
+    }
+
+    /**
+     * Returns the number of agents.
+     *
+     * @return the number of agents
+     */
+    public int agentCount() {
+      return offsets.length - 1;
+    }
+
+    /**
+     * Returns the number of legal moves of an agent.
+     *
+     * @param agent the agent's index in the batch
+     * @return the number of moves
+     */
+    public int moveCount(int agent) {
+      return offsets[agent + 1] - offsets[agent];
+    }
+
+    /**
+     * Returns the start of each agent's moves, with the total number of moves at the end. The
+     * array is not copied and must not be modified.
+     *
+     * @return the offsets, one more than the number of agents
+     */
+    public int[] offsets() {
+      return offsets;
+    }
+
+    /**
+     * Returns the row of every move. The array is not copied and must not be modified.
+     *
+     * @return the rows
+     */
+    public int[] rows() {
+      return rows;
+    }
+
+    /**
+     * Returns the column of every move. The array is not copied and must not be modified.
+     *
+     * @return the columns
+     */
+    public int[] cols() {
+      return cols;
+    }
+
+    /**
+     * Returns an agent's moves in the form nextMoves returns them.
+     *
+     * @param agent the agent's index in the batch
+     * @return the [row, column] moves
+     */
+    public List<int[]> moves(int agent) {
+      List<int[]> moves = new ArrayList<>(moveCount(agent));
+      for (int i = offsets[agent]; i < offsets[agent + 1]; i++) {
+        moves.add(new int[] {rows[i], cols[i]});
+      }
+      return moves;
+    }
+  }
+}
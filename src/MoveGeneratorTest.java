@@ -0,0 +1,67 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+public class MoveGeneratorTest {
+  private static final int[][] FOUR = {{0, 1}, {-1, 0}, {1, 0}, {0, -1}};
+  private static final int[][] KNIGHT = {{1, 2}, {2, 1}, {-1, 2}, {-2, 1}, {1, -2}, {2, -1}, {-1, -2}, {-2, -1}};
+
+  private static void assertMatchesNextMoves(char[][] board, int[][] directions, int[] rows, int[] cols,
+      MoveGenerator.Moves moves) {
+    assertEquals(rows.length, moves.agentCount());
+    for (int i = 0; i < rows.length; i++) {
+      List<int[]> expected = Practice.nextMoves(board, new int[] {rows[i], cols[i]}, directions);
+      List<int[]> actual = moves.moves(i);
+      assertEquals(expected.size(), moves.moveCount(i));
+      for (int j = 0; j < expected.size(); j++) {
+        assertArrayEquals(expected.get(j), actual.get(j));
+      }
+    }
+  }
+
+  @Test
+  public void testMatchesNextMovesForEveryAgent() {
+    Random random = new Random(46);
+    // 70 directions, so the legal moves of an agent take two words.
+    int[][] wide = new int[70][];
+    for (int d = 0; d < wide.length; d++) wide[d] = new int[] {random.nextInt(9) - 4, random.nextInt(9) - 4};
+    for (int[][] directions : List.of(FOUR, KNIGHT, wide)) {
+      char[][] board = new char[40][60];
+      for (char[] row : board) {
+        for (int c = 0; c < row.length; c++) row[c] = random.nextInt(4) == 0 ? 'X' : ' ';
+      }
+      int agents = 10000;
+      int[] rows = new int[agents];
+      int[] cols = new int[agents];
+      for (int i = 0; i < agents; i++) {
+        // Some agents stand off the board, which nextMoves allows.
+        rows[i] = random.nextInt(46) - 3;
+        cols[i] = random.nextInt(66) - 3;
+      }
+      MoveGenerator generator = new MoveGenerator(board, directions);
+      assertMatchesNextMoves(board, directions, rows, cols, generator.generate(rows, cols));
+      ForkJoinPool pool = new ForkJoinPool(3);
+      try {
+        assertMatchesNextMoves(board, directions, rows, cols, generator.generate(rows, cols, pool));
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+
+  @Test
+  public void testJaggedBoardsAndPackedLayout() {
+    char[][] board = {"  ".toCharArray(), "    ".toCharArray(), " X ".toCharArray()};
+    int[] rows = {0, 1, 2};
+    int[] cols = {1, 2, 2};
+    MoveGenerator.Moves moves = new MoveGenerator(board, FOUR).generate(rows, cols);
+    assertMatchesNextMoves(board, FOUR, rows, cols, moves);
+    int[] offsets = moves.offsets();
+    assertEquals(4, offsets.length);
+    assertEquals(0, offsets[0]);
+    assertEquals(moves.rows().length, offsets[3]);
+    assertEquals(moves.cols().length, offsets[3]);
+    assertEquals(0, new MoveGenerator(board, FOUR).generate(new int[0], new int[0]).agentCount());
+  }
+}
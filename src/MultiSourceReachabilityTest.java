@@ -0,0 +1,64 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class MultiSourceReachabilityTest {
+
+  private static Map<Integer, Set<Integer>> randomGraph(Random random, int vertices, int edges) {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    for (int v = 0; v < vertices; v++) graph.put(v, new HashSet<>());
+    for (int i = 0; i < edges; i++) graph.get(random.nextInt(vertices)).add(random.nextInt(vertices));
+    return graph;
+  }
+
+  @Test
+  public void testMatchesPracticeForManyStarts() {
+    Random random = new Random(35);
+    Map<Integer, Set<Integer>> graph = randomGraph(random, 300, 330);
+    // More than 64 starts, including repeats and a missing vertex, to cross batch boundaries.
+    int[] starts = new int[150];
+    for (int j = 0; j < starts.length; j++) starts[j] = random.nextInt(310);
+    starts[7] = starts[100];
+
+    List<List<Integer>> all = MultiSourceReachability.sortedReachable(graph, starts);
+    assertEquals(starts.length, all.size());
+    for (int j = 0; j < starts.length; j++) {
+      assertEquals(Practice.sortedReachable(graph, starts[j]), all.get(j), "start " + starts[j]);
+    }
+  }
+
+  @Test
+  public void testReachableCounts() {
+    Random random = new Random(7);
+    CsrGraph graph = CsrGraph.fromMap(randomGraph(random, 200, 260));
+    StronglyConnectedComponents components = StronglyConnectedComponents.of(graph);
+    int[] starts = new int[100];
+    for (int j = 0; j < starts.length; j++) starts[j] = j * 2;
+
+    long[] counts = MultiSourceReachability.reachableCounts(graph, components, starts);
+    for (int j = 0; j < starts.length; j++) {
+      assertEquals(CompactGraphs.sortedReachable(graph, starts[j]).size(), counts[j]);
+    }
+  }
+
+  @Test
+  public void testComponentsOfCycleAndTail() {
+    // 1 -> 2 -> 3 -> 1 form one component; 3 -> 4 leads to a sink component.
+    Map<Integer, Set<Integer>> map = new HashMap<>();
+    map.put(1, new HashSet<>(Arrays.asList(2)));
+    map.put(2, new HashSet<>(Arrays.asList(3)));
+    map.put(3, new HashSet<>(Arrays.asList(1, 4)));
+    map.put(4, new HashSet<>());
+    CsrGraph graph = CsrGraph.fromMap(map);
+    StronglyConnectedComponents components = StronglyConnectedComponents.of(graph);
+
+    assertEquals(2, components.componentCount());
+    int cycle = components.component(graph.indexOf(1));
+    int sink = components.component(graph.indexOf(4));
+    assertEquals(cycle, components.component(graph.indexOf(3)));
+    assertEquals(3, components.size(cycle));
+    assertEquals(1, components.successorCount(cycle));
+    assertEquals(sink, components.successor(cycle, 0));
+    assertTrue(sink < cycle);
+  }
+}
@@ -0,0 +1,172 @@
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+/**
+ * The connected components of a Professional population, treating connections as undirected.
+ *
+ * The components are labelled once with a ConcurrentUnionFind, the edges being united in
+ * parallel, and then kept up to date as connections are added with connect. sameNetwork is a
+ * pair of near-constant-time finds, and each component's root carries aggregates (size, total
+ * years of experience, head count per company) that are merged when two components join, so
+ * per-component questions are answered without visiting the members.
+ *
+ * Lookups are lock-free and may run alongside connect. connect and the aggregate queries
+ * synchronize on this object, so aggregates are always read in a consistent state.
+ */
+public class NetworkComponents {
+  private final ProfessionalNetwork network;
+  private final ConcurrentUnionFind sets;
+  private final int[] size;
+  private final long[] totalYears;
+  private final IntIntHashMap[] companyCounts;
+  private int componentCount;
+
+  private NetworkComponents(ProfessionalNetwork network) {
+    this.network = network;
+    CsrGraph graph = network.graph();
+    int n = graph.vertexCount();
+    this.sets = new ConcurrentUnionFind(n);
+    IntStream.range(0, n).parallel().forEach(v -> {
+      for (long e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+        sets.union(v, graph.target(e));
+      }
+    });
+
+    this.size = new int[n];
+    this.totalYears = new long[n];
+    this.companyCounts = new IntIntHashMap[n];
+    for (int v = 0; v < n; v++) {
+      int root = sets.find(v);
+      if (size[root]++ == 0) {
+        componentCount++;
+        companyCounts[root] = new IntIntHashMap();
+      }
+      totalYears[root] += network.professional(v).getYearsOfExperience();
+      if (network.company(v) >= 0) companyCounts[root].addTo(network.company(v), 1);
+    }
+  }
+
+  /**
+   * Labels the components of everyone reachable from the given professionals.
+   *
+   * @param population the professionals to include, with everyone they are connected to
+   * @return the components
+   */
+  public static NetworkComponents of(Collection<Professional> population) {
+    return new NetworkComponents(ProfessionalNetwork.of(population));
+  }
+
+  private int indexOf(Professional person) {
+    int v = network.indexOf(person);
+    if (v < 0) throw new IllegalArgumentException("Professional is not part of this population");
+    return v;
+  }
+
+  /**
+   * Returns whether two professionals are in the same network, following connections in either
+   * direction. A professional outside the population is in no network.
+   *
+   * @param a a professional
+   * @param b a professional
+   * @return whether a and b are connected
+   */
+  public boolean sameNetwork(Professional a, Professional b) {
+    int va = network.indexOf(a);
+    int vb = network.indexOf(b);
+    return va >= 0 && vb >= 0 && sets.sameSet(va, vb);
+  }
+
+  /**
+   * Records a new connection between two members of the population. The Professional objects
+   * themselves are not modified.
+   *
+   * @param a a professional
+   * @param b a professional
+   * @return whether the connection joined two different networks
+   * @throws IllegalArgumentException if either professional is not part of the population
+   */
+  public synchronized boolean connect(Professional a, Professional b) {
+    int linked = sets.union(indexOf(a), indexOf(b));
+    if (linked < 0) return false;
+    int root = sets.find(linked);
+    size[root] += size[linked];
+    totalYears[root] += totalYears[linked];
+    // Merge the smaller count table into the larger one.
+    if (companyCounts[root].size() < companyCounts[linked].size()) {
+      IntIntHashMap swap = companyCounts[root];
+      companyCounts[root] = companyCounts[linked];
+      companyCounts[linked] = swap;
+    }
+    companyCounts[root].addAll(companyCounts[linked]);
+    companyCounts[linked] = null;
+    componentCount--;
+    return true;
+  }
+
+  /**
+   * Returns the number of networks in the population.
+   *
+   * @return the number of components
+   */
+  public synchronized int componentCount() {
+    return componentCount;
+  }
+
+  /**
+   * Returns how many professionals are in the network of the given one, including themself.
+   *
+   * @param person a member of the population
+   * @return the size of their component
+   */
+  public synchronized int networkSize(Professional person) {
+    return size[sets.find(indexOf(person))];
+  }
+
+  /**
+   * Returns the average years of experience across the network of the given professional.
+   *
+   * @param person a member of the population
+   * @return the average experience in their component
+   */
+  public synchronized double averageExperience(Professional person) {
+    int root = sets.find(indexOf(person));
+    return (double) totalYears[root] / size[root];
+  }
+
+  /**
+   * Returns how many people in the network of the given professional work at a company.
+   *
+   * @param person a member of the population
+   * @param companyName the company
+   * @return the head count at that company in their component
+   */
+  public synchronized int employeesAt(Professional person, String companyName) {
+    int code = network.companyCode(companyName);
+    if (code < 0) return 0;
+    return companyCounts[sets.find(indexOf(person))].get(code, 0);
+  }
+
+  /**
+   * Returns how many different companies employ someone in the network of the given
+   * professional, read from the component's head count table.
+   *
+   * @param person a member of the population
+   * @return the number of distinct companies in their component
+   */
+  public synchronized int distinctCompanies(Professional person) {
+    return companyCounts[sets.find(indexOf(person))].size();
+  }
+
+  /**
+   * Answers hasExtendedConnectionAtCompany from the component aggregates. This equals
+   * Practice.hasExtendedConnectionAtCompany when every connection is recorded in both
+   * directions, which is how professional networks behave.
+   *
+   * @param person the professional to start from (may be null)
+   * @param companyName the name of the company to check for employment
+   * @return true if someone in the network works at the company
+   */
+  public boolean hasExtendedConnectionAtCompany(Professional person, String companyName) {
+    return person != null && network.indexOf(person) >= 0 && employeesAt(person, companyName) > 0;
+  }
+}
@@ -0,0 +1,137 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class NetworkComponentsTest {
+
+  // Connections are added in both directions, as in a real professional network.
+  private static List<Professional> symmetricNetwork(Random random, int n, int links) {
+    String[] companies = {"Tech Solutions", "Global Inc.", "Other Corp", "FutureTech"};
+    List<Professional> people = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      people.add(new Professional("P" + i, companies[random.nextInt(companies.length)], random.nextInt(30), new HashSet<>()));
+    }
+    for (int i = 0; i < links; i++) {
+      Professional a = people.get(random.nextInt(n));
+      Professional b = people.get(random.nextInt(n));
+      a.getConnections().add(b);
+      b.getConnections().add(a);
+    }
+    return people;
+  }
+
+  private static int naiveFind(int[] parent, int x) {
+    while (parent[x] != x) x = parent[x];
+    return x;
+  }
+
+  @Test
+  public void testConcurrentUnionsMatchSequential() throws Exception {
+    int n = 20_000;
+    Random random = new Random(42);
+    int[][] pairs = new int[15_000][];
+    int[] parent = new int[n];
+    for (int i = 0; i < n; i++) parent[i] = i;
+    for (int i = 0; i < pairs.length; i++) {
+      pairs[i] = new int[] {random.nextInt(n), random.nextInt(n)};
+      parent[naiveFind(parent, pairs[i][0])] = naiveFind(parent, pairs[i][1]);
+    }
+
+    ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> merges = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        int offset = t;
+        merges.add(pool.submit(() -> {
+          int merged = 0;
+          for (int i = offset; i < pairs.length; i += 8) {
+            if (sets.union(pairs[i][0], pairs[i][1]) >= 0) merged++;
+          }
+          return merged;
+        }));
+      }
+      int merged = 0;
+      for (Future<Integer> f : merges) merged += f.get();
+
+      int roots = 0;
+      for (int i = 0; i < n; i++) if (parent[i] == i) roots++;
+      assertEquals(n - roots, merged);
+      for (int i = 0; i < 2000; i++) {
+        int a = random.nextInt(n);
+        int b = random.nextInt(n);
+        assertEquals(naiveFind(parent, a) == naiveFind(parent, b), sets.sameSet(a, b));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testMatchesPracticeOnSymmetricNetworks() {
+    Random random = new Random(1);
+    List<Professional> people = symmetricNetwork(random, 300, 200);
+    NetworkComponents components = NetworkComponents.of(people);
+    for (Professional p : people) {
+      for (String company : List.of("Global Inc.", "FutureTech", "Nowhere")) {
+        assertEquals(Practice.hasExtendedConnectionAtCompany(p, company), components.hasExtendedConnectionAtCompany(p, company));
+      }
+    }
+    ProfessionalNetwork network = ProfessionalNetwork.of(people);
+    for (int i = 0; i < 200; i++) {
+      Professional a = people.get(random.nextInt(people.size()));
+      Professional b = people.get(random.nextInt(people.size()));
+      assertEquals(network.extendedNetwork(a).contains(b), components.sameNetwork(a, b));
+    }
+    assertFalse(components.hasExtendedConnectionAtCompany(null, "FutureTech"));
+  }
+
+  @Test
+  public void testAggregatesFollowConnect() {
+    Professional a = new Professional("A", "Tech Solutions", 2, new HashSet<>());
+    Professional b = new Professional("B", "Global Inc.", 4, new HashSet<>());
+    Professional c = new Professional("C", "Tech Solutions", 9, new HashSet<>());
+    a.getConnections().add(b);
+    NetworkComponents components = NetworkComponents.of(List.of(a, c));
+    assertEquals(2, components.componentCount());
+    assertEquals(2, components.networkSize(b));
+    assertEquals(3.0, components.averageExperience(a));
+    assertEquals(1, components.employeesAt(a, "Tech Solutions"));
+    assertFalse(components.sameNetwork(a, c));
+
+    assertTrue(components.connect(c, b));
+    assertFalse(components.connect(a, c));
+    assertEquals(1, components.componentCount());
+    assertTrue(components.sameNetwork(a, c));
+    assertEquals(3, components.networkSize(c));
+    assertEquals(5.0, components.averageExperience(b));
+    assertEquals(2, components.employeesAt(b, "Tech Solutions"));
+    assertEquals(0, components.employeesAt(b, "Nowhere"));
+
+    Professional stranger = new Professional("D", "Other Corp", 1, new HashSet<>());
+    assertFalse(components.sameNetwork(a, stranger));
+    assertThrows(IllegalArgumentException.class, () -> components.connect(a, stranger));
+  }
+
+  @Test
+  public void testConcurrentConnects() throws Exception {
+    Random random = new Random(5);
+    List<Professional> people = symmetricNetwork(random, 2000, 0);
+    NetworkComponents components = NetworkComponents.of(people);
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> tasks = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        tasks.add(pool.submit(() -> {
+          for (int i = 0; i < 1999; i++) components.connect(people.get(i), people.get(i + 1));
+        }));
+      }
+      for (Future<?> task : tasks) task.get();
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(1, components.componentCount());
+    assertEquals(2000, components.networkSize(people.get(0)));
+  }
+}
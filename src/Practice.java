@@ -1,8 +1,13 @@
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 
 public class Practice {
@@ -47,6 +52,53 @@ public class Practice {
     return oddCount;
   }
 
+  /**
+   * Same as oddVertices(Vertex), but stops as soon as the budget is exceeded.
+   * In that case the returned count only covers the vertices visited so far,
+   * and budget.isExceeded() returns true.
+   *
+   * @param starting the starting vertex (may be null)
+   * @param budget the work limit for this call
+   * @return the number of odd vertices visited before the traversal finished or stopped
+   */
+  public static int oddVertices(Vertex<Integer> starting, TraversalBudget budget) {
+    Set<Vertex<Integer>> visited = new HashSet<>();
+    return oddVerticesHelper(starting, visited, budget);
+  }
+
+  public static int oddVerticesHelper(Vertex<Integer> starting, Set<Vertex<Integer>> visited, TraversalBudget budget) {
+    if (visited.contains(starting) || starting == null) return 0;
+    if (!budget.tryVisitVertex()) return 0;
+
+    visited.add(starting);
+
+    int oddCount = 0;
+    if (starting.data % 2 != 0) oddCount += 1;
+
+    // A stack of neighbor iterators visits vertices in the same order as the recursion would,
+    // without a stack frame per vertex, so a huge component ends in the budget, not a
+    // StackOverflowError.
+    Deque<Iterator<Vertex<Integer>>> stack = new ArrayDeque<>();
+    stack.push(starting.neighbors.iterator());
+    while (!stack.isEmpty()) {
+      Iterator<Vertex<Integer>> neighbors = stack.peek();
+      if (!neighbors.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      if (!budget.tryVisitEdge()) return oddCount;
+      Vertex<Integer> neighbor = neighbors.next();
+      if (visited.contains(neighbor) || neighbor == null) continue;
+      if (!budget.tryVisitVertex()) return oddCount;
+
+      visited.add(neighbor);
+      if (neighbor.data % 2 != 0) oddCount += 1;
+      stack.push(neighbor.neighbors.iterator());
+    }
+
+    return oddCount;
+  }
+
   /**
    * Returns a *sorted* list of all values reachable from the starting vertex (including the starting vertex itself).
    * If duplicate vertex data exists, duplicates should appear in the output.
@@ -88,6 +140,54 @@ public class Practice {
     }
   }
 
+  /**
+   * Same as sortedReachable(Vertex), but stops as soon as the budget is exceeded.
+   * In that case the returned list holds the sorted values of the vertices visited so far,
+   * and budget.isExceeded() returns true.
+   *
+   * @param starting the starting vertex (may be null)
+   * @param budget the work limit for this call
+   * @return a sorted list of the reachable vertex values visited
+   */
+  public static List<Integer> sortedReachable(Vertex<Integer> starting, TraversalBudget budget) {
+    if (starting == null) return new ArrayList<>();
+
+    List<Integer> sortedList = new ArrayList<>();
+    Set<Vertex<Integer>> visited = new HashSet<>();
+    sortedReachableHelper(starting, visited, sortedList, budget);
+
+    Collections.sort(sortedList);
+
+    return sortedList;
+  }
+
+  public static void sortedReachableHelper(Vertex<Integer> starting, Set<Vertex<Integer>> visited, List<Integer> sortedList, TraversalBudget budget) {
+    if (visited.contains(starting)) return;
+    if (!budget.tryVisitVertex()) return;
+
+    visited.add(starting);
+    sortedList.add(starting.data);
+
+    // Iterative, in the recursion's order; see oddVerticesHelper.
+    Deque<Iterator<Vertex<Integer>>> stack = new ArrayDeque<>();
+    stack.push(starting.neighbors.iterator());
+    while (!stack.isEmpty()) {
+      Iterator<Vertex<Integer>> neighbors = stack.peek();
+      if (!neighbors.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      if (!budget.tryVisitEdge()) return;
+      Vertex<Integer> neighbor = neighbors.next();
+      if (visited.contains(neighbor)) continue;
+      if (!budget.tryVisitVertex()) return;
+
+      visited.add(neighbor);
+      sortedList.add(neighbor.data);
+      stack.push(neighbor.neighbors.iterator());
+    }
+  }
+
   /**
    * Returns a sorted list of all values reachable from the given starting vertex in the provided graph.
    * The graph is represented as a map where each key is a vertex and its corresponding value is a set of neighbors.
@@ -119,6 +219,53 @@ public class Practice {
     }
   }
 
+  /**
+   * Same as sortedReachable(Map, int), but stops as soon as the budget is exceeded.
+   * In that case the returned list holds the sorted values of the vertices visited so far,
+   * and budget.isExceeded() returns true.
+   *
+   * @param graph a map representing the graph
+   * @param starting the starting vertex value
+   * @param budget the work limit for this call
+   * @return a sorted list of the reachable vertex values visited
+   */
+  public static List<Integer> sortedReachable(Map<Integer, Set<Integer>> graph, int starting, TraversalBudget budget) {
+    if (!graph.containsKey(starting)) return new ArrayList<>();
+    List<Integer> sortedList = new ArrayList<>();
+    Set<Integer> visited = new HashSet<>();
+    sortedReachableMapHelper(graph, starting, sortedList, visited, budget);
+    Collections.sort(sortedList);
+
+    return sortedList;
+  }
+
+  public static void sortedReachableMapHelper(Map<Integer, Set<Integer>> graph, int starting, List<Integer> sortedList, Set<Integer> visited, TraversalBudget budget) {
+    if (!graph.containsKey(starting) || visited.contains(starting)) return;
+    if (!budget.tryVisitVertex()) return;
+
+    visited.add(starting);
+    sortedList.add(starting);
+
+    // Iterative, in the recursion's order; see oddVerticesHelper.
+    Deque<Iterator<Integer>> stack = new ArrayDeque<>();
+    stack.push(graph.get(starting).iterator());
+    while (!stack.isEmpty()) {
+      Iterator<Integer> neighbors = stack.peek();
+      if (!neighbors.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      if (!budget.tryVisitEdge()) return;
+      int neighbor = neighbors.next();
+      if (!graph.containsKey(neighbor) || visited.contains(neighbor)) continue;
+      if (!budget.tryVisitVertex()) return;
+
+      visited.add(neighbor);
+      sortedList.add(neighbor);
+      stack.push(graph.get(neighbor).iterator());
+    }
+  }
+
   /**
    * Returns true if and only if it is possible both to reach v2 from v1 and to reach v1 from v2.
    * A vertex is always considered reachable from itself.
@@ -166,6 +313,53 @@ public class Practice {
     return false;
   }
 
+  /**
+   * Same as twoWay(Vertex, Vertex), but stops as soon as the budget is exceeded.
+   * In that case the method returns false and budget.isExceeded() returns true,
+   * meaning the answer is unknown rather than negative.
+   *
+   * @param <T> the type of data stored in the vertex
+   * @param v1 the starting vertex
+   * @param v2 the target vertex
+   * @param budget the work limit for this call
+   * @return true if a two-way connection was found within the budget
+   */
+  public static <T> boolean twoWay(Vertex<T> v1, Vertex<T> v2, TraversalBudget budget) {
+    if (v1 == null || v2 == null) return false;
+    Set<Vertex<T>> visited = new HashSet<>();
+    Set<Vertex<T>> secondVisited = new HashSet<>();
+    return twoWayHelper(v1, v2, visited, budget) && twoWayHelper(v2, v1, secondVisited, budget);
+  }
+
+  public static <T> boolean twoWayHelper(Vertex<T> v1, Vertex<T> v2, Set<Vertex<T>> visited, TraversalBudget budget) {
+    if (v1 == v2) return true;
+    if (visited.contains(v1)) return false;
+    if (!budget.tryVisitVertex()) return false;
+
+    visited.add(v1);
+
+    // Iterative, in the recursion's order; see oddVerticesHelper.
+    Deque<Iterator<Vertex<T>>> stack = new ArrayDeque<>();
+    stack.push(v1.neighbors.iterator());
+    while (!stack.isEmpty()) {
+      Iterator<Vertex<T>> neighbors = stack.peek();
+      if (!neighbors.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      if (!budget.tryVisitEdge()) return false;
+      Vertex<T> neighbor = neighbors.next();
+      if (neighbor == v2) return true;
+      if (visited.contains(neighbor)) continue;
+      if (!budget.tryVisitVertex()) return false;
+
+      visited.add(neighbor);
+      stack.push(neighbor.neighbors.iterator());
+    }
+
+    return false;
+  }
+
   /**
    * Returns whether there exists a path from the starting to ending vertex that includes only positive values.
    * 
@@ -198,6 +392,102 @@ public class Practice {
     return false;
   }
 
+  /**
+   * Same as positivePathExists(Map, int, int), but stops as soon as the budget is exceeded.
+   * In that case the method returns false and budget.isExceeded() returns true,
+   * meaning the answer is unknown rather than negative.
+   *
+   * @param graph a map representing the graph
+   * @param starting the starting vertex value
+   * @param ending the ending vertex value
+   * @param budget the work limit for this call
+   * @return whether a valid positive path was found within the budget
+   */
+  public static boolean positivePathExists(Map<Integer, Set<Integer>> graph, int starting, int ending, TraversalBudget budget) {
+    Set<Integer> visited = new HashSet<>();
+    return positivePathExistsHelper(graph, starting, ending, visited, budget);
+  }
+
+  public static boolean positivePathExistsHelper(Map<Integer, Set<Integer>> graph, int starting, int ending, Set<Integer> visited, TraversalBudget budget) {
+    if (!graph.containsKey(starting) || starting < 0 || ending < 0 || visited.contains(starting)) return false;
+    if (starting == ending) return true;
+    if (!budget.tryVisitVertex()) return false;
+
+    visited.add(starting);
+
+    // Iterative, in the recursion's order; see oddVerticesHelper.
+    Deque<Iterator<Integer>> stack = new ArrayDeque<>();
+    stack.push(graph.get(starting).iterator());
+    while (!stack.isEmpty()) {
+      Iterator<Integer> neighbors = stack.peek();
+      if (!neighbors.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      if (!budget.tryVisitEdge()) return false;
+      int neighbor = neighbors.next();
+      if (!graph.containsKey(neighbor) || neighbor < 0 || visited.contains(neighbor)) continue;
+      if (neighbor == ending) return true;
+      if (!budget.tryVisitVertex()) return false;
+
+      visited.add(neighbor);
+      stack.push(graph.get(neighbor).iterator());
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns a shortest path from the starting to ending vertex that includes only positive values,
+   * under the same rules as positivePathExists. The path lists the vertices in order, from
+   * starting to ending inclusive, so its hop count is size() - 1. A vertex is always reachable
+   * from itself, giving a single-vertex path.
+   * If no valid path exists, returns an empty list.
+   *
+   * Example:
+   * Consider a graph where:
+   *   1 -> {2, 5}
+   *   2 -> {3}
+   *   3 -> {4}
+   *   5 -> {-6, 4}
+   *   -6 -> {4}
+   *   4 -> {}
+   * The shortest positive path from 1 to 4 is [1, 5, 4], with 2 hops.
+   *
+   * @param graph a map representing the graph
+   * @param starting the starting vertex value
+   * @param ending the ending vertex value
+   * @return the vertices of a shortest valid positive path, or an empty list if there is none
+   */
+  public static List<Integer> positivePath(Map<Integer, Set<Integer>> graph, int starting, int ending) {
+    List<Integer> path = new ArrayList<>();
+    if (!graph.containsKey(starting) || !graph.containsKey(ending) || starting < 0 || ending < 0) return path;
+
+    Map<Integer, Integer> parent = new HashMap<>();
+    Queue<Integer> queue = new ArrayDeque<>();
+    parent.put(starting, starting);
+    queue.add(starting);
+
+    while (!queue.isEmpty() && !parent.containsKey(ending)) {
+      int current = queue.poll();
+      for (int neighbor : graph.get(current)) {
+        if (neighbor < 0 || !graph.containsKey(neighbor) || parent.containsKey(neighbor)) continue;
+        parent.put(neighbor, current);
+        if (neighbor == ending) break;
+        queue.add(neighbor);
+      }
+    }
+
+    if (!parent.containsKey(ending)) return path;
+    for (int vertex = ending; vertex != starting; vertex = parent.get(vertex)) {
+      path.add(vertex);
+    }
+    path.add(starting);
+    Collections.reverse(path);
+
+    return path;
+  }
+
   /**
    * Returns true if a professional has anyone in their extended network (reachable through any number of links)
    * that works for the given company. The search includes the professional themself.
@@ -225,6 +515,50 @@ public class Practice {
     return false;
   }
 
+  /**
+   * Same as hasExtendedConnectionAtCompany(Professional, String), but stops as soon as the
+   * budget is exceeded. In that case the method returns false and budget.isExceeded() returns
+   * true, meaning the answer is unknown rather than negative.
+   *
+   * @param person the professional to start the search from (may be null)
+   * @param companyName the name of the company to check for employment
+   * @param budget the work limit for this call
+   * @return true if a person in the extended network was found at the company within the budget
+   */
+  public static boolean hasExtendedConnectionAtCompany(Professional person, String companyName, TraversalBudget budget) {
+    Set<Professional> visited = new HashSet<>();
+    return hasExtendedConnectionAtCompanyHelper(person, companyName, visited, budget);
+  }
+
+  public static boolean hasExtendedConnectionAtCompanyHelper(Professional person, String companyName, Set<Professional> visited, TraversalBudget budget) {
+    if (person == null || visited.contains(person)) return false;
+    if (person.getCompany().equals(companyName)) return true;
+    if (!budget.tryVisitVertex()) return false;
+
+    visited.add(person);
+
+    // Iterative, in the recursion's order; see oddVerticesHelper.
+    Deque<Iterator<Professional>> stack = new ArrayDeque<>();
+    stack.push(person.getConnections().iterator());
+    while (!stack.isEmpty()) {
+      Iterator<Professional> connections = stack.peek();
+      if (!connections.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      if (!budget.tryVisitEdge()) return false;
+      Professional coworker = connections.next();
+      if (coworker == null || visited.contains(coworker)) continue;
+      if (coworker.getCompany().equals(companyName)) return true;
+      if (!budget.tryVisitVertex()) return false;
+
+      visited.add(coworker);
+      stack.push(coworker.getConnections().iterator());
+    }
+
+    return false;
+  }
+
   /**
    * Returns a list of possible next moves starting from a given position.
    * 
@@ -0,0 +1,128 @@
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.Supplier;
+
+public class PracticeAllocationTest {
+  private static final int N = 500;
+  private static final int WARMUP_CALLS = 2000;
+  private static final int MEASURED_CALLS = 500;
+  private static final int[][] FOUR = {{0, 1}, {-1, 0}, {1, 0}, {0, -1}};
+
+  // Results are stored here so the JIT cannot drop the calls being measured.
+  private static volatile Object sink;
+  private static long unitBytes;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Vertex<Integer>[] newVertexArray(int n) {
+    return new Vertex[n];
+  }
+
+  // Every vertex i points to i + 1 and to (7i + 3) mod N, so everything is reachable from 0.
+  private static Vertex<Integer>[] vertexGraph() {
+    Vertex<Integer>[] vertices = newVertexArray(N);
+    for (int i = 0; i < N; i++) vertices[i] = new Vertex<>(i);
+    for (int i = 0; i < N; i++) {
+      if (i + 1 < N) vertices[i].neighbors.add(vertices[i + 1]);
+      vertices[i].neighbors.add(vertices[(7 * i + 3) % N]);
+    }
+    return vertices;
+  }
+
+  private static Map<Integer, Set<Integer>> mapGraph() {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    for (int i = 0; i < N; i++) {
+      Set<Integer> neighbors = new HashSet<>();
+      if (i + 1 < N) neighbors.add(i + 1);
+      neighbors.add((7 * i + 3) % N);
+      graph.put(i, neighbors);
+    }
+    return graph;
+  }
+
+  private static Professional[] network() {
+    Professional[] people = new Professional[N];
+    for (int i = 0; i < N; i++) people[i] = new Professional("P" + i, "Company" + (i % 10), i % 30, new HashSet<>());
+    for (int i = 0; i < N; i++) {
+      Professional other = people[(7 * i + 3) % N];
+      if (i + 1 < N) {
+        people[i].getConnections().add(people[i + 1]);
+        people[i + 1].getConnections().add(people[i]);
+      }
+      people[i].getConnections().add(other);
+      other.getConnections().add(people[i]);
+    }
+    return people;
+  }
+
+  /**
+   * Returns the average number of bytes the current thread allocates per call, after warming
+   * the call up so the JIT has compiled it.
+   */
+  private static long bytesPerCall(Supplier<?> call) {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "allocation counting is not available");
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threads.isThreadAllocatedMemorySupported(), "allocation counting is not supported");
+    threads.setThreadAllocatedMemoryEnabled(true);
+    for (int i = 0; i < WARMUP_CALLS; i++) sink = call.get();
+    long thread = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < MEASURED_CALLS; i++) sink = call.get();
+    long after = threads.getThreadAllocatedBytes(thread);
+    return (after - before) / MEASURED_CALLS;
+  }
+
+  /**
+   * Returns what holding one boxed Integer in a HashSet costs in this JVM, averaged over a set
+   * of N. Object headers and references change size with the heap layout (compressed oops and
+   * class pointers), so budgets are measured in this unit rather than in bytes.
+   */
+  private static synchronized double unit() {
+    if (unitBytes == 0) {
+      unitBytes = bytesPerCall(() -> {
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < N; i++) set.add(Integer.valueOf(1000 + i));
+        return set;
+      });
+    }
+    return (double) unitBytes / N;
+  }
+
+  // Budgets are about 10% above what the code allocates today with escape analysis off, its
+  // worst case, across the compressed and uncompressed heap layouts, so boxing or an extra
+  // object per visited vertex pushes a call over.
+  private static void assertBudget(String name, double units, Supplier<?> call) {
+    long budget = (long) (units * unit());
+    long bytes = bytesPerCall(call);
+    assertTrue(bytes <= budget, name + " allocated " + bytes + " bytes per call, over its budget of " + budget);
+  }
+
+  @Test
+  public void testVertexTraversalBudgets() {
+    Vertex<Integer>[] vertices = vertexGraph();
+    assertBudget("oddVertices", 1.4 * N, () -> Practice.oddVertices(vertices[0]));
+    assertBudget("sortedReachable", 1.7 * N, () -> Practice.sortedReachable(vertices[0]));
+    assertBudget("twoWay", 2.8 * N, () -> Practice.twoWay(vertices[0], vertices[N - 1]));
+  }
+
+  @Test
+  public void testMapTraversalBudgets() {
+    Map<Integer, Set<Integer>> graph = mapGraph();
+    assertBudget("sortedReachableMap", 3.5 * N, () -> Practice.sortedReachable(graph, 0));
+    assertBudget("positivePathExists", 1.7 * N, () -> Practice.positivePathExists(graph, 0, N - 1));
+    assertBudget("positivePath", 3.6 * N, () -> Practice.positivePath(graph, 0, N - 1));
+  }
+
+  @Test
+  public void testNetworkAndBoardBudgets() {
+    Professional[] people = network();
+    assertBudget("hasExtendedConnectionAtCompany", 1.6 * N, () -> Practice.hasExtendedConnectionAtCompany(people[0], "Nowhere"));
+    char[][] board = new char[20][20];
+    for (char[] row : board) Arrays.fill(row, ' ');
+    board[5][6] = 'X';
+    assertBudget("nextMoves", 3.4, () -> Practice.nextMoves(board, new int[] {5, 5}, FOUR));
+  }
+}
@@ -997,4 +997,162 @@ public class PracticeTest {
     Set<String> actual = toSet(result);
     assertEquals(Collections.singleton("1,1"), actual);
   }
+
+  // --- Tests for the TraversalBudget overloads ---
+
+  @Test
+  public void testBudget_UnlimitedMatchesUnbudgeted() {
+    Vertex<Integer>[] vertices = createComplexGraph();
+    TraversalBudget budget = TraversalBudget.unlimited();
+    assertEquals(Practice.sortedReachable(vertices[0]), Practice.sortedReachable(vertices[0], budget));
+    assertFalse(budget.isExceeded());
+    assertEquals(5, Practice.oddVertices(vertices[0], TraversalBudget.unlimited()));
+  }
+
+  @Test
+  public void testBudget_VertexLimitReturnsPartialResult() {
+    Vertex<Integer>[] vertices = createComplexGraph();
+    TraversalBudget budget = TraversalBudget.unlimited().withMaxVertices(3);
+    List<Integer> partial = Practice.sortedReachable(vertices[0], budget);
+    assertEquals(3, partial.size());
+    assertTrue(budget.isExceeded());
+    assertEquals(TraversalBudget.Reason.VERTICES, budget.reason());
+  }
+
+  @Test
+  public void testBudget_MapGraphEdgeLimit() {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    graph.put(1, new HashSet<>(Arrays.asList(2, 3)));
+    graph.put(2, new HashSet<>(Arrays.asList(3)));
+    graph.put(3, new HashSet<>());
+    TraversalBudget budget = TraversalBudget.unlimited().withMaxEdges(0);
+    assertEquals(List.of(1), Practice.sortedReachable(graph, 1, budget));
+    assertEquals(TraversalBudget.Reason.EDGES, budget.reason());
+
+    assertTrue(Practice.positivePathExists(graph, 1, 3, TraversalBudget.unlimited()));
+    TraversalBudget tight = TraversalBudget.unlimited().withMaxVertices(0);
+    assertFalse(Practice.positivePathExists(graph, 1, 3, tight));
+    assertTrue(tight.isExceeded());
+  }
+
+  @Test
+  public void testBudget_CancellationStopsTraversal() {
+    // A long chain; the token is already set, so the traversal stops at the first check.
+    Professional head = new Professional("P0", "Other Corp", 1, new HashSet<>());
+    Professional current = head;
+    for (int i = 1; i < 500; i++) {
+      Professional next = new Professional("P" + i, "Other Corp", 1, new HashSet<>());
+      current.getConnections().add(next);
+      current = next;
+    }
+    Professional last = new Professional("Last", "Tech Solutions", 1, new HashSet<>());
+    current.getConnections().add(last);
+
+    assertTrue(Practice.hasExtendedConnectionAtCompany(head, "Tech Solutions", TraversalBudget.unlimited()));
+    TraversalBudget budget = TraversalBudget.unlimited().withCancellation(() -> true);
+    assertFalse(Practice.hasExtendedConnectionAtCompany(head, "Tech Solutions", budget));
+    assertEquals(TraversalBudget.Reason.CANCELLED, budget.reason());
+  }
+
+  @Test
+  public void testBudget_TwoWay() {
+    Vertex<Integer> v1 = new Vertex<>(1);
+    Vertex<Integer> v2 = new Vertex<>(2);
+    v1.neighbors.add(v2);
+    v2.neighbors.add(v1);
+    assertTrue(Practice.twoWay(v1, v2, TraversalBudget.unlimited()));
+    TraversalBudget budget = TraversalBudget.unlimited().withMaxVertices(1);
+    assertFalse(Practice.twoWay(v1, v2, budget));
+    assertTrue(budget.isExceeded());
+  }
+
+  @Test
+  public void testBudget_DeepChainDoesNotOverflowStack() {
+    int n = 200_000;
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    Vertex<Integer> head = new Vertex<>(0);
+    Vertex<Integer> current = head;
+    for (int i = 0; i < n; i++) {
+      graph.put(i, new HashSet<>(i + 1 < n ? List.of(i + 1) : List.of()));
+      if (i + 1 < n) {
+        Vertex<Integer> next = new Vertex<>(i + 1);
+        current.neighbors.add(next);
+        next.neighbors.add(current);
+        current = next;
+      }
+    }
+    assertEquals(n / 2, Practice.oddVertices(head, TraversalBudget.unlimited()));
+    assertEquals(n, Practice.sortedReachable(head, TraversalBudget.unlimited()).size());
+    assertEquals(n, Practice.sortedReachable(graph, 0, TraversalBudget.unlimited()).size());
+    assertTrue(Practice.twoWay(head, current, TraversalBudget.unlimited()));
+    assertTrue(Practice.positivePathExists(graph, 0, n - 1, TraversalBudget.unlimited()));
+
+    TraversalBudget budget = TraversalBudget.unlimited().withMaxVertices(1000);
+    assertEquals(1000, Practice.sortedReachable(graph, 0, budget).size());
+    assertEquals(TraversalBudget.Reason.VERTICES, budget.reason());
+  }
+
+  // --- Tests for positivePath(Map<Integer, Set<Integer>> graph, int starting, int ending) ---
+
+  @Test
+  public void testPositivePath_PrefersShortestPositiveRoute() {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    graph.put(1, new HashSet<>(Arrays.asList(2, 5)));
+    graph.put(2, new HashSet<>(Arrays.asList(3)));
+    graph.put(3, new HashSet<>(Arrays.asList(4)));
+    graph.put(5, new HashSet<>(Arrays.asList(-6, 4)));
+    graph.put(-6, new HashSet<>(Arrays.asList(4)));
+    graph.put(4, new HashSet<>());
+    assertEquals(List.of(1, 5, 4), Practice.positivePath(graph, 1, 4));
+  }
+
+  @Test
+  public void testPositivePath_SelfAndMissing() {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    graph.put(5, new HashSet<>(Arrays.asList(10)));
+    assertEquals(List.of(5), Practice.positivePath(graph, 5, 5));
+    // 10 is only a neighbor, not a key, so it cannot be reached.
+    assertTrue(Practice.positivePath(graph, 5, 10).isEmpty());
+    assertTrue(Practice.positivePath(graph, 7, 5).isEmpty());
+  }
+
+  @Test
+  public void testPositivePath_OnlyThroughNegative() {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    graph.put(3, new HashSet<>(Arrays.asList(-4)));
+    graph.put(-4, new HashSet<>(Arrays.asList(5)));
+    graph.put(5, new HashSet<>());
+    assertTrue(Practice.positivePath(graph, 3, 5).isEmpty());
+  }
+
+  @Test
+  public void testPositivePath_AgreesWithPositivePathExists() {
+    Random random = new Random(36);
+    for (int trial = 0; trial < 30; trial++) {
+      Map<Integer, Set<Integer>> graph = new HashMap<>();
+      for (int id = -5; id < 25; id++) {
+        Set<Integer> neighbors = new HashSet<>();
+        for (int i = random.nextInt(3); i > 0; i--) neighbors.add(random.nextInt(32) - 5);
+        graph.put(id, neighbors);
+      }
+      CsrGraph compact = CsrGraph.fromMap(graph);
+      CsrGraph reverse = compact.transpose();
+      for (int start = -5; start < 27; start += 2) {
+        for (int end = -5; end < 27; end += 3) {
+          List<Integer> path = Practice.positivePath(graph, start, end);
+          assertEquals(Practice.positivePathExists(graph, start, end), !path.isEmpty());
+          for (int i = 0; i + 1 < path.size(); i++) {
+            assertTrue(path.get(i) >= 0 && graph.get(path.get(i)).contains(path.get(i + 1)));
+          }
+          assertEquals(path.size(), CompactGraphs.positivePath(compact, start, end).size());
+          List<Integer> bidirectional = CompactGraphs.positivePathBidirectional(compact, reverse, start, end);
+          assertEquals(path.size(), bidirectional.size());
+          if (!path.isEmpty()) {
+            assertEquals(start, bidirectional.get(0));
+            assertEquals(end, bidirectional.get(bidirectional.size() - 1));
+          }
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,181 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact copy of a Professional network: a CsrGraph over the professionals plus one company
+ * label per vertex.
+ *
+ * Every professional reachable from the given roots becomes a vertex whose id is its index, and
+ * every connection becomes an edge. Company names are dictionary-encoded into small int codes, so
+ * a company check is an int comparison instead of a String.equals. Traversals that only need the
+ * graph and the labels, such as the sharded and direction-optimising engines, work on this copy;
+ * the Professional objects are kept only to translate answers back.
+ */
+public class ProfessionalNetwork {
+  private final CsrGraph graph;
+  private final Professional[] professionals;
+  private final Map<Professional, Integer> indexOf;
+  private final int[] companies;
+  private final Map<String, Integer> companyCodes;
+  // Built on the first search, since it holds a transpose as large as the graph.
+  private DirectionOptimizingBfs bfs;
+
+  private ProfessionalNetwork(CsrGraph graph, Professional[] professionals, Map<Professional, Integer> indexOf,
+                              int[] companies, Map<String, Integer> companyCodes) {
+    this.graph = graph;
+    this.professionals = professionals;
+    this.indexOf = indexOf;
+    this.companies = companies;
+    this.companyCodes = companyCodes;
+  }
+
+  /**
+   * Copies the network reachable from the given professionals. Null roots and null connections
+   * are skipped, as hasExtendedConnectionAtCompany skips them.
+   *
+   * @param roots the professionals to start from
+   * @return the compact network
+   */
+  public static ProfessionalNetwork of(Collection<Professional> roots) {
+    Map<Professional, Integer> indexOf = new HashMap<>();
+    List<Professional> order = new ArrayList<>();
+    for (Professional root : roots) {
+      if (root == null || indexOf.containsKey(root)) continue;
+      indexOf.put(root, order.size());
+      order.add(root);
+      // order doubles as the queue: everything after head still needs its connections scanned.
+      for (int head = order.size() - 1; head < order.size(); head++) {
+        for (Professional connection : order.get(head).getConnections()) {
+          if (connection == null || indexOf.containsKey(connection)) continue;
+          indexOf.put(connection, order.size());
+          order.add(connection);
+        }
+      }
+    }
+
+    int n = order.size();
+    int[] ids = new int[n];
+    int[] offsets = new int[n + 1];
+    int[] targets = new int[16];
+    int[] companies = new int[n];
+    Map<String, Integer> companyCodes = new HashMap<>();
+    int m = 0;
+    for (int v = 0; v < n; v++) {
+      Professional professional = order.get(v);
+      ids[v] = v;
+      String company = professional.getCompany();
+      companies[v] = company == null ? -1 : companyCodes.computeIfAbsent(company, c -> companyCodes.size());
+      for (Professional connection : professional.getConnections()) {
+        if (connection == null) continue;
+        if (m == targets.length) targets = Arrays.copyOf(targets, m * 2);
+        targets[m++] = indexOf.get(connection);
+      }
+      offsets[v + 1] = m;
+    }
+
+    CsrGraph graph = new CsrGraph(ids, offsets, Arrays.copyOf(targets, m));
+    return new ProfessionalNetwork(graph, order.toArray(new Professional[0]), indexOf, companies, companyCodes);
+  }
+
+  /**
+   * Returns the connection graph. Vertex ids equal vertex indices.
+   *
+   * @return the graph
+   */
+  public CsrGraph graph() {
+    return graph;
+  }
+
+  /**
+   * Returns the index of a professional, or -1 if it is not part of this network.
+   *
+   * @param professional a professional
+   * @return its vertex index, or -1
+   */
+  public int indexOf(Professional professional) {
+    Integer index = indexOf.get(professional);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Returns the professional at the given index.
+   *
+   * @param index a vertex index
+   * @return the professional
+   */
+  public Professional professional(int index) {
+    return professionals[index];
+  }
+
+  /**
+   * Returns the code of a company, or -1 if nobody in the network works there.
+   *
+   * @param companyName a company name
+   * @return its code, or -1
+   */
+  public int companyCode(String companyName) {
+    Integer code = companyCodes.get(companyName);
+    return code == null ? -1 : code;
+  }
+
+  /**
+   * Returns the company code of the professional at the given index.
+   *
+   * @param index a vertex index
+   * @return the company code, or -1 if the professional has no company
+   */
+  public int company(int index) {
+    return companies[index];
+  }
+
+  /**
+   * Returns a copy of the company code of every vertex, indexed by vertex.
+   *
+   * @return the company labels
+   */
+  public int[] companyLabels() {
+    return companies.clone();
+  }
+
+  /**
+   * Answers Practice.hasExtendedConnectionAtCompany on the compact copy with a
+   * direction-optimizing search over int labels. Professionals outside the network are treated
+   * like null.
+   *
+   * @param person the professional to start the search from (may be null)
+   * @param companyName the name of the company to check for employment
+   * @return true if a person in the extended network works at the specified company
+   */
+  public boolean hasExtendedConnectionAtCompany(Professional person, String companyName) {
+    int start = indexOf(person);
+    int code = companyCode(companyName);
+    if (start < 0 || code < 0) return false;
+    return directionOptimizingBfs().search(start, companies, code).found() >= 0;
+  }
+
+  /**
+   * Returns everyone in the extended network of a professional, including themself.
+   *
+   * @param person the professional to start from
+   * @return the reachable professionals, ordered by vertex index
+   */
+  public List<Professional> extendedNetwork(Professional person) {
+    List<Professional> result = new ArrayList<>();
+    int start = indexOf(person);
+    if (start < 0) return result;
+    long[] reached = directionOptimizingBfs().reachable(start);
+    for (int v = CompactGraphs.nextSetBit(reached, 0); v >= 0; v = CompactGraphs.nextSetBit(reached, v + 1)) {
+      result.add(professionals[v]);
+    }
+    return result;
+  }
+
+  private synchronized DirectionOptimizingBfs directionOptimizingBfs() {
+    if (bfs == null) bfs = DirectionOptimizingBfs.of(graph);
+    return bfs;
+  }
+}
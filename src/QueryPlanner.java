@@ -0,0 +1,529 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Answers Practice's Map-graph queries, choosing for each call the engine that should be cheapest.
+ *
+ * No single engine is best for every query. A depth-first search stops as soon as it meets its
+ * target, which suits existence questions on a graph with no index. An index over the strongly
+ * connected components (see StronglyConnectedComponents) settles many questions without any
+ * search: two vertices in the same component reach each other, and since component ids are a
+ * reverse topological order, a vertex never reaches a component with a higher id. Whole
+ * reachable sets are cheapest to read off the condensation DAG when the index exists, and a
+ * direction-optimizing breadth-first search beats a plain traversal on large, dense graphs.
+ *
+ * The planner gathers cheap statistics once (vertex and edge counts, average and largest
+ * degree, and component counts and sizes once the index is built) and picks a Strategy per call
+ * from them. The index costs one linear pass and is built on request by buildIndex, so the
+ * caller decides when the queries to come are worth it. Each decision is a Plan, which the
+ * explain methods return without running the query; with a trace consumer set, every query also
+ * reports its Plan together with the edges it examined and the time it took.
+ *
+ * Results match Practice.positivePathExists(Map, int, int) and Practice.sortedReachable(Map,
+ * int). twoWay is the Map-graph counterpart of Practice.twoWay. The graph is copied when the
+ * planner is built; later changes to the map are not seen. A planner may be shared between
+ * threads once buildIndex has returned.
+ */
+public final class QueryPlanner {
+  /** Below this many vertices a plain traversal is always cheap enough. */
+  static final int LARGE_GRAPH = 1 << 15;
+  /** The average degree above which bottom-up steps pay for the reverse graph they need. */
+  static final double DENSE_DEGREE = 8;
+
+  /**
+   * The engines a query can run on.
+   */
+  public enum Strategy {
+    /** The answer follows from the query's arguments alone. */
+    TRIVIAL,
+    /** Answered from component ids, without traversing. */
+    INDEX,
+    /** A depth-first search over the condensation DAG of the index. */
+    CONDENSATION,
+    /** A depth-first search over the graph that stops at the target. */
+    DEPTH_FIRST,
+    /** A breadth-first search switching between top-down and bottom-up steps. */
+    DIRECTION_OPTIMIZING
+  }
+
+  private final CsrGraph graph;
+  private final CsrGraph positive;
+  private final int[] positiveIndex;
+  private final long edgeCount;
+  private final int maxDegree;
+  private volatile StronglyConnectedComponents components;
+  private volatile StronglyConnectedComponents positiveComponents;
+  private volatile DirectionOptimizingBfs bfs;
+  private volatile Consumer<Plan> trace;
+
+  private QueryPlanner(CsrGraph graph) {
+    this.graph = graph;
+    int n = graph.vertexCount();
+    int max = 0;
+    for (int v = 0; v < n; v++) {
+      max = (int) Math.max(max, graph.edgeEnd(v) - graph.edgeStart(v));
+    }
+    this.maxDegree = max;
+    this.edgeCount = graph.edgeCount();
+
+    // positivePathExists only passes through non-negative ids, so its index covers just those.
+    positiveIndex = new int[n];
+    int kept = 0;
+    for (int v = 0; v < n; v++) {
+      positiveIndex[v] = graph.id(v) >= 0 ? kept++ : -1;
+    }
+    int[] ids = new int[kept];
+    int[] offsets = new int[kept + 1];
+    int[] targets = new int[16];
+    int m = 0;
+    for (int v = 0; v < n; v++) {
+      if (positiveIndex[v] < 0) continue;
+      ids[positiveIndex[v]] = graph.id(v);
+      for (long e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+        int w = positiveIndex[graph.target(e)];
+        if (w < 0) continue;
+        if (m == targets.length) targets = Arrays.copyOf(targets, m * 2);
+        targets[m++] = w;
+      }
+      offsets[positiveIndex[v] + 1] = m;
+    }
+    this.positive = new CsrGraph(ids, offsets, Arrays.copyOf(targets, m));
+  }
+
+  /**
+   * Builds a planner over a copy of a Map-based graph, without an index.
+   *
+   * @param graph a map representing the graph
+   * @return the planner
+   */
+  public static QueryPlanner of(Map<Integer, Set<Integer>> graph) {
+    return new QueryPlanner(CsrGraph.fromMap(graph));
+  }
+
+  /**
+   * Computes the strongly connected component index, if it has not been built yet. Later
+   * queries use it wherever it helps.
+   *
+   * @return this planner
+   */
+  public synchronized QueryPlanner buildIndex() {
+    if (components == null) {
+      positiveComponents = StronglyConnectedComponents.of(positive);
+      components = StronglyConnectedComponents.of(graph);
+    }
+    return this;
+  }
+
+  /**
+   * Sets a consumer that receives the Plan of every query after it runs, or null to stop
+   * tracing. The consumer is called on the querying thread.
+   *
+   * @param trace the consumer, or null
+   */
+  public void setTrace(Consumer<Plan> trace) {
+    this.trace = trace;
+  }
+
+  /**
+   * Returns the statistics the planner decides from.
+   *
+   * @return the statistics
+   */
+  public Statistics statistics() {
+    StronglyConnectedComponents index = components;
+    int count = -1;
+    int largest = -1;
+    if (index != null) {
+      count = index.componentCount();
+      largest = 0;
+      for (int c = 0; c < count; c++) {
+        largest = Math.max(largest, index.size(c));
+      }
+    }
+    return new Statistics(graph.vertexCount(), edgeCount, maxDegree, count, largest);
+  }
+
+  /**
+   * Explains how positivePathExists would answer, without running it.
+   *
+   * @param starting the starting vertex
+   * @param ending the ending vertex
+   * @return the plan
+   */
+  public Plan explainPositivePathExists(int starting, int ending) {
+    String query = "positivePathExists(" + starting + ", " + ending + ")";
+    int start = graph.indexOf(starting);
+    int end = graph.indexOf(ending);
+    if (start < 0 || starting < 0 || ending < 0) return new Plan(query, Strategy.TRIVIAL, "a negative or missing start, or a negative end, has no path");
+    if (starting == ending) return new Plan(query, Strategy.TRIVIAL, "every vertex reaches itself");
+    if (end < 0) return new Plan(query, Strategy.TRIVIAL, "the end is not in the graph");
+    StronglyConnectedComponents index = positiveComponents;
+    if (index != null) {
+      int from = index.component(positiveIndex[start]);
+      int to = index.component(positiveIndex[end]);
+      if (from == to) return new Plan(query, Strategy.INDEX, "both are in strongly connected component " + from);
+      if (to > from) return new Plan(query, Strategy.INDEX, "component " + to + " comes before component " + from + " in topological order");
+      return new Plan(query, Strategy.CONDENSATION, "searching components " + to + " to " + from + " of the condensation");
+    }
+    return new Plan(query, Strategy.DEPTH_FIRST, "no index; a depth-first search can stop at the end");
+  }
+
+  /**
+   * Returns whether there is a path from starting to ending that only passes through vertices
+   * with non-negative values, like Practice.positivePathExists.
+   *
+   * @param starting the starting vertex
+   * @param ending the ending vertex
+   * @return whether a valid positive path exists
+   */
+  public boolean positivePathExists(int starting, int ending) {
+    Plan plan = explainPositivePathExists(starting, ending);
+    long began = System.nanoTime();
+    long[] examined = new long[1];
+    boolean found;
+    switch (plan.strategy) {
+      case TRIVIAL:
+        found = starting == ending && graph.indexOf(starting) >= 0 && starting >= 0;
+        break;
+      case INDEX:
+        found = positiveComponents.component(positiveIndex[graph.indexOf(starting)])
+            == positiveComponents.component(positiveIndex[graph.indexOf(ending)]);
+        break;
+      case CONDENSATION:
+        found = condensationReaches(positiveComponents, positiveComponents.component(positiveIndex[graph.indexOf(starting)]),
+            positiveComponents.component(positiveIndex[graph.indexOf(ending)]), examined);
+        break;
+      default:
+        found = reaches(positive, positiveIndex[graph.indexOf(starting)], positiveIndex[graph.indexOf(ending)], examined);
+    }
+    report(plan, examined[0], began);
+    return found;
+  }
+
+  /**
+   * Explains how sortedReachable would answer, without running it.
+   *
+   * @param starting the starting vertex
+   * @return the plan
+   */
+  public Plan explainSortedReachable(int starting) {
+    String query = "sortedReachable(" + starting + ")";
+    if (graph.indexOf(starting) < 0) return new Plan(query, Strategy.TRIVIAL, "the start is not in the graph");
+    if (components != null) return new Plan(query, Strategy.CONDENSATION, "the index gives the components to list");
+    Statistics statistics = statistics();
+    if (statistics.vertexCount() >= LARGE_GRAPH && statistics.averageDegree() >= DENSE_DEGREE) {
+      return new Plan(query, Strategy.DIRECTION_OPTIMIZING, String.format("%d vertices with average degree %.1f",
+          statistics.vertexCount(), statistics.averageDegree()));
+    }
+    return new Plan(query, Strategy.DEPTH_FIRST, "no index and the graph is small or sparse");
+  }
+
+  /**
+   * Returns every vertex reachable from starting, sorted, like Practice.sortedReachable.
+   *
+   * @param starting the starting vertex
+   * @return the sorted reachable vertices, or an empty list if starting is not in the graph
+   */
+  public List<Integer> sortedReachable(int starting) {
+    Plan plan = explainSortedReachable(starting);
+    long began = System.nanoTime();
+    long examined = -1;
+    List<Integer> reachable;
+    switch (plan.strategy) {
+      case TRIVIAL:
+        reachable = CompactGraphs.sortedReachable(graph, starting);
+        break;
+      case CONDENSATION:
+        reachable = MultiSourceReachability.sortedReachable(graph, components, new int[] {starting}).get(0);
+        break;
+      case DIRECTION_OPTIMIZING:
+        DirectionOptimizingBfs engine = directionOptimizingBfs();
+        DirectionOptimizingBfs.Result result = engine.search(graph.indexOf(starting), null, -1);
+        examined = result.edgesExamined();
+        reachable = CompactGraphs.sortedIds(result.reached(), graph::id);
+        break;
+      default:
+        reachable = CompactGraphs.sortedReachable(graph, starting);
+    }
+    report(plan, examined, began);
+    return reachable;
+  }
+
+  /**
+   * Explains how twoWay would answer, without running it.
+   *
+   * @param first one vertex
+   * @param second another vertex
+   * @return the plan
+   */
+  public Plan explainTwoWay(int first, int second) {
+    String query = "twoWay(" + first + ", " + second + ")";
+    if (graph.indexOf(first) < 0 || graph.indexOf(second) < 0) return new Plan(query, Strategy.TRIVIAL, "a vertex is not in the graph");
+    if (first == second) return new Plan(query, Strategy.TRIVIAL, "every vertex reaches itself");
+    if (components != null) return new Plan(query, Strategy.INDEX, "mutual reachability is sharing a component");
+    return new Plan(query, Strategy.DEPTH_FIRST, "no index; two depth-first searches that stop at their targets");
+  }
+
+  /**
+   * Returns whether each vertex can reach the other, the Map-graph counterpart of Practice.twoWay.
+   * A vertex always reaches itself.
+   *
+   * @param first one vertex
+   * @param second another vertex
+   * @return whether there is a two-way connection
+   */
+  public boolean twoWay(int first, int second) {
+    Plan plan = explainTwoWay(first, second);
+    long began = System.nanoTime();
+    long[] examined = new long[1];
+    int a = graph.indexOf(first);
+    int b = graph.indexOf(second);
+    boolean result;
+    switch (plan.strategy) {
+      case TRIVIAL:
+        result = a >= 0 && a == b;
+        break;
+      case INDEX:
+        result = components.component(a) == components.component(b);
+        break;
+      default:
+        result = reaches(graph, a, b, examined) && reaches(graph, b, a, examined);
+    }
+    report(plan, examined[0], began);
+    return result;
+  }
+
+  private synchronized DirectionOptimizingBfs directionOptimizingBfs() {
+    if (bfs == null) bfs = DirectionOptimizingBfs.of(graph);
+    return bfs;
+  }
+
+  private void report(Plan plan, long examined, long began) {
+    Consumer<Plan> consumer = trace;
+    if (consumer != null) consumer.accept(plan.ran(examined, System.nanoTime() - began));
+  }
+
+  /**
+   * Depth-first search from start that stops when it meets end, adding the edges it examines
+   * to examined[0].
+   */
+  private static boolean reaches(CompactGraph graph, int start, int end, long[] examined) {
+    if (start == end) return true;
+    long[] visited = new long[CompactGraphs.words(graph.vertexCount())];
+    int[] stack = new int[16];
+    int size = 0;
+    stack[size++] = start;
+    CompactGraphs.set(visited, start);
+    while (size > 0) {
+      int current = stack[--size];
+      for (long e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+        examined[0]++;
+        int next = graph.target(e);
+        if (next == end) return true;
+        if (CompactGraphs.get(visited, next)) continue;
+        CompactGraphs.set(visited, next);
+        if (size == stack.length) stack = Arrays.copyOf(stack, size * 2);
+        stack[size++] = next;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Depth-first search of the condensation from component from towards component to. Edges go
+   * from higher ids to lower ones, so components below to cannot lead to it and are skipped.
+   */
+  private static boolean condensationReaches(StronglyConnectedComponents index, int from, int to, long[] examined) {
+    long[] visited = new long[CompactGraphs.words(index.componentCount())];
+    int[] stack = new int[16];
+    int size = 0;
+    stack[size++] = from;
+    CompactGraphs.set(visited, from);
+    while (size > 0) {
+      int current = stack[--size];
+      for (int i = 0; i < index.successorCount(current); i++) {
+        examined[0]++;
+        int next = index.successor(current, i);
+        if (next == to) return true;
+        if (next < to || CompactGraphs.get(visited, next)) continue;
+        CompactGraphs.set(visited, next);
+        if (size == stack.length) stack = Arrays.copyOf(stack, size * 2);
+        stack[size++] = next;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The statistics a planner decides from.
+   */
+  public static final class Statistics {
+    private final int vertexCount;
+    private final long edgeCount;
+    private final int maxDegree;
+    private final int componentCount;
+    private final int largestComponent;
+
+    Statistics(int vertexCount, long edgeCount, int maxDegree, int componentCount, int largestComponent) {
+      this.vertexCount = vertexCount;
+      this.edgeCount = edgeCount;
+      this.maxDegree = maxDegree;
+      this.componentCount = componentCount;
+      this.largestComponent = largestComponent;
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+      return vertexCount;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return the number of edges
+     */
+    public long edgeCount() {
+      return edgeCount;
+    }
+
+    /**
+     * Returns the average out-degree.
+     *
+     * @return edges per vertex, or 0 for an empty graph
+     */
+    public double averageDegree() {
+      return vertexCount == 0 ? 0 : (double) edgeCount / vertexCount;
+    }
+
+    /**
+     * Returns the largest out-degree.
+     *
+     * @return the largest out-degree
+     */
+    public int maxDegree() {
+      return maxDegree;
+    }
+
+    /**
+     * Returns whether the component index has been built.
+     *
+     * @return whether the index is available
+     */
+    public boolean indexed() {
+      return componentCount >= 0;
+    }
+
+    /**
+     * Returns the number of strongly connected components.
+     *
+     * @return the number of components, or -1 without the index
+     */
+    public int componentCount() {
+      return componentCount;
+    }
+
+    /**
+     * Returns the size of the largest strongly connected component.
+     *
+     * @return the largest component's size, or -1 without the index
+     */
+    public int largestComponent() {
+      return largestComponent;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d vertices, %d edges, average degree %.2f, max degree %d, %s", vertexCount, edgeCount,
+          averageDegree(), maxDegree, indexed()
+              ? componentCount + " components, largest " + largestComponent
+              : "no index");
+    }
+  }
+
+  /**
+   * A query's chosen strategy and the reason for it, and once the query has run, the work it did.
+   */
+  public static final class Plan {
+    private final String query;
+    private final Strategy strategy;
+    private final String reason;
+    private final long edgesExamined;
+    private final long nanos;
+
+    Plan(String query, Strategy strategy, String reason) {
+      this(query, strategy, reason, -1, -1);
+    }
+
+    private Plan(String query, Strategy strategy, String reason, long edgesExamined, long nanos) {
+      this.query = query;
+      this.strategy = strategy;
+      this.reason = reason;
+      this.edgesExamined = edgesExamined;
+      this.nanos = nanos;
+    }
+
+    Plan ran(long edgesExamined, long nanos) {
+      return new Plan(query, strategy, reason, edgesExamined, nanos);
+    }
+
+    /**
+     * Returns the query, written as a call.
+     *
+     * @return the query
+     */
+    public String query() {
+      return query;
+    }
+
+    /**
+     * Returns the chosen strategy.
+     *
+     * @return the strategy
+     */
+    public Strategy strategy() {
+      return strategy;
+    }
+
+    /**
+     * Returns why the strategy was chosen.
+     *
+     * @return the reason
+     */
+    public String reason() {
+      return reason;
+    }
+
+    /**
+     * Returns how many edges the query examined, counting condensation edges for CONDENSATION
+     * searches.
+     *
+     * @return the edges examined, or -1 if the query has not run or its engine does not count them
+     */
+    public long edgesExamined() {
+      return edgesExamined;
+    }
+
+    /**
+     * Returns how long the query took.
+     *
+     * @return the elapsed nanoseconds, or -1 if the query has not run
+     */
+    public long nanos() {
+      return nanos;
+    }
+
+    @Override
+    public String toString() {
+      String plan = query + ": " + strategy + " (" + reason + ")";
+      if (nanos < 0) return plan;
+      return plan + ", " + (edgesExamined < 0 ? "edges not counted" : edgesExamined + " edges") + ", " + nanos + " ns";
+    }
+  }
+}
@@ -0,0 +1,104 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class QueryPlannerTest {
+
+  // A random map graph over ids -10..59 with a few dangling neighbors.
+  private static Map<Integer, Set<Integer>> randomGraph(Random random) {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    for (int id = -10; id < 60; id++) {
+      Set<Integer> neighbors = new HashSet<>();
+      int degree = random.nextInt(3);
+      for (int i = 0; i < degree; i++) neighbors.add(random.nextInt(75) - 12);
+      graph.put(id, neighbors);
+    }
+    return graph;
+  }
+
+  @Test
+  public void testAnswersMatchPracticeWithAndWithoutIndex() {
+    Random random = new Random(49);
+    for (int trial = 0; trial < 20; trial++) {
+      Map<Integer, Set<Integer>> graph = randomGraph(random);
+      QueryPlanner planner = QueryPlanner.of(graph);
+      for (int pass = 0; pass < 2; pass++) {
+        for (int a = -12; a < 63; a += 3) {
+          List<Integer> reachable = Practice.sortedReachable(graph, a);
+          assertEquals(reachable, planner.sortedReachable(a));
+          for (int b = -12; b < 63; b += 4) {
+            assertEquals(Practice.positivePathExists(graph, a, b), planner.positivePathExists(a, b), a + " -> " + b);
+            boolean expected = graph.containsKey(a) && graph.containsKey(b)
+                && reachable.contains(b) && Practice.sortedReachable(graph, b).contains(a);
+            assertEquals(expected, planner.twoWay(a, b), a + " <-> " + b);
+          }
+        }
+        planner.buildIndex();
+      }
+    }
+  }
+
+  @Test
+  public void testChoosesStrategiesFromStatistics() {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    graph.put(1, new HashSet<>(List.of(2)));
+    graph.put(2, new HashSet<>(List.of(1, 3)));
+    graph.put(3, new HashSet<>(List.of(4)));
+    graph.put(4, new HashSet<>());
+    QueryPlanner planner = QueryPlanner.of(graph);
+    assertFalse(planner.statistics().indexed());
+    assertEquals(QueryPlanner.Strategy.TRIVIAL, planner.explainPositivePathExists(-1, 3).strategy());
+    assertEquals(QueryPlanner.Strategy.DEPTH_FIRST, planner.explainPositivePathExists(1, 4).strategy());
+    assertEquals(QueryPlanner.Strategy.DEPTH_FIRST, planner.explainSortedReachable(1).strategy());
+
+    planner.buildIndex();
+    QueryPlanner.Statistics statistics = planner.statistics();
+    assertEquals(3, statistics.componentCount());
+    assertEquals(2, statistics.largestComponent());
+    assertEquals(QueryPlanner.Strategy.INDEX, planner.explainPositivePathExists(2, 1).strategy());
+    assertEquals(QueryPlanner.Strategy.INDEX, planner.explainPositivePathExists(4, 1).strategy());
+    assertEquals(QueryPlanner.Strategy.CONDENSATION, planner.explainPositivePathExists(1, 4).strategy());
+    assertEquals(QueryPlanner.Strategy.CONDENSATION, planner.explainSortedReachable(3).strategy());
+    assertEquals(QueryPlanner.Strategy.INDEX, planner.explainTwoWay(1, 2).strategy());
+
+    // A large, dense graph without an index gets the direction-optimizing search.
+    Random random = new Random(3);
+    Map<Integer, Set<Integer>> dense = new HashMap<>();
+    int n = QueryPlanner.LARGE_GRAPH;
+    for (int v = 0; v < n; v++) {
+      Set<Integer> neighbors = new HashSet<>();
+      while (neighbors.size() < 10) neighbors.add(random.nextInt(n));
+      dense.put(v, neighbors);
+    }
+    QueryPlanner densePlanner = QueryPlanner.of(dense);
+    assertEquals(QueryPlanner.Strategy.DIRECTION_OPTIMIZING, densePlanner.explainSortedReachable(0).strategy());
+    assertEquals(CompactGraphs.sortedReachable(CsrGraph.fromMap(dense), 0), densePlanner.sortedReachable(0));
+  }
+
+  @Test
+  public void testTraceReportsPlansAndWork() {
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    for (int v = 0; v < 100; v++) graph.put(v, new HashSet<>(List.of(v + 1)));
+    graph.put(100, new HashSet<>());
+    QueryPlanner planner = QueryPlanner.of(graph);
+    List<QueryPlanner.Plan> plans = new ArrayList<>();
+    planner.setTrace(plans::add);
+
+    assertTrue(planner.positivePathExists(0, 100));
+    assertFalse(planner.positivePathExists(100, 0));
+    planner.buildIndex();
+    assertFalse(planner.positivePathExists(100, 0));
+    planner.setTrace(null);
+    planner.twoWay(0, 1);
+
+    assertEquals(3, plans.size());
+    assertEquals(QueryPlanner.Strategy.DEPTH_FIRST, plans.get(0).strategy());
+    assertEquals(100, plans.get(0).edgesExamined());
+    assertTrue(plans.get(0).nanos() >= 0);
+    assertEquals(0, plans.get(1).edgesExamined());
+    assertEquals(QueryPlanner.Strategy.INDEX, plans.get(2).strategy());
+    assertEquals(0, plans.get(2).edgesExamined());
+    assertTrue(plans.get(0).toString().startsWith("positivePathExists(0, 100): DEPTH_FIRST"));
+    assertEquals(-1, planner.explainTwoWay(0, 1).nanos());
+  }
+}
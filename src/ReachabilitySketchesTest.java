@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class ReachabilitySketchesTest {
+
+  // Sparse sketches are exact; dense ones must be within about three standard errors (0.8%
+  // each at the default precision).
+  private static void assertClose(long expected, long actual, String message) {
+    if (expected <= 2048) {
+      assertEquals(expected, actual, message);
+    } else {
+      assertEquals(expected, actual, expected * 0.025, message);
+    }
+  }
+
+  @Test
+  public void testHyperLogLogIsExactWhenSmallAndCloseWhenLarge() {
+    HyperLogLog small = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+    for (int i = 0; i < 3000; i++) small.add(HyperLogLog.hash(i % 1500));
+    assertEquals(1500, small.estimate());
+
+    HyperLogLog large = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+    HyperLogLog other = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+    for (int i = 0; i < 200_000; i++) large.add(HyperLogLog.hash(i));
+    for (int i = 150_000; i < 300_000; i++) other.add(HyperLogLog.hash(i));
+    assertClose(200_000, large.estimate(), "large");
+    large.merge(other);
+    large.merge(small);
+    assertClose(300_000, large.estimate(), "union");
+
+    HyperLogLog left = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+    HyperLogLog right = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+    for (int i = 0; i < 100; i++) left.add(HyperLogLog.hash(i));
+    for (int i = 50; i < 120; i++) right.add(HyperLogLog.hash(i));
+    left.merge(right);
+    assertEquals(120, left.estimate());
+
+    // Across the range where plain HyperLogLog hands over to linear counting.
+    for (int n = 4000; n <= 100_000; n += 4000) {
+      HyperLogLog sketch = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+      for (int i = 0; i < n; i++) sketch.add(HyperLogLog.hash(n * 31 + i));
+      assertClose(n, sketch.estimate(), "n = " + n);
+    }
+  }
+
+  @Test
+  public void testReachableSizesMatchTraversals() {
+    Random random = new Random(50);
+    int n = 20_000;
+    Map<Integer, Set<Integer>> graph = new HashMap<>();
+    for (int v = 0; v < n; v++) {
+      Set<Integer> neighbors = new HashSet<>();
+      // Mostly forward edges with a few back edges, so there are large and small reachable sets.
+      int degree = random.nextInt(3);
+      for (int i = 0; i < degree; i++) neighbors.add(random.nextInt(20) == 0 ? random.nextInt(n) : v + 1 + random.nextInt(50));
+      graph.put(v, neighbors);
+    }
+    CsrGraph compact = CsrGraph.fromMap(graph);
+    ReachabilitySketches sketches = ReachabilitySketches.of(graph);
+    for (int i = 0; i < 200; i++) {
+      int start = random.nextInt(n);
+      assertClose(CompactGraphs.sortedReachable(compact, start).size(), sketches.estimate(start), "start " + start);
+    }
+    assertEquals(0, sketches.estimate(-1));
+
+    Map<Integer, Set<Integer>> small = new HashMap<>();
+    small.put(1, new HashSet<>(List.of(2, 3)));
+    small.put(2, new HashSet<>(List.of(1, 9)));
+    small.put(3, new HashSet<>());
+    small.put(4, new HashSet<>(List.of(4)));
+    ReachabilitySketches smallSketches = ReachabilitySketches.of(small);
+    for (int v = 1; v <= 4; v++) assertEquals(Practice.sortedReachable(small, v).size(), smallSketches.estimate(v));
+  }
+
+  @Test
+  public void testVertexGraphs() {
+    Vertex<Integer> a = new Vertex<>(1);
+    Vertex<Integer> b = new Vertex<>(2);
+    Vertex<Integer> c = new Vertex<>(2);
+    Vertex<Integer> d = new Vertex<>(4);
+    a.neighbors.addAll(List.of(b, c));
+    b.neighbors.add(a);
+    c.neighbors.add(d);
+    ReachabilitySketches sketches = ReachabilitySketches.ofVertices(List.of(a));
+    for (Vertex<Integer> v : List.of(a, b, c, d)) {
+      assertEquals(Practice.sortedReachable(v).size(), sketches.estimate(v));
+    }
+    assertEquals(0, sketches.estimate(new Vertex<>(1)));
+    assertThrows(IllegalStateException.class, () -> ReachabilitySketches.of(new HashMap<>()).estimate(a));
+  }
+
+  @Test
+  public void testDistinctCompaniesAcrossNetworks() {
+    Random random = new Random(51);
+    List<Professional> people = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      people.add(new Professional("P" + i, random.nextInt(50) == 0 ? null : "Company" + random.nextInt(8000), 1, new HashSet<>()));
+    }
+    for (int i = 0; i < 12_000; i++) {
+      Professional x = people.get(random.nextInt(people.size()));
+      Professional y = people.get(random.nextInt(people.size()));
+      x.getConnections().add(y);
+      y.getConnections().add(x);
+    }
+    ProfessionalNetwork network = ProfessionalNetwork.of(people);
+    ReachabilitySketches sketches = ReachabilitySketches.companies(network);
+    NetworkComponents components = NetworkComponents.of(people);
+    boolean sawLarge = false;
+    for (int i = 0; i < 300; i++) {
+      Professional person = people.get(random.nextInt(people.size()));
+      int exact = components.distinctCompanies(person);
+      sawLarge |= exact > 2048;
+      assertClose(exact, sketches.estimate(person), person.getName());
+    }
+    assertTrue(sawLarge);
+    assertThrows(IllegalStateException.class, () -> sketches.estimate(new Vertex<>(1)));
+    assertThrows(IllegalStateException.class, () -> ReachabilitySketches.ofVertices(List.of(new Vertex<>(1))).estimate(people.get(0)));
+  }
+}
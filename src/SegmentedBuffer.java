@@ -0,0 +1,74 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * A little-endian byte region larger than a single ByteBuffer can address.
+ *
+ * The region is split into segments of 1 GiB. Reads and writes take absolute byte offsets;
+ * ints must sit at offsets divisible by 4 and longs at offsets divisible by 8, which keeps every
+ * value inside one segment.
+ */
+final class SegmentedBuffer {
+  private static final int SEGMENT_SHIFT = 30;
+  private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+  private final ByteBuffer[] segments;
+  private final long size;
+
+  private SegmentedBuffer(ByteBuffer[] segments, long size) {
+    this.segments = segments;
+    this.size = size;
+  }
+
+  /**
+   * Maps size bytes of the channel, starting at position, read-only.
+   */
+  static SegmentedBuffer map(FileChannel channel, long position, long size) throws IOException {
+    ByteBuffer[] segments = new ByteBuffer[segmentCount(size)];
+    for (int i = 0; i < segments.length; i++) {
+      long start = (long) i << SEGMENT_SHIFT;
+      long length = Math.min(1L << SEGMENT_SHIFT, size - start);
+      segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + start, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return new SegmentedBuffer(segments, size);
+  }
+
+  /**
+   * Allocates size zeroed bytes outside the Java heap.
+   */
+  static SegmentedBuffer allocateDirect(long size) {
+    ByteBuffer[] segments = new ByteBuffer[segmentCount(size)];
+    for (int i = 0; i < segments.length; i++) {
+      long start = (long) i << SEGMENT_SHIFT;
+      int length = (int) Math.min(1L << SEGMENT_SHIFT, size - start);
+      segments[i] = ByteBuffer.allocateDirect(length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return new SegmentedBuffer(segments, size);
+  }
+
+  long size() {
+    return size;
+  }
+
+  int getInt(long offset) {
+    return segments[(int) (offset >>> SEGMENT_SHIFT)].getInt((int) (offset & SEGMENT_MASK));
+  }
+
+  long getLong(long offset) {
+    return segments[(int) (offset >>> SEGMENT_SHIFT)].getLong((int) (offset & SEGMENT_MASK));
+  }
+
+  void putInt(long offset, int value) {
+    segments[(int) (offset >>> SEGMENT_SHIFT)].putInt((int) (offset & SEGMENT_MASK), value);
+  }
+
+  void putLong(long offset, long value) {
+    segments[(int) (offset >>> SEGMENT_SHIFT)].putLong((int) (offset & SEGMENT_MASK), value);
+  }
+
+  private static int segmentCount(long size) {
+    return (int) Math.max(1, (size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+  }
+}
@@ -0,0 +1,68 @@
+import java.io.Closeable;
+
+/**
+ * The coordinator's connection to one shard worker, either a direct call into a ShardWorker in
+ * the same JVM or a socket to a ShardServer.
+ */
+interface ShardChannel extends Closeable {
+
+  /**
+   * Starts a new query on the shard. See ShardWorker.begin.
+   */
+  void begin(int label);
+
+  /**
+   * Sends a frontier batch and returns the shard's reply. See ShardWorker.step.
+   */
+  Step step(int[] frontier);
+
+  /**
+   * Returns the global indices the shard visited in the current query.
+   */
+  int[] visited();
+
+  @Override
+  void close();
+
+  /**
+   * The reply to a frontier batch: whether a labelled vertex was found, and otherwise the
+   * ghosts reached, indexed by owning shard.
+   */
+  final class Step {
+    static final Step FOUND = new Step(true, new int[0][]);
+
+    final boolean found;
+    final int[][] outbound;
+
+    Step(boolean found, int[][] outbound) {
+      this.found = found;
+      this.outbound = outbound;
+    }
+  }
+
+  /**
+   * Returns a channel calling the given worker directly.
+   */
+  static ShardChannel local(ShardWorker worker) {
+    return new ShardChannel() {
+      @Override
+      public void begin(int label) {
+        worker.begin(label);
+      }
+
+      @Override
+      public Step step(int[] frontier) {
+        return worker.step(frontier);
+      }
+
+      @Override
+      public int[] visited() {
+        return worker.visited();
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+  }
+}
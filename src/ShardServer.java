@@ -0,0 +1,169 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Serves shard workers over TCP, so the shards of a DistributedBfs can live in other JVMs.
+ *
+ * Every accepted connection is one shard: the coordinator first sends a LOAD message with the
+ * shard's tables and labels, then any number of BEGIN, STEP and VISITED requests, each answered
+ * before the next is read. Messages are big-endian ints written with DataOutputStream; arrays
+ * are a length followed by the elements. Every reply starts with a status, OK or ERROR. A
+ * malformed request gets an ERROR followed by a message (writeUTF), and the connection is
+ * closed; the coordinator reports the message when it reads its next reply. Start a standalone
+ * worker process with
+ * {@code java ShardServer <port>}; it listens on the loopback interface until killed.
+ */
+public class ShardServer implements AutoCloseable {
+  static final int LOAD = 1;
+  static final int BEGIN = 2;
+  static final int STEP = 3;
+  static final int VISITED = 4;
+  static final int OK = 0;
+  static final int ERROR = -1;
+
+  private final ServerSocket serverSocket;
+  private final Thread acceptor;
+
+  /**
+   * Starts a server on the loopback interface.
+   *
+   * @param port the port to listen on, or 0 for any free port
+   * @throws IOException if the socket cannot be bound
+   */
+  public ShardServer(int port) throws IOException {
+    this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    this.acceptor = new Thread(this::acceptLoop, "shard-server-" + serverSocket.getLocalPort());
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  /**
+   * Runs a standalone shard server.
+   *
+   * @param args the port to listen on
+   * @throws Exception if the server cannot start
+   */
+  public static void main(String[] args) throws Exception {
+    ShardServer server = new ShardServer(Integer.parseInt(args[0]));
+    System.out.println("Shard server listening on port " + server.port());
+    server.acceptor.join();
+  }
+
+  /**
+   * Returns the port the server listens on.
+   *
+   * @return the local port
+   */
+  public int port() {
+    return serverSocket.getLocalPort();
+  }
+
+  private void acceptLoop() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        Thread handler = new Thread(() -> serve(socket), "shard-worker-" + socket.getPort());
+        handler.setDaemon(true);
+        handler.start();
+      } catch (IOException e) {
+        // The server socket was closed.
+      }
+    }
+  }
+
+  private static void serve(Socket socket) {
+    try (socket) {
+      socket.setTcpNoDelay(true);
+      DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      try {
+        serve(in, out);
+      } catch (ProtocolException | RuntimeException e) {
+        // A malformed request or inconsistent shard tables: report it, then drop the connection.
+        out.writeInt(ERROR);
+        out.writeUTF(String.valueOf(e.getMessage()));
+        out.flush();
+      }
+    } catch (IOException e) {
+      // The coordinator went away; drop the connection.
+    }
+  }
+
+  private static void serve(DataInputStream in, DataOutputStream out) throws IOException {
+    ShardWorker worker = null;
+    while (true) {
+      int op;
+      try {
+        op = in.readInt();
+      } catch (EOFException e) {
+        return;
+      }
+      if (op == LOAD) {
+        int shardCount = in.readInt();
+        GraphPartition.Shard shard = new GraphPartition.Shard(readInts(in), readInts(in), readInts(in),
+            readInts(in), readInts(in), readInts(in));
+        worker = new ShardWorker(shard, readInts(in), shardCount);
+      } else if (worker == null) {
+        throw new ProtocolException("Shard not loaded");
+      } else if (op == BEGIN) {
+        worker.begin(in.readInt());
+      } else if (op == STEP) {
+        ShardChannel.Step step = worker.step(readInts(in));
+        out.writeInt(OK);
+        out.writeBoolean(step.found);
+        out.writeInt(step.outbound.length);
+        for (int[] batch : step.outbound) {
+          writeInts(out, batch);
+        }
+      } else if (op == VISITED) {
+        int[] visited = worker.visited();
+        out.writeInt(OK);
+        writeInts(out, visited);
+      } else {
+        throw new ProtocolException("Unknown message " + op);
+      }
+      out.flush();
+    }
+  }
+
+  /**
+   * Reads an array written by writeInts.
+   *
+   * @throws ProtocolException if the length is negative
+   */
+  static int[] readInts(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) throw new ProtocolException("Negative array length " + length);
+    int[] values = new int[length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = in.readInt();
+    }
+    return values;
+  }
+
+  static void writeInts(DataOutputStream out, int[] values) throws IOException {
+    out.writeInt(values.length);
+    for (int value : values) {
+      out.writeInt(value);
+    }
+  }
+
+  /**
+   * Stops accepting connections. Connections already open are served until the coordinator
+   * closes them.
+   *
+   * @throws IOException if closing the socket fails
+   */
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+  }
+}
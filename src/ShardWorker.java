@@ -0,0 +1,102 @@
+import java.util.Arrays;
+
+/**
+ * Runs the part of a sharded breadth-first search that falls inside one shard.
+ *
+ * A query starts with begin, which clears the visited set. Each step takes a frontier batch of
+ * owned vertices, expands it as far as possible inside the shard, and returns the ghosts it
+ * reached grouped by owning shard, which the coordinator forwards as the next batches. A ghost is
+ * sent at most once per query, so no vertex crosses the wire twice from the same shard.
+ */
+final class ShardWorker {
+  private final GraphPartition.Shard shard;
+  private final int[] labels;
+  private final int shardCount;
+  private final IntIntHashMap localIndex = new IntIntHashMap();
+  private long[] visited;
+  private long[] ghostSent;
+  private int label = -1;
+
+  /**
+   * Constructs a worker.
+   *
+   * @param shard the shard to serve
+   * @param labels the label of every owned vertex, by local index
+   * @param shardCount the number of shards in the partition
+   */
+  ShardWorker(GraphPartition.Shard shard, int[] labels, int shardCount) {
+    this.shard = shard;
+    this.labels = labels;
+    this.shardCount = shardCount;
+    for (int i = 0; i < shard.vertexCount(); i++) {
+      localIndex.put(shard.globalIndex(i), i);
+    }
+    begin(-1);
+  }
+
+  /**
+   * Starts a new query, searching for vertices with the given label, or for none if it is -1.
+   */
+  void begin(int label) {
+    this.label = label;
+    this.visited = new long[CompactGraphs.words(shard.vertexCount())];
+    this.ghostSent = new long[CompactGraphs.words(shard.ghostCount())];
+  }
+
+  /**
+   * Expands a frontier batch of global vertex indices owned by this shard.
+   */
+  ShardChannel.Step step(int[] frontier) {
+    int count = shard.vertexCount();
+    int[] queue = new int[Math.max(16, frontier.length)];
+    int tail = 0;
+    for (int global : frontier) {
+      int v = localIndex.get(global, -1);
+      if (v < 0 || CompactGraphs.get(visited, v)) continue;
+      CompactGraphs.set(visited, v);
+      if (label >= 0 && labels[v] == label) return ShardChannel.Step.FOUND;
+      queue[tail++] = v;
+    }
+
+    int[][] outbound = new int[shardCount][];
+    int[] outboundSizes = new int[shardCount];
+    for (int head = 0; head < tail; head++) {
+      int v = queue[head];
+      for (int e = shard.edgeStart(v); e < shard.edgeEnd(v); e++) {
+        int w = shard.target(e);
+        if (w < count) {
+          if (CompactGraphs.get(visited, w)) continue;
+          CompactGraphs.set(visited, w);
+          if (label >= 0 && labels[w] == label) return ShardChannel.Step.FOUND;
+          if (tail == queue.length) queue = Arrays.copyOf(queue, tail * 2);
+          queue[tail++] = w;
+        } else {
+          int ghost = w - count;
+          if (CompactGraphs.get(ghostSent, ghost)) continue;
+          CompactGraphs.set(ghostSent, ghost);
+          int s = shard.ghostOwner(ghost);
+          if (outbound[s] == null) outbound[s] = new int[8];
+          if (outboundSizes[s] == outbound[s].length) outbound[s] = Arrays.copyOf(outbound[s], outboundSizes[s] * 2);
+          outbound[s][outboundSizes[s]++] = shard.ghostGlobal(ghost);
+        }
+      }
+    }
+
+    for (int s = 0; s < shardCount; s++) {
+      outbound[s] = outbound[s] == null ? new int[0] : Arrays.copyOf(outbound[s], outboundSizes[s]);
+    }
+    return new ShardChannel.Step(false, outbound);
+  }
+
+  /**
+   * Returns the global indices of every vertex visited in the current query.
+   */
+  int[] visited() {
+    int[] result = new int[shard.vertexCount()];
+    int size = 0;
+    for (int v = CompactGraphs.nextSetBit(visited, 0); v >= 0; v = CompactGraphs.nextSetBit(visited, v + 1)) {
+      result[size++] = shard.globalIndex(v);
+    }
+    return Arrays.copyOf(result, size);
+  }
+}
@@ -0,0 +1,285 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Single-source shortest paths over a WeightedGraph.
+ *
+ * Two engines produce the same distances: dijkstra, a sequential Dijkstra on a primitive indexed
+ * binary heap, and deltaStepping, which groups tentative distances into buckets of width delta and
+ * relaxes the edges of a whole bucket in parallel. Delta-stepping pays off on large graphs with
+ * many vertices at similar distances; on small graphs Dijkstra is faster.
+ *
+ * Both engines accept a vertex filter on ids. Only vertices passing the filter may appear on a
+ * path, including the start and the end. POSITIVE applies the rule of
+ * Practice.positivePathExists, which excludes negative ids.
+ */
+public final class ShortestPaths {
+  private static final int PARALLEL_THRESHOLD = 1024;
+
+  /**
+   * Allows every vertex.
+   */
+  public static final IntPredicate ANY_VERTEX = id -> true;
+
+  /**
+   * Allows only non-negative ids, as positivePathExists does.
+   */
+  public static final IntPredicate POSITIVE = id -> id >= 0;
+
+  private ShortestPaths() {
+  }
+
+  /**
+   * Distances and shortest-path tree from one source.
+   */
+  public static final class Result {
+    private final WeightedGraph graph;
+    private final int source;
+    private final double[] distance;
+    private final int[] parent;
+
+    Result(WeightedGraph graph, int source, double[] distance, int[] parent) {
+      this.graph = graph;
+      this.source = source;
+      this.distance = distance;
+      this.parent = parent;
+    }
+
+    /**
+     * Returns the length of a shortest path to the given vertex.
+     *
+     * @param id the target vertex id
+     * @return the distance, or Double.POSITIVE_INFINITY if it cannot be reached
+     */
+    public double distance(int id) {
+      int v = graph.indexOf(id);
+      return v < 0 ? Double.POSITIVE_INFINITY : distance[v];
+    }
+
+    /**
+     * Returns whether the given vertex can be reached.
+     *
+     * @param id the target vertex id
+     * @return whether a path exists
+     */
+    public boolean isReachable(int id) {
+      int v = graph.indexOf(id);
+      return v >= 0 && parent[v] >= 0;
+    }
+
+    /**
+     * Returns the vertex ids of a shortest path from the source to the given vertex.
+     *
+     * @param id the target vertex id
+     * @return the path from source to id inclusive, or an empty list if it cannot be reached
+     */
+    public List<Integer> path(int id) {
+      List<Integer> path = new ArrayList<>();
+      int v = graph.indexOf(id);
+      if (v < 0 || parent[v] < 0) return path;
+      for (; v != source; v = parent[v]) {
+        path.add(graph.id(v));
+      }
+      path.add(graph.id(source));
+      Collections.reverse(path);
+      return path;
+    }
+  }
+
+  /**
+   * Runs Dijkstra's algorithm from the given vertex.
+   *
+   * @param graph the weighted graph
+   * @param starting the source vertex id
+   * @param allowed which vertex ids may appear on a path
+   * @return the distances and paths from starting
+   */
+  public static Result dijkstra(WeightedGraph graph, int starting, IntPredicate allowed) {
+    int n = graph.vertexCount();
+    double[] distance = new double[n];
+    int[] parent = new int[n];
+    Arrays.fill(distance, Double.POSITIVE_INFINITY);
+    Arrays.fill(parent, -1);
+    int source = graph.indexOf(starting);
+    if (source < 0 || !allowed.test(starting)) return new Result(graph, source, distance, parent);
+
+    long[] settled = new long[CompactGraphs.words(n)];
+    IndexedMinHeap heap = new IndexedMinHeap(n);
+    distance[source] = 0;
+    parent[source] = source;
+    heap.insertOrDecrease(source, 0);
+
+    while (!heap.isEmpty()) {
+      int current = heap.poll();
+      CompactGraphs.set(settled, current);
+      for (long e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+        int next = graph.target(e);
+        if (CompactGraphs.get(settled, next) || !allowed.test(graph.id(next))) continue;
+        double candidate = distance[current] + graph.weight(e);
+        if (candidate < distance[next]) {
+          distance[next] = candidate;
+          parent[next] = current;
+          heap.insertOrDecrease(next, candidate);
+        }
+      }
+    }
+    return new Result(graph, source, distance, parent);
+  }
+
+  /**
+   * Runs delta-stepping with the average edge weight as bucket width.
+   *
+   * @param graph the weighted graph
+   * @param starting the source vertex id
+   * @param allowed which vertex ids may appear on a path
+   * @return the distances and paths from starting
+   */
+  public static Result deltaStepping(WeightedGraph graph, int starting, IntPredicate allowed) {
+    double total = 0;
+    for (long e = 0; e < graph.edgeCount(); e++) {
+      if (graph.weight(e) < Double.POSITIVE_INFINITY) total += graph.weight(e);
+    }
+    double delta = graph.edgeCount() == 0 || total == 0 ? 1 : total / graph.edgeCount();
+    return deltaStepping(graph, starting, allowed, delta);
+  }
+
+  /**
+   * Runs delta-stepping. Edges no heavier than delta are light and are relaxed repeatedly while
+   * a bucket settles; heavier edges are relaxed once per bucket. Only non-empty buckets are
+   * stored, so a few very long edges do not allocate the empty buckets in between. Relaxations
+   * of large buckets are computed in parallel on the common fork-join pool and applied
+   * sequentially.
+   *
+   * @param graph the weighted graph
+   * @param starting the source vertex id
+   * @param allowed which vertex ids may appear on a path
+   * @param delta the bucket width, greater than 0
+   * @return the distances and paths from starting
+   */
+  public static Result deltaStepping(WeightedGraph graph, int starting, IntPredicate allowed, double delta) {
+    if (!(delta > 0)) throw new IllegalArgumentException("delta must be positive");
+    int n = graph.vertexCount();
+    double[] distance = new double[n];
+    int[] parent = new int[n];
+    Arrays.fill(distance, Double.POSITIVE_INFINITY);
+    Arrays.fill(parent, -1);
+    int source = graph.indexOf(starting);
+    if (source < 0 || !allowed.test(starting)) return new Result(graph, source, distance, parent);
+
+    TreeMap<Long, IntList> buckets = new TreeMap<>();
+    distance[source] = 0;
+    parent[source] = source;
+    bucket(buckets, 0).add(source);
+
+    int[] mark = new int[n];
+    int round = 0;
+    while (!buckets.isEmpty()) {
+      long b = buckets.firstKey();
+      IntList settledHere = new IntList();
+      while (buckets.containsKey(b)) {
+        IntList entries = buckets.remove(b);
+        round++;
+        IntList frontier = new IntList();
+        for (int i = 0; i < entries.size; i++) {
+          int v = entries.values[i];
+          if (mark[v] == round || bucketOf(distance[v], delta) != b) continue;
+          mark[v] = round;
+          frontier.add(v);
+        }
+        settledHere.addAll(frontier);
+        relax(graph, allowed, delta, frontier, true, distance, parent, buckets);
+      }
+      relax(graph, allowed, delta, distinct(settledHere, mark, ++round), false, distance, parent, buckets);
+    }
+    return new Result(graph, source, distance, parent);
+  }
+
+  /**
+   * Relaxes the light or heavy edges of every frontier vertex.
+   */
+  private static void relax(WeightedGraph graph, IntPredicate allowed, double delta, IntList frontier, boolean light,
+                            double[] distance, int[] parent, TreeMap<Long, IntList> buckets) {
+    int size = frontier.size;
+    if (size == 0) return;
+    long[] slots = new long[size + 1];
+    for (int i = 0; i < size; i++) {
+      int v = frontier.values[i];
+      slots[i + 1] = slots[i] + graph.edgeEnd(v) - graph.edgeStart(v);
+    }
+    if (slots[size] > Integer.MAX_VALUE - 8) throw new IllegalStateException("Frontier too large");
+
+    // Phase 1: compute candidate distances, one slot per edge; NaN marks edges to skip.
+    double[] candidates = new double[(int) slots[size]];
+    IntStream range = IntStream.range(0, size);
+    if (slots[size] >= PARALLEL_THRESHOLD) range = range.parallel();
+    range.forEach(i -> {
+      int v = frontier.values[i];
+      int slot = (int) slots[i];
+      for (long e = graph.edgeStart(v); e < graph.edgeEnd(v); e++, slot++) {
+        double weight = graph.weight(e);
+        int next = graph.target(e);
+        boolean isLight = weight <= delta;
+        double candidate = distance[v] + weight;
+        candidates[slot] = isLight == light && candidate < distance[next] && allowed.test(graph.id(next)) ? candidate : Double.NaN;
+      }
+    });
+
+    // Phase 2: apply the improvements.
+    for (int i = 0; i < size; i++) {
+      int v = frontier.values[i];
+      int slot = (int) slots[i];
+      for (long e = graph.edgeStart(v); e < graph.edgeEnd(v); e++, slot++) {
+        double candidate = candidates[slot];
+        int next = graph.target(e);
+        if (candidate < distance[next]) {
+          distance[next] = candidate;
+          parent[next] = v;
+          if (candidate < Double.POSITIVE_INFINITY) bucket(buckets, bucketOf(candidate, delta)).add(next);
+        }
+      }
+    }
+  }
+
+  private static IntList distinct(IntList values, int[] mark, int round) {
+    IntList result = new IntList();
+    for (int i = 0; i < values.size; i++) {
+      int v = values.values[i];
+      if (mark[v] == round) continue;
+      mark[v] = round;
+      result.add(v);
+    }
+    return result;
+  }
+
+  private static long bucketOf(double distance, double delta) {
+    return (long) (distance / delta);
+  }
+
+  private static IntList bucket(TreeMap<Long, IntList> buckets, long index) {
+    return buckets.computeIfAbsent(index, k -> new IntList());
+  }
+
+  /**
+   * A growable list of ints.
+   */
+  private static final class IntList {
+    int[] values = new int[8];
+    int size;
+
+    void add(int value) {
+      if (size == values.length) values = Arrays.copyOf(values, size * 2);
+      values[size++] = value;
+    }
+
+    void addAll(IntList other) {
+      for (int i = 0; i < other.size; i++) {
+        add(other.values[i]);
+      }
+    }
+  }
+}
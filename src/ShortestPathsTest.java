@@ -0,0 +1,126 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+public class ShortestPathsTest {
+
+  // Bellman-Ford over the same graph, as an independent reference.
+  private static double[] reference(WeightedGraph graph, int source) {
+    double[] distance = new double[graph.vertexCount()];
+    Arrays.fill(distance, Double.POSITIVE_INFINITY);
+    distance[source] = 0;
+    for (int round = 0; round < graph.vertexCount(); round++) {
+      for (int v = 0; v < graph.vertexCount(); v++) {
+        for (long e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+          distance[graph.target(e)] = Math.min(distance[graph.target(e)], distance[v] + graph.weight(e));
+        }
+      }
+    }
+    return distance;
+  }
+
+  @Test
+  public void testBuilderKeepsLightestDuplicate() {
+    WeightedGraph graph = new WeightedGraph.Builder()
+        .addEdge(1, 2, 5.0)
+        .addEdge(1, 2, 3.0)
+        .addEdge(2, 3, 1.0)
+        .addVertex(9)
+        .build();
+    assertEquals(4, graph.vertexCount());
+    assertEquals(2, graph.edgeCount());
+    ShortestPaths.Result result = ShortestPaths.dijkstra(graph, 1, ShortestPaths.ANY_VERTEX);
+    assertEquals(4.0, result.distance(3));
+    assertEquals(List.of(1, 2, 3), result.path(3));
+    assertFalse(result.isReachable(9));
+    assertEquals(Double.POSITIVE_INFINITY, result.distance(9));
+  }
+
+  @Test
+  public void testVertexGraphsAreNumberedByIdentity() {
+    // Two vertices share the data 2, and a -> b is listed twice.
+    Vertex<Integer> a = new Vertex<>(1);
+    Vertex<Integer> b = new Vertex<>(2);
+    Vertex<Integer> c = new Vertex<>(2);
+    Vertex<Integer> d = new Vertex<>(4);
+    a.neighbors.addAll(List.of(b, c, b));
+    b.neighbors.add(d);
+    c.neighbors.add(d);
+    Vertex<Integer> unreachable = new Vertex<>(5);
+    d.neighbors.add(null);
+
+    WeightedGraph.VertexGraph<Integer> weighted = WeightedGraph.fromVertex(a, (from, to) -> from.data + to.data);
+    WeightedGraph graph = weighted.graph();
+    assertEquals(4, graph.vertexCount());
+    assertEquals(4, graph.edgeCount());
+    assertEquals(0, weighted.id(a));
+    assertEquals(-1, weighted.id(unreachable));
+    ShortestPaths.Result result = ShortestPaths.dijkstra(graph, 0, ShortestPaths.ANY_VERTEX);
+    assertEquals(9.0, result.distance(weighted.id(d)));
+    List<Vertex<Integer>> path = new ArrayList<>();
+    for (int id : result.path(weighted.id(d))) path.add(weighted.vertex(id));
+    assertEquals(3, path.size());
+    assertSame(d, path.get(2));
+    assertThrows(IllegalArgumentException.class, () -> WeightedGraph.fromVertex(a, (from, to) -> -1));
+  }
+
+  @Test
+  public void testEnginesMatchReference() {
+    Random random = new Random(37);
+    WeightedGraph.Builder builder = new WeightedGraph.Builder();
+    for (int v = 0; v < 400; v++) builder.addVertex(v);
+    for (int i = 0; i < 2400; i++) builder.addEdge(random.nextInt(400), random.nextInt(400), random.nextInt(100) / 10.0);
+    WeightedGraph graph = builder.build();
+
+    double[] expected = reference(graph, graph.indexOf(0));
+    ShortestPaths.Result dijkstra = ShortestPaths.dijkstra(graph, 0, ShortestPaths.ANY_VERTEX);
+    ShortestPaths.Result delta = ShortestPaths.deltaStepping(graph, 0, ShortestPaths.ANY_VERTEX);
+    ShortestPaths.Result narrow = ShortestPaths.deltaStepping(graph, 0, ShortestPaths.ANY_VERTEX, 0.25);
+    for (int v = 0; v < graph.vertexCount(); v++) {
+      int id = graph.id(v);
+      assertEquals(expected[v], dijkstra.distance(id), 1e-9);
+      assertEquals(expected[v], delta.distance(id), 1e-9);
+      assertEquals(expected[v], narrow.distance(id), 1e-9);
+
+      List<Integer> path = delta.path(id);
+      double length = 0;
+      for (int i = 0; i + 1 < path.size(); i++) {
+        int from = graph.indexOf(path.get(i));
+        double best = Double.POSITIVE_INFINITY;
+        for (long e = graph.edgeStart(from); e < graph.edgeEnd(from); e++) {
+          if (graph.id(graph.target(e)) == path.get(i + 1)) best = Math.min(best, graph.weight(e));
+        }
+        length += best;
+      }
+      if (!path.isEmpty()) assertEquals(expected[v], length, 1e-9);
+    }
+  }
+
+  @Test
+  public void testPositiveFilterMatchesPositivePath() {
+    // With unit weights, shortest distances under POSITIVE are the hop counts of positivePath.
+    Random random = new Random(3);
+    Map<Integer, Set<Integer>> map = new HashMap<>();
+    for (int id = -10; id < 40; id++) {
+      Set<Integer> neighbors = new HashSet<>();
+      for (int i = random.nextInt(3); i > 0; i--) neighbors.add(random.nextInt(50) - 10);
+      map.put(id, neighbors);
+    }
+    WeightedGraph graph = WeightedGraph.fromMap(map, (from, to) -> 1.0);
+    for (int start = -10; start < 40; start += 3) {
+      ShortestPaths.Result dijkstra = ShortestPaths.dijkstra(graph, start, ShortestPaths.POSITIVE);
+      ShortestPaths.Result delta = ShortestPaths.deltaStepping(graph, start, ShortestPaths.POSITIVE);
+      for (int end = -10; end < 40; end++) {
+        List<Integer> path = Practice.positivePath(map, start, end);
+        double expected = path.isEmpty() ? Double.POSITIVE_INFINITY : path.size() - 1;
+        assertEquals(expected, dijkstra.distance(end));
+        assertEquals(expected, delta.distance(end));
+      }
+    }
+  }
+
+  @Test
+  public void testNegativeWeightRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new WeightedGraph.Builder().addEdge(1, 2, -1.0));
+  }
+}
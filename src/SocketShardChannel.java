@@ -0,0 +1,117 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * A ShardChannel talking to a ShardServer over TCP. See ShardServer for the message format.
+ */
+final class SocketShardChannel implements ShardChannel {
+  private final Socket socket;
+  private final DataInputStream in;
+  private final DataOutputStream out;
+
+  private SocketShardChannel(Socket socket) throws IOException {
+    this.socket = socket;
+    socket.setTcpNoDelay(true);
+    this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+  }
+
+  /**
+   * Connects to a server and loads a shard into it.
+   */
+  static SocketShardChannel connect(InetSocketAddress address, GraphPartition.Shard shard, int[] labels, int shardCount) {
+    Socket socket = null;
+    try {
+      socket = new Socket(address.getAddress(), address.getPort());
+      SocketShardChannel channel = new SocketShardChannel(socket);
+      DataOutputStream out = channel.out;
+      out.writeInt(ShardServer.LOAD);
+      out.writeInt(shardCount);
+      ShardServer.writeInts(out, shard.globals());
+      ShardServer.writeInts(out, shard.offsets());
+      ShardServer.writeInts(out, shard.targets());
+      ShardServer.writeInts(out, shard.ghostGlobals());
+      ShardServer.writeInts(out, shard.ghostOwners());
+      ShardServer.writeInts(out, shard.boundaryTable());
+      ShardServer.writeInts(out, labels);
+      out.flush();
+      return channel;
+    } catch (IOException e) {
+      if (socket != null) {
+        try {
+          socket.close();
+        } catch (IOException closing) {
+          e.addSuppressed(closing);
+        }
+      }
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads the status that starts every reply.
+   *
+   * @throws IOException with the server's message if it reported an error
+   */
+  private void readStatus() throws IOException {
+    int status = in.readInt();
+    if (status == ShardServer.ERROR) throw new IOException("Shard server error: " + in.readUTF());
+    if (status != ShardServer.OK) throw new IOException("Unexpected shard server status " + status);
+  }
+
+  @Override
+  public void begin(int label) {
+    try {
+      out.writeInt(ShardServer.BEGIN);
+      out.writeInt(label);
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public Step step(int[] frontier) {
+    try {
+      out.writeInt(ShardServer.STEP);
+      ShardServer.writeInts(out, frontier);
+      out.flush();
+      readStatus();
+      boolean found = in.readBoolean();
+      int[][] outbound = new int[in.readInt()][];
+      for (int s = 0; s < outbound.length; s++) {
+        outbound[s] = ShardServer.readInts(in);
+      }
+      return found ? Step.FOUND : new Step(false, outbound);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public int[] visited() {
+    try {
+      out.writeInt(ShardServer.VISITED);
+      out.flush();
+      readStatus();
+      return ShardServer.readInts(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      socket.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
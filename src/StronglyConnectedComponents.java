@@ -0,0 +1,197 @@
+import java.util.Arrays;
+
+/**
+ * The strongly connected components of a CompactGraph and the condensation DAG between them.
+ *
+ * Components are found with an iterative version of Tarjan's algorithm, which finishes a
+ * component only after every component it can reach. Component ids are handed out in that
+ * finishing order, so they form a reverse topological order of the condensation: every edge of
+ * the DAG goes from a higher component id to a lower one. Walking ids downwards therefore visits
+ * every component before all of its successors.
+ */
+public class StronglyConnectedComponents {
+  private final int[] component;
+  private final int count;
+  private final int[] memberOffsets;
+  private final int[] members;
+  private final int[] dagOffsets;
+  private final int[] dagTargets;
+
+  private StronglyConnectedComponents(int[] component, int count, int[] memberOffsets, int[] members, int[] dagOffsets, int[] dagTargets) {
+    this.component = component;
+    this.count = count;
+    this.memberOffsets = memberOffsets;
+    this.members = members;
+    this.dagOffsets = dagOffsets;
+    this.dagTargets = dagTargets;
+  }
+
+  /**
+   * Computes the components and condensation of a graph.
+   *
+   * @param graph the graph
+   * @return its strongly connected components
+   */
+  public static StronglyConnectedComponents of(CompactGraph graph) {
+    int n = graph.vertexCount();
+    int[] component = new int[n];
+    int[] index = new int[n];
+    int[] low = new int[n];
+    Arrays.fill(index, -1);
+    long[] onStack = new long[CompactGraphs.words(n)];
+    int[] sccStack = new int[n];
+    int sccSize = 0;
+    int[] callVertex = new int[16];
+    long[] callEdge = new long[16];
+    int callSize = 0;
+    int counter = 0;
+    int count = 0;
+
+    for (int root = 0; root < n; root++) {
+      if (index[root] != -1) continue;
+
+      index[root] = low[root] = counter++;
+      sccStack[sccSize++] = root;
+      CompactGraphs.set(onStack, root);
+      callVertex[0] = root;
+      callEdge[0] = graph.edgeStart(root);
+      callSize = 1;
+
+      while (callSize > 0) {
+        int v = callVertex[callSize - 1];
+        long e = callEdge[callSize - 1];
+        if (e < graph.edgeEnd(v)) {
+          callEdge[callSize - 1] = e + 1;
+          int w = graph.target(e);
+          if (index[w] == -1) {
+            index[w] = low[w] = counter++;
+            sccStack[sccSize++] = w;
+            CompactGraphs.set(onStack, w);
+            if (callSize == callVertex.length) {
+              callVertex = Arrays.copyOf(callVertex, callSize * 2);
+              callEdge = Arrays.copyOf(callEdge, callSize * 2);
+            }
+            callVertex[callSize] = w;
+            callEdge[callSize] = graph.edgeStart(w);
+            callSize++;
+          } else if (CompactGraphs.get(onStack, w)) {
+            low[v] = Math.min(low[v], index[w]);
+          }
+        } else {
+          callSize--;
+          if (low[v] == index[v]) {
+            int w;
+            do {
+              w = sccStack[--sccSize];
+              onStack[w >>> 6] &= ~(1L << w);
+              component[w] = count;
+            } while (w != v);
+            count++;
+          }
+          if (callSize > 0) {
+            int parent = callVertex[callSize - 1];
+            low[parent] = Math.min(low[parent], low[v]);
+          }
+        }
+      }
+    }
+
+    // Group vertices by component.
+    int[] memberOffsets = new int[count + 1];
+    for (int v = 0; v < n; v++) {
+      memberOffsets[component[v] + 1]++;
+    }
+    for (int c = 0; c < count; c++) {
+      memberOffsets[c + 1] += memberOffsets[c];
+    }
+    int[] members = new int[n];
+    int[] next = Arrays.copyOf(memberOffsets, count);
+    for (int v = 0; v < n; v++) {
+      members[next[component[v]]++] = v;
+    }
+
+    // Condensation edges, each kept once.
+    int[] dagOffsets = new int[count + 1];
+    int[] dagTargets = new int[16];
+    int[] lastSeen = new int[count];
+    Arrays.fill(lastSeen, -1);
+    int m = 0;
+    for (int c = 0; c < count; c++) {
+      for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+        int v = members[i];
+        for (long e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+          int d = component[graph.target(e)];
+          if (d == c || lastSeen[d] == c) continue;
+          lastSeen[d] = c;
+          if (m == dagTargets.length) dagTargets = Arrays.copyOf(dagTargets, m * 2);
+          dagTargets[m++] = d;
+        }
+      }
+      dagOffsets[c + 1] = m;
+    }
+
+    return new StronglyConnectedComponents(component, count, memberOffsets, members, dagOffsets, Arrays.copyOf(dagTargets, m));
+  }
+
+  /**
+   * Returns the number of components.
+   *
+   * @return the number of components
+   */
+  public int componentCount() {
+    return count;
+  }
+
+  /**
+   * Returns the component of the vertex at the given index.
+   *
+   * @param vertex a vertex index
+   * @return its component id
+   */
+  public int component(int vertex) {
+    return component[vertex];
+  }
+
+  /**
+   * Returns the number of vertices in a component.
+   *
+   * @param component a component id
+   * @return its size
+   */
+  public int size(int component) {
+    return memberOffsets[component + 1] - memberOffsets[component];
+  }
+
+  /**
+   * Returns the i-th vertex of a component.
+   *
+   * @param component a component id
+   * @param i which member, from 0 to size(component) - 1
+   * @return the vertex index
+   */
+  public int member(int component, int i) {
+    return members[memberOffsets[component] + i];
+  }
+
+  /**
+   * Returns the number of components directly reachable from a component.
+   *
+   * @param component a component id
+   * @return its out-degree in the condensation
+   */
+  public int successorCount(int component) {
+    return dagOffsets[component + 1] - dagOffsets[component];
+  }
+
+  /**
+   * Returns the i-th successor of a component in the condensation. Successors always have a
+   * lower id than the component itself.
+   *
+   * @param component a component id
+   * @param i which successor, from 0 to successorCount(component) - 1
+   * @return the successor's component id
+   */
+  public int successor(int component, int i) {
+    return dagTargets[dagOffsets[component] + i];
+  }
+}
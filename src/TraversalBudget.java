@@ -0,0 +1,181 @@
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limits how much work a single traversal may do.
+ *
+ * A budget can cap the number of vertices visited, the number of edges examined, the wall-clock
+ * time spent, and can be cancelled from another thread through a token. The traversal charges
+ * the budget as it goes; once any limit is hit the budget stays exceeded, the traversal stops
+ * early, and the partial answer it returns can be recognised by checking isExceeded().
+ *
+ * The vertex and edge limits are checked on every step. The deadline and the cancellation token
+ * are only checked every 64 steps so the common case costs a counter increment and a comparison.
+ *
+ * A budget records the outcome of one traversal and should not be shared between calls.
+ *
+ * Example:
+ *   TraversalBudget budget = TraversalBudget.unlimited().withMaxVertices(10_000).withDeadline(Duration.ofMillis(5));
+ *   List<Integer> reached = Practice.sortedReachable(graph, 1, budget);
+ *   if (budget.isExceeded()) { ... reached only holds part of the answer ... }
+ */
+public class TraversalBudget {
+  private static final int CHECK_INTERVAL = 64;
+
+  /**
+   * Which limit stopped the traversal.
+   */
+  public enum Reason {
+    VERTICES, EDGES, DEADLINE, CANCELLED
+  }
+
+  private long maxVertices = Long.MAX_VALUE;
+  private long maxEdges = Long.MAX_VALUE;
+  private long stopAt;
+  private boolean hasDeadline;
+  private BooleanSupplier cancelled;
+
+  private long vertices;
+  private long edges;
+  private int untilCheck = CHECK_INTERVAL;
+  private Reason reason;
+
+  private TraversalBudget() {
+  }
+
+  /**
+   * Returns a budget without limits. Use the with methods to add them.
+   *
+   * @return a new budget
+   */
+  public static TraversalBudget unlimited() {
+    return new TraversalBudget();
+  }
+
+  /**
+   * Limits the number of vertices the traversal may visit.
+   *
+   * @param max the maximum number of vertices
+   * @return this budget
+   */
+  public TraversalBudget withMaxVertices(long max) {
+    this.maxVertices = max;
+    return this;
+  }
+
+  /**
+   * Limits the number of edges the traversal may examine.
+   *
+   * @param max the maximum number of edges
+   * @return this budget
+   */
+  public TraversalBudget withMaxEdges(long max) {
+    this.maxEdges = max;
+    return this;
+  }
+
+  /**
+   * Stops the traversal once the given time, measured from now, has passed.
+   *
+   * @param timeout how long the traversal may run
+   * @return this budget
+   */
+  public TraversalBudget withDeadline(Duration timeout) {
+    return withDeadlineNanos(System.nanoTime() + timeout.toNanos());
+  }
+
+  /**
+   * Stops the traversal once System.nanoTime() passes the given value.
+   *
+   * @param stopAt the nanoTime at which to stop
+   * @return this budget
+   */
+  public TraversalBudget withDeadlineNanos(long stopAt) {
+    this.stopAt = stopAt;
+    this.hasDeadline = true;
+    return this;
+  }
+
+  /**
+   * Stops the traversal once the token returns true, for example an AtomicBoolean::get
+   * or Thread.currentThread()::isInterrupted.
+   *
+   * @param token the cancellation token
+   * @return this budget
+   */
+  public TraversalBudget withCancellation(BooleanSupplier token) {
+    this.cancelled = token;
+    return this;
+  }
+
+  /**
+   * Charges one vertex visit.
+   *
+   * @return false if the budget is exceeded and the traversal must stop
+   */
+  public boolean tryVisitVertex() {
+    if (reason != null) return false;
+    if (++vertices > maxVertices) return exceed(Reason.VERTICES);
+    return tick();
+  }
+
+  /**
+   * Charges one edge examination.
+   *
+   * @return false if the budget is exceeded and the traversal must stop
+   */
+  public boolean tryVisitEdge() {
+    if (reason != null) return false;
+    if (++edges > maxEdges) return exceed(Reason.EDGES);
+    return tick();
+  }
+
+  /**
+   * Returns whether any limit was hit.
+   *
+   * @return whether the traversal was stopped early
+   */
+  public boolean isExceeded() {
+    return reason != null;
+  }
+
+  /**
+   * Returns the limit that stopped the traversal, or null if it ran to completion.
+   *
+   * @return the reason, or null
+   */
+  public Reason reason() {
+    return reason;
+  }
+
+  /**
+   * Returns how many vertices were charged.
+   *
+   * @return the number of vertices visited
+   */
+  public long verticesVisited() {
+    return Math.min(vertices, maxVertices);
+  }
+
+  /**
+   * Returns how many edges were charged.
+   *
+   * @return the number of edges examined
+   */
+  public long edgesVisited() {
+    return Math.min(edges, maxEdges);
+  }
+
+  private boolean tick() {
+    if (--untilCheck > 0) return true;
+    untilCheck = CHECK_INTERVAL;
+    if (cancelled != null && cancelled.getAsBoolean()) return exceed(Reason.CANCELLED);
+    if (hasDeadline && System.nanoTime() - stopAt > 0) return exceed(Reason.DEADLINE);
+    return true;
+  }
+
+  private boolean exceed(Reason why) {
+    reason = why;
+    return false;
+  }
+}
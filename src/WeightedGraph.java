@@ -0,0 +1,310 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A CompactGraph whose edges carry non-negative double weights, such as link latencies.
+ *
+ * The structure is the CsrGraph layout with one extra array, weights, parallel to the targets
+ * array. Graphs are built with a Builder, or derived from the existing unweighted models, Map
+ * graphs and Vertex graphs, by supplying a weight function for every edge.
+ */
+public class WeightedGraph implements CompactGraph {
+  private final CsrGraph structure;
+  private final double[] weights;
+
+  /**
+   * Supplies the weight of an edge, given the ids of its endpoints.
+   */
+  public interface EdgeWeight {
+    double weight(int from, int to);
+  }
+
+  /**
+   * Supplies the weight of an edge between two Vertex objects.
+   *
+   * @param <T> the type of data stored in the vertices
+   */
+  public interface VertexWeight<T> {
+    double weight(Vertex<T> from, Vertex<T> to);
+  }
+
+  private WeightedGraph(CsrGraph structure, double[] weights) {
+    this.structure = structure;
+    this.weights = weights;
+  }
+
+  /**
+   * Weighs every edge of a Map-based graph. Neighbors that are not keys are dropped, as in
+   * CsrGraph.fromMap.
+   *
+   * @param graph a map representing the graph
+   * @param weight the weight of each edge
+   * @return the weighted graph
+   * @throws IllegalArgumentException if a weight is negative or not a number
+   */
+  public static WeightedGraph fromMap(Map<Integer, Set<Integer>> graph, EdgeWeight weight) {
+    return weigh(CsrGraph.fromMap(graph), weight);
+  }
+
+  /**
+   * Weighs every edge of the Vertex graph reachable from starting. Vertex data need not be
+   * unique, so vertices are numbered by identity: starting gets id 0 and the others follow in
+   * breadth-first order. Null neighbors are skipped, and a neighbor listed more than once keeps
+   * its lightest edge.
+   *
+   * @param <T> the type of data stored in the vertices
+   * @param starting the starting vertex
+   * @param weight the weight of each edge
+   * @return the weighted graph with the numbering of its vertices
+   * @throws IllegalArgumentException if starting is null or a weight is negative or not a number
+   */
+  public static <T> VertexGraph<T> fromVertex(Vertex<T> starting, VertexWeight<T> weight) {
+    if (starting == null) throw new IllegalArgumentException("starting vertex is null");
+    Map<Vertex<T>, Integer> idOf = new IdentityHashMap<>();
+    List<Vertex<T>> order = new ArrayList<>();
+    idOf.put(starting, 0);
+    order.add(starting);
+    Builder builder = new Builder().addVertex(0);
+    for (int v = 0; v < order.size(); v++) {
+      Vertex<T> vertex = order.get(v);
+      for (Vertex<T> neighbor : vertex.neighbors) {
+        if (neighbor == null) continue;
+        Integer id = idOf.get(neighbor);
+        if (id == null) {
+          id = order.size();
+          idOf.put(neighbor, id);
+          order.add(neighbor);
+        }
+        builder.addEdge(v, id, weight.weight(vertex, neighbor));
+      }
+    }
+    return new VertexGraph<>(builder.build(), order, idOf);
+  }
+
+  /**
+   * A weighted copy of a Vertex graph together with the ids given to its vertices, for running
+   * ShortestPaths on it and translating the answers back.
+   *
+   * @param <T> the type of data stored in the vertices
+   */
+  public static final class VertexGraph<T> {
+    private final WeightedGraph graph;
+    private final List<Vertex<T>> vertices;
+    private final Map<Vertex<T>, Integer> idOf;
+
+    private VertexGraph(WeightedGraph graph, List<Vertex<T>> vertices, Map<Vertex<T>, Integer> idOf) {
+      this.graph = graph;
+      this.vertices = vertices;
+      this.idOf = idOf;
+    }
+
+    /**
+     * Returns the weighted graph.
+     *
+     * @return the graph
+     */
+    public WeightedGraph graph() {
+      return graph;
+    }
+
+    /**
+     * Returns the id of a vertex.
+     *
+     * @param vertex the vertex
+     * @return its id, or -1 if it is not reachable from the starting vertex
+     */
+    public int id(Vertex<T> vertex) {
+      Integer id = idOf.get(vertex);
+      return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the vertex with the given id.
+     *
+     * @param id a vertex id
+     * @return the vertex
+     */
+    public Vertex<T> vertex(int id) {
+      return vertices.get(id);
+    }
+  }
+
+  /**
+   * Weighs every edge of a compact graph.
+   *
+   * @param graph the graph
+   * @param weight the weight of each edge
+   * @return the weighted graph
+   * @throws IllegalArgumentException if a weight is negative or not a number
+   */
+  public static WeightedGraph weigh(CompactGraph graph, EdgeWeight weight) {
+    CsrGraph structure = CsrGraph.copyOf(graph);
+    double[] weights = new double[(int) structure.edgeCount()];
+    for (int v = 0; v < structure.vertexCount(); v++) {
+      for (long e = structure.edgeStart(v); e < structure.edgeEnd(v); e++) {
+        weights[(int) e] = checkWeight(weight.weight(structure.id(v), structure.id(structure.target(e))));
+      }
+    }
+    return new WeightedGraph(structure, weights);
+  }
+
+  /**
+   * Collects weighted edges and builds a WeightedGraph. If an edge is added more than once,
+   * the lightest copy is kept.
+   */
+  public static class Builder {
+    private final IntIntHashMap indexOf = new IntIntHashMap();
+    private int[] ids = new int[16];
+    private int[] from = new int[16];
+    private int[] to = new int[16];
+    private double[] weight = new double[16];
+    private int vertexCount;
+    private int edgeCount;
+
+    /**
+     * Adds a vertex if it is not already present.
+     *
+     * @param id the vertex id
+     * @return this builder
+     */
+    public Builder addVertex(int id) {
+      indexOf(id);
+      return this;
+    }
+
+    /**
+     * Adds the edge from -> to with the given weight. Both endpoints become vertices.
+     *
+     * @param fromId the tail of the edge
+     * @param toId the head of the edge
+     * @param edgeWeight the non-negative weight
+     * @return this builder
+     * @throws IllegalArgumentException if the weight is negative or not a number
+     */
+    public Builder addEdge(int fromId, int toId, double edgeWeight) {
+      checkWeight(edgeWeight);
+      int f = indexOf(fromId);
+      int t = indexOf(toId);
+      if (edgeCount == from.length) {
+        from = Arrays.copyOf(from, edgeCount * 2);
+        to = Arrays.copyOf(to, edgeCount * 2);
+        weight = Arrays.copyOf(weight, edgeCount * 2);
+      }
+      from[edgeCount] = f;
+      to[edgeCount] = t;
+      weight[edgeCount] = edgeWeight;
+      edgeCount++;
+      return this;
+    }
+
+    /**
+     * Builds the graph. Vertices keep the order in which they were first added.
+     *
+     * @return the weighted graph
+     */
+    public WeightedGraph build() {
+      // Bucket the edges by tail with a counting sort, then sort each bucket by head. A key packs
+      // the head above the edge number, so the sort is on primitive longs and duplicates end up
+      // adjacent.
+      int[] offsets = new int[vertexCount + 1];
+      for (int i = 0; i < edgeCount; i++) {
+        offsets[from[i] + 1]++;
+      }
+      for (int v = 0; v < vertexCount; v++) {
+        offsets[v + 1] += offsets[v];
+      }
+      long[] keys = new long[edgeCount];
+      int[] cursor = Arrays.copyOf(offsets, vertexCount);
+      for (int i = 0; i < edgeCount; i++) {
+        keys[cursor[from[i]]++] = (long) to[i] << 32 | i;
+      }
+
+      int[] targets = new int[edgeCount];
+      double[] weights = new double[edgeCount];
+      int m = 0;
+      for (int v = 0; v < vertexCount; v++) {
+        int start = offsets[v];
+        int end = offsets[v + 1];
+        Arrays.sort(keys, start, end);
+        offsets[v] = m;
+        for (int k = start; k < end; k++) {
+          int head = (int) (keys[k] >>> 32);
+          double w = weight[(int) keys[k]];
+          if (k > start && targets[m - 1] == head) {
+            weights[m - 1] = Math.min(weights[m - 1], w);
+          } else {
+            targets[m] = head;
+            weights[m] = w;
+            m++;
+          }
+        }
+      }
+      offsets[vertexCount] = m;
+      CsrGraph structure = new CsrGraph(Arrays.copyOf(ids, vertexCount), offsets, Arrays.copyOf(targets, m));
+      return new WeightedGraph(structure, Arrays.copyOf(weights, m));
+    }
+
+    private int indexOf(int id) {
+      int index = indexOf.get(id, -1);
+      if (index >= 0) return index;
+      if (vertexCount == ids.length) ids = Arrays.copyOf(ids, vertexCount * 2);
+      ids[vertexCount] = id;
+      indexOf.put(id, vertexCount);
+      return vertexCount++;
+    }
+  }
+
+  /**
+   * Returns the weight of the given edge.
+   *
+   * @param edge an edge position
+   * @return its weight
+   */
+  public double weight(long edge) {
+    return weights[(int) edge];
+  }
+
+  @Override
+  public int vertexCount() {
+    return structure.vertexCount();
+  }
+
+  @Override
+  public long edgeCount() {
+    return structure.edgeCount();
+  }
+
+  @Override
+  public int id(int index) {
+    return structure.id(index);
+  }
+
+  @Override
+  public int indexOf(int id) {
+    return structure.indexOf(id);
+  }
+
+  @Override
+  public long edgeStart(int index) {
+    return structure.edgeStart(index);
+  }
+
+  @Override
+  public long edgeEnd(int index) {
+    return structure.edgeEnd(index);
+  }
+
+  @Override
+  public int target(long edge) {
+    return structure.target(edge);
+  }
+
+  private static double checkWeight(double weight) {
+    if (!(weight >= 0)) throw new IllegalArgumentException("Edge weights must be non-negative numbers, got " + weight);
+    return weight;
+  }
+}